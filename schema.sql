@@ -228,3 +228,173 @@ ADD COLUMN `quantity` INT DEFAULT 1 AFTER `employment_type`,
 ADD COLUMN `deadline` DATE DEFAULT NULL AFTER `quantity`,
 ADD COLUMN `job_requirements` TEXT AFTER `description`;
 
+
+-- Update October 2026: Accent-folded search columns (VietnameseTextAnalyzer), filled on save and by SearchTextBackfillService
+ALTER TABLE jobs
+ADD COLUMN `search_text` TEXT DEFAULT NULL,
+ADD COLUMN `title_normalized` VARCHAR(255) DEFAULT NULL,
+ADD COLUMN `location_normalized` VARCHAR(255) DEFAULT NULL;
+
+ALTER TABLE employers
+ADD COLUMN `company_name_normalized` VARCHAR(255) DEFAULT NULL,
+ADD COLUMN `address_normalized` VARCHAR(255) DEFAULT NULL;
+
+ALTER TABLE users
+ADD COLUMN `search_text` VARCHAR(320) DEFAULT NULL;
+
+-- Update October 2026: Structured salary (SalaryParser), filled on save and by SalaryBackfillService
+ALTER TABLE jobs
+ADD COLUMN `salary_min` BIGINT DEFAULT NULL AFTER `salary`,
+ADD COLUMN `salary_max` BIGINT DEFAULT NULL AFTER `salary_min`,
+ADD COLUMN `salary_currency` CHAR(3) DEFAULT NULL AFTER `salary_max`,
+ADD COLUMN `salary_negotiable` TINYINT(1) DEFAULT NULL AFTER `salary_currency`,
+ADD INDEX `idx_jobs_status_salary_max` (`status`, `salary_max`),
+ADD INDEX `idx_jobs_status_salary_min` (`status`, `salary_min`);
+
+-- Update October 2026: view_count/last_viewed_at maintained by JobViewCounter (write-behind, reconciled nightly from job_views)
+UPDATE jobs SET view_count = 0 WHERE view_count IS NULL;
+ALTER TABLE jobs
+MODIFY COLUMN `view_count` INT NOT NULL DEFAULT 0,
+ADD INDEX `idx_jobs_status_view_count` (`status`, `view_count`);
+
+-- Update October 2026: HyperLogLog unique-viewer sketches (ViewerSketchService), ~1.6% standard error
+CREATE TABLE IF NOT EXISTS `job_view_sketches` (
+  `job_id` INT NOT NULL,
+  `day` DATE NOT NULL,
+  `sketch` VARBINARY(4098) NOT NULL,
+  PRIMARY KEY (`job_id`, `day`),
+  FOREIGN KEY (`job_id`) REFERENCES `jobs`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `employer_view_sketches` (
+  `employer_id` INT NOT NULL,
+  `day` DATE NOT NULL,
+  `sketch` VARBINARY(4098) NOT NULL,
+  PRIMARY KEY (`employer_id`, `day`),
+  FOREIGN KEY (`employer_id`) REFERENCES `employers`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `employer_viewer_totals` (
+  `employer_id` INT PRIMARY KEY,
+  `sketch` VARBINARY(4098) NOT NULL,
+  `unique_viewers` BIGINT NOT NULL DEFAULT 0,
+  `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  FOREIGN KEY (`employer_id`) REFERENCES `employers`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Update October 2026: job_views rollups (JobViewRollupService); raw rows are compacted after the retention window
+CREATE TABLE IF NOT EXISTS `job_view_hourly` (
+  `job_id` INT NOT NULL,
+  `hour` DATETIME NOT NULL,
+  `views` INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (`job_id`, `hour`),
+  KEY `idx_job_view_hourly_hour` (`hour`),
+  FOREIGN KEY (`job_id`) REFERENCES `jobs`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `job_view_daily` (
+  `job_id` INT NOT NULL,
+  `day` DATE NOT NULL,
+  `views` INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (`job_id`, `day`),
+  FOREIGN KEY (`job_id`) REFERENCES `jobs`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `job_view_rollup_state` (
+  `id` TINYINT PRIMARY KEY,
+  `last_view_id` INT NOT NULL DEFAULT 0,
+  `updated_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO job_view_rollup_state (id, last_view_id) VALUES (1, 0);
+
+ALTER TABLE job_views
+ADD INDEX `idx_job_views_viewed_at` (`viewed_at`);
+
+-- Update October 2026: Admin job list sorts by updated_at in SQL (AdminJobController)
+ALTER TABLE jobs
+ADD INDEX `idx_jobs_updated_at` (`updated_at`);
+
+-- Update October 2026: "My applications" pages and counts per status in SQL (ApplicationController)
+ALTER TABLE applications
+ADD INDEX `idx_applications_candidate_applied` (`candidate_id`, `applied_at`, `id`),
+ADD INDEX `idx_applications_candidate_status` (`candidate_id`, `status`);
+
+-- Update October 2026: Admin candidate directory filters skills through an index table (CandidateSkillIndex)
+CREATE TABLE IF NOT EXISTS `candidate_skills` (
+  `id` INT AUTO_INCREMENT PRIMARY KEY,
+  `candidate_id` INT NOT NULL,
+  `skill` VARCHAR(100) NOT NULL,
+  `skill_normalized` VARCHAR(100) NOT NULL,
+  `position` INT NOT NULL DEFAULT 0,
+  UNIQUE KEY `uk_candidate_skills_candidate_skill` (`candidate_id`, `skill_normalized`),
+  KEY `idx_candidate_skills_skill` (`skill_normalized`, `candidate_id`),
+  FOREIGN KEY (`candidate_id`) REFERENCES `candidates`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- NULL = chưa lập chỉ mục kỹ năng; được điền lúc khởi động
+ALTER TABLE candidates
+ADD COLUMN `experience_count` INT DEFAULT NULL;
+
+-- Update October 2026: Emails are queued in the same transaction as the change and sent in the background (EmailOutboxDispatcher)
+CREATE TABLE IF NOT EXISTS `email_outbox` (
+  `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+  `recipient` VARCHAR(255) NOT NULL,
+  `subject` VARCHAR(500) NOT NULL,
+  `body` TEXT NOT NULL,
+  `status` VARCHAR(20) NOT NULL DEFAULT 'pending',
+  `attempts` INT NOT NULL DEFAULT 0,
+  `next_attempt_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `last_error` VARCHAR(1000) DEFAULT NULL,
+  `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `sent_at` DATETIME DEFAULT NULL,
+  KEY `idx_email_outbox_due` (`status`, `next_attempt_at`, `id`)
+) ENGINE=InnoDB;
+
+-- Update October 2026: Read watermark per user (NotificationService). A notification is read when is_read = TRUE
+-- or its id <= last_read_id; "mark all read" upserts one row instead of updating every unread notification.
+-- The watermark is an id rather than created_at so notifications created in the same second are not swallowed.
+CREATE TABLE IF NOT EXISTS `notification_read_state` (
+  `user_id` INT PRIMARY KEY,
+  `last_read_id` INT NOT NULL DEFAULT 0,
+  `last_read_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+ALTER TABLE notifications
+ADD INDEX `idx_notifications_user_read_id` (`user_id`, `is_read`, `id`);
+
+-- Update October 2026: Content-addressed uploads (UploadStorageService). Files are stored as <sha256>.<ext> under
+-- their upload directory and shared by every profile that references the same content; the file is removed when
+-- ref_count drops to 0. Files uploaded before this change have no row and are deleted directly as before.
+CREATE TABLE IF NOT EXISTS `upload_blobs` (
+  `path` VARCHAR(255) PRIMARY KEY,
+  `sha256` CHAR(64) NOT NULL,
+  `size_bytes` BIGINT NOT NULL,
+  `content_type` VARCHAR(100) NOT NULL,
+  `ref_count` INT NOT NULL DEFAULT 0,
+  `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+-- Update October 2026: Prefix lookups on the folded shadow columns (SQL fallback of JobSearchIndex in JobService)
+ALTER TABLE jobs
+ADD INDEX `idx_jobs_title_normalized` (`title_normalized`),
+ADD INDEX `idx_jobs_location_normalized` (`location_normalized`);
+
+ALTER TABLE employers
+ADD INDEX `idx_employers_company_name_normalized` (`company_name_normalized`),
+ADD INDEX `idx_employers_address_normalized` (`address_normalized`);
+
+-- Update October 2026: SalaryParser only treats whole words as bounds/negotiable ("Tuyển ..." is no longer "Từ ...",
+-- "ideal" no longer "deal"). Re-queue the rows those patterns could have misread for SalaryBackfillService
+UPDATE jobs SET salary_negotiable = NULL
+WHERE salary_negotiable = TRUE OR salary_min IS NULL OR salary_max IS NULL;
+
+-- Update October 2026: Canonical skill name (SkillDictionary) so the SQL fallback of CandidateSkillSearchIndex folds
+-- aliases like the in-memory index ("reactjs" = "react", "c#" = "csharp") and matches by equality
+ALTER TABLE candidate_skills
+ADD COLUMN `skill_canonical` VARCHAR(100) DEFAULT NULL AFTER `skill_normalized`,
+ADD INDEX `idx_candidate_skills_canonical` (`skill_canonical`, `candidate_id`);
+
+-- Re-index every profile at next startup (CandidateSkillIndex.backfill) to fill skill_canonical
+UPDATE candidates SET experience_count = NULL;
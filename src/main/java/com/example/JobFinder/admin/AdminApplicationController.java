@@ -2,9 +2,12 @@ package com.example.JobFinder.admin;
 
 import com.example.JobFinder.model.Application;
 import com.example.JobFinder.repository.ApplicationRepository;
+import com.example.JobFinder.service.ApplicationStatusChangedEvent;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +32,7 @@ import java.util.stream.Collectors;
 public class AdminApplicationController {
 
     private final ApplicationRepository applicationRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final TypeReference<List<String>> STRING_LIST_TYPE = new TypeReference<>() {};
 
@@ -63,8 +67,10 @@ public class AdminApplicationController {
         "withdrawn", "Ứng viên đã chủ động rút hồ sơ"
     );
 
-    public AdminApplicationController(ApplicationRepository applicationRepository) {
+    public AdminApplicationController(ApplicationRepository applicationRepository,
+                                      ApplicationEventPublisher eventPublisher) {
         this.applicationRepository = applicationRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     private static double calculateStatusProgress(String status) {
@@ -162,7 +168,7 @@ public class AdminApplicationController {
 
         // Get applications with filters
         Page<Application> applicationPage = applicationRepository.findAllWithFilters(
-            keyword, status, jobId, employerId, filterFrom, filterTo, pageable
+            VietnameseTextAnalyzer.normalize(keyword), status, jobId, employerId, filterFrom, filterTo, pageable
         );
 
         List<Application> applications = applicationPage.getContent();
@@ -428,8 +434,10 @@ public class AdminApplicationController {
                 throw new IllegalArgumentException("Trạng thái không hợp lệ");
             }
 
+            String previousStatus = application.getStatus();
             application.setStatus(status);
             applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(id, previousStatus, status));
 
             Map<String, String> flash = new HashMap<>();
             flash.put("type", "success");
@@ -460,6 +468,8 @@ public class AdminApplicationController {
             }
 
             applicationRepository.deleteById(id);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(
+                id, applicationOpt.get().getStatus(), null, applicationOpt.get().getAppliedAt()));
 
             Map<String, String> flash = new HashMap<>();
             flash.put("type", "success");
@@ -1,17 +1,24 @@
 package com.example.JobFinder.admin;
 
+import com.example.JobFinder.dto.AdminJobRow;
 import com.example.JobFinder.model.Category;
 import com.example.JobFinder.model.Employer;
 import com.example.JobFinder.model.Job;
 import com.example.JobFinder.repository.CategoryRepository;
 import com.example.JobFinder.repository.EmployerRepository;
 import com.example.JobFinder.repository.JobRepository;
-import com.example.JobFinder.repository.JobViewRepository;
+import com.example.JobFinder.service.JobChangedEvent;
+import com.example.JobFinder.service.JobAggregateService;
+import com.example.JobFinder.service.JobAggregateService.JobAggregates;
+import com.example.JobFinder.service.JobService;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +27,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,16 +41,22 @@ public class AdminJobController {
     private final JobRepository jobRepository;
     private final EmployerRepository employerRepository;
     private final CategoryRepository categoryRepository;
-    private final JobViewRepository jobViewRepository;
+    private final JobAggregateService jobAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobService jobService;
 
     public AdminJobController(JobRepository jobRepository, 
                             EmployerRepository employerRepository,
                             CategoryRepository categoryRepository,
-                            JobViewRepository jobViewRepository) {
+                            JobAggregateService jobAggregateService,
+                            ApplicationEventPublisher eventPublisher,
+                            JobService jobService) {
         this.jobRepository = jobRepository;
         this.employerRepository = employerRepository;
         this.categoryRepository = categoryRepository;
-        this.jobViewRepository = jobViewRepository;
+        this.jobAggregateService = jobAggregateService;
+        this.eventPublisher = eventPublisher;
+        this.jobService = jobService;
     }
 
     @GetMapping
@@ -49,6 +64,10 @@ public class AdminJobController {
     public String listJobs(
             @RequestParam(required = false, defaultValue = "") String keyword,
             @RequestParam(required = false, defaultValue = "") String status,
+            @RequestParam(required = false) Integer employerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false, defaultValue = "updated") String sort,
             @RequestParam(required = false, defaultValue = "1") int page,
             Model model,
             HttpSession session) {
@@ -64,51 +83,18 @@ public class AdminJobController {
 
         // Pagination
         int pageSize = 20;
-        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt"));
+        int safePage = Math.max(page, 1);
+        Pageable pageable = PageRequest.of(safePage - 1, pageSize, getSort(sort));
 
-        // Get jobs with filters
-        List<Job> jobs = new ArrayList<>();
-        long totalJobs;
-        
-        if (keyword.isEmpty() && status.isEmpty()) {
-            Page<Job> jobPage = jobRepository.findAll(pageable);
-            jobs = jobPage.getContent();
-            totalJobs = jobPage.getTotalElements();
-        } else {
-            // Manual filtering
-            List<Job> allJobs = jobRepository.findAll();
-            jobs = allJobs.stream()
-                .filter(j -> {
-                    boolean matchKeyword = keyword.isEmpty() || 
-                        (j.getTitle() != null && j.getTitle().toLowerCase().contains(keyword.toLowerCase())) ||
-                        (j.getEmployer() != null && j.getEmployer().getCompanyName() != null && 
-                         j.getEmployer().getCompanyName().toLowerCase().contains(keyword.toLowerCase()));
-                    
-                    boolean matchStatus = status.isEmpty() || 
-                        (j.getStatus() != null && j.getStatus().equals(status));
-                    
-                    return matchKeyword && matchStatus;
-                })
-                .sorted(Comparator.comparing(Job::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
-                    .thenComparing(Job::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
-                .skip((long) (page - 1) * pageSize)
-                .limit(pageSize)
-                .collect(Collectors.toList());
-            
-            totalJobs = allJobs.stream()
-                .filter(j -> {
-                    boolean matchKeyword = keyword.isEmpty() || 
-                        (j.getTitle() != null && j.getTitle().toLowerCase().contains(keyword.toLowerCase())) ||
-                        (j.getEmployer() != null && j.getEmployer().getCompanyName() != null && 
-                         j.getEmployer().getCompanyName().toLowerCase().contains(keyword.toLowerCase()));
-                    
-                    boolean matchStatus = status.isEmpty() || 
-                        (j.getStatus() != null && j.getStatus().equals(status));
-                    
-                    return matchKeyword && matchStatus;
-                })
-                .count();
-        }
+        LocalDateTime filterFrom = dateFrom != null ? dateFrom.atStartOfDay() : null;
+        LocalDateTime filterTo = dateTo != null ? dateTo.atTime(LocalTime.MAX) : null;
+
+        // Filter, sort and page in SQL; only the displayed columns are fetched
+        Page<AdminJobRow> jobPage = jobRepository.findAdminJobRows(
+            VietnameseTextAnalyzer.normalize(keyword), status, employerId, filterFrom, filterTo, pageable
+        );
+        List<AdminJobRow> jobs = jobPage.getContent();
+        int totalPages = jobPage.getTotalPages();
 
         // Calculate statistics
         Map<String, Long> statusCounts = new HashMap<>();
@@ -118,43 +104,40 @@ public class AdminJobController {
         
         long totalJobsCount = statusCounts.values().stream().mapToLong(Long::longValue).sum();
 
-        // Prepare job data with view counts
+        // Prepare job data with view/application counts (one grouped query per metric for the page)
+        JobAggregates aggregates = jobAggregateService.load(jobs.stream().map(AdminJobRow::id).toList());
         List<Map<String, Object>> jobList = jobs.stream().map(job -> {
             Map<String, Object> jobData = new HashMap<>();
-            jobData.put("id", job.getId());
-            jobData.put("title", job.getTitle());
-            jobData.put("status", job.getStatus());
-            jobData.put("quantity", job.getQuantity());
-            jobData.put("deadline", job.getDeadline());
-            jobData.put("createdAt", job.getCreatedAt());
-            jobData.put("updatedAt", job.getUpdatedAt());
+            jobData.put("id", job.id());
+            jobData.put("title", job.title());
+            jobData.put("status", job.status());
+            jobData.put("quantity", job.quantity());
+            jobData.put("deadline", job.deadline());
+            jobData.put("createdAt", job.createdAt());
+            jobData.put("updatedAt", job.updatedAt());
             
             // Employer info
-            if (job.getEmployer() != null) {
-                jobData.put("employerName", job.getEmployer().getCompanyName());
-                jobData.put("employerEmail", job.getEmployer().getUser() != null ? 
-                    job.getEmployer().getUser().getEmail() : "");
-            } else {
-                jobData.put("employerName", "N/A");
-                jobData.put("employerEmail", "");
-            }
+            jobData.put("employerName", job.employerId() != null ? job.employerName() : "N/A");
+            jobData.put("employerEmail", job.employerEmail() != null ? job.employerEmail() : "");
             
-            // View count
-            long viewCount = jobViewRepository.countByJobId(job.getId());
-            jobData.put("viewCount", viewCount);
+            jobData.put("viewCount", aggregates.viewCount(job.id()));
+            jobData.put("applicationCount", aggregates.applicationCount(job.id()));
             
             return jobData;
         }).collect(Collectors.toList());
 
-        int totalPages = (int) Math.ceil((double) totalJobs / pageSize);
-
         model.addAttribute("jobs", jobList);
-        model.addAttribute("currentPage", page);
+        model.addAttribute("currentPage", safePage);
         model.addAttribute("totalPages", totalPages);
         model.addAttribute("totalJobs", totalJobsCount);
+        model.addAttribute("filteredCount", jobPage.getTotalElements());
         model.addAttribute("statusCounts", statusCounts);
         model.addAttribute("filterKeyword", keyword);
         model.addAttribute("filterStatus", status);
+        model.addAttribute("filterEmployerId", employerId);
+        model.addAttribute("filterDateFrom", dateFrom != null ? dateFrom.toString() : "");
+        model.addAttribute("filterDateTo", dateTo != null ? dateTo.toString() : "");
+        model.addAttribute("filterSort", sort);
 
         return "admin/jobs/index";
     }
@@ -271,6 +254,7 @@ public class AdminJobController {
             }
 
             jobRepository.save(job);
+            eventPublisher.publishEvent(new JobChangedEvent(job.getId()));
 
             Map<String, String> flash = new HashMap<>();
             flash.put("type", "success");
@@ -286,7 +270,6 @@ public class AdminJobController {
     }
 
     @PostMapping("/{id}/update-status")
-    @Transactional
     public String updateStatus(
             @PathVariable Integer id,
             @RequestParam String status,
@@ -294,22 +277,8 @@ public class AdminJobController {
             HttpSession session) {
 
         try {
-            Optional<Job> jobOpt = jobRepository.findById(id);
-            
-            if (jobOpt.isEmpty()) {
-                throw new IllegalArgumentException("Không tìm thấy tin tuyển dụng");
-            }
-
-            Job job = jobOpt.get();
-
-            // Validate status
-            List<String> allowedStatuses = Arrays.asList("draft", "published", "closed");
-            if (!allowedStatuses.contains(status)) {
-                throw new IllegalArgumentException("Trạng thái không hợp lệ");
-            }
-
-            job.setStatus(status);
-            jobRepository.save(job);
+            // Đổi trạng thái và báo ứng viên khi đóng tin trong giao dịch của JobService
+            jobService.updateStatus(id, status);
 
             Map<String, String> flash = new HashMap<>();
             flash.put("type", "success");
@@ -327,19 +296,13 @@ public class AdminJobController {
     }
 
     @PostMapping("/{id}/delete")
-    @Transactional
     public String deleteJob(
             @PathVariable Integer id,
             HttpSession session) {
 
         try {
-            Optional<Job> jobOpt = jobRepository.findById(id);
-            
-            if (jobOpt.isEmpty()) {
-                throw new IllegalArgumentException("Không tìm thấy tin tuyển dụng");
-            }
-
-            jobRepository.deleteById(id);
+            // Báo ứng viên và xóa trong giao dịch của JobService
+            jobService.deleteJob(id);
 
             Map<String, String> flash = new HashMap<>();
             flash.put("type", "success");
@@ -355,4 +318,15 @@ public class AdminJobController {
 
         return "redirect:/admin/jobs";
     }
+
+    private Sort getSort(String sort) {
+        return switch (sort != null ? sort : "updated") {
+            case "newest" -> Sort.by(Sort.Direction.DESC, "createdAt", "id");
+            case "oldest" -> Sort.by(Sort.Direction.ASC, "createdAt", "id");
+            case "title" -> Sort.by(Sort.Direction.ASC, "title", "id");
+            case "deadline" -> Sort.by(Sort.Direction.ASC, "deadline", "id");
+            case "views" -> Sort.by(Sort.Direction.DESC, "viewCount", "id");
+            default -> Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt", "id");
+        };
+    }
 }
@@ -5,7 +5,10 @@ import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.UserRepository;
 import com.example.JobFinder.service.CandidateAdminService;
+import com.example.JobFinder.service.CandidateChangedEvent;
+import com.example.JobFinder.service.UploadStorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +27,8 @@ public class CandidateAdminController {
     private final CandidateAdminService candidateAdminService;
     private final CandidateRepository candidateRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UploadStorageService uploadStorageService;
 
     @GetMapping
     public String index(
@@ -31,13 +36,16 @@ public class CandidateAdminController {
             @RequestParam(required = false, defaultValue = "") String location,
             @RequestParam(required = false, defaultValue = "") String skill,
             @RequestParam(required = false, defaultValue = "") String cvStatus,
+            @RequestParam(required = false, defaultValue = "1") int page,
             Model model
     ) {
-        Map<String, Object> result = candidateAdminService.getCandidatesList(keyword, location, skill, cvStatus);
+        Map<String, Object> result = candidateAdminService.getCandidatesList(keyword, location, skill, cvStatus, page);
         
         model.addAttribute("pageTitle", "Quản lý ứng viên");
         model.addAttribute("candidates", result.get("candidates"));
         model.addAttribute("stats", result.get("stats"));
+        model.addAttribute("currentPage", result.get("currentPage"));
+        model.addAttribute("totalPages", result.get("totalPages"));
         model.addAttribute("filters", Map.of(
             "keyword", keyword,
             "location", location,
@@ -80,12 +88,14 @@ public class CandidateAdminController {
         try {
             // Delete candidate profile if exists
             candidateRepository.findByUserId(userId).ifPresent(candidate -> {
-                // TODO: Delete associated files (CV, profile picture)
                 candidateRepository.delete(candidate);
+                uploadStorageService.release(candidate.getCvPath());
             });
             
-            // Delete user account
+            // Delete user account (profile picture is the user's avatar, released once)
             userRepository.delete(user);
+            uploadStorageService.release(user.getAvatarPath());
+            eventPublisher.publishEvent(new CandidateChangedEvent(userId));
             
             redirectAttributes.addFlashAttribute("success", "Đã xóa ứng viên thành công.");
         } catch (Exception e) {
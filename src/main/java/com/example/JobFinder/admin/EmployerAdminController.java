@@ -6,24 +6,22 @@ import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.EmployerRepository;
 import com.example.JobFinder.repository.RoleRepository;
 import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.EmployerChangedEvent;
+import com.example.JobFinder.service.UploadStorageService;
+import com.example.JobFinder.service.UploadStorageService.UploadKind;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.UUID;
 
 @Controller
 @RequestMapping("/admin/employers")
@@ -33,20 +31,16 @@ public class EmployerAdminController {
     private final EmployerRepository employerRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UploadStorageService uploadStorageService;
 
-    private static final String UPLOAD_DIR = "src/main/resources/static/uploads/logos/";
-    private static final long MAX_FILE_SIZE = 3 * 1024 * 1024; // 3MB
-
-    public EmployerAdminController(EmployerRepository employerRepository, UserRepository userRepository, RoleRepository roleRepository) {
+    public EmployerAdminController(EmployerRepository employerRepository, UserRepository userRepository, RoleRepository roleRepository,
+                                   ApplicationEventPublisher eventPublisher, UploadStorageService uploadStorageService) {
         this.employerRepository = employerRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-
-        // Create upload directory if it doesn't exist
-        File uploadDir = new File(UPLOAD_DIR);
-        if (!uploadDir.exists()) {
-            uploadDir.mkdirs();
-        }
+        this.eventPublisher = eventPublisher;
+        this.uploadStorageService = uploadStorageService;
     }
 
     @GetMapping
@@ -72,7 +66,8 @@ public class EmployerAdminController {
         if (keyword.isEmpty() && location.isEmpty()) {
             employers = employerRepository.findAllWithUser();
         } else {
-            employers = employerRepository.findByFilters(keyword, location);
+            employers = employerRepository.findByFilters(
+                VietnameseTextAnalyzer.normalize(keyword), VietnameseTextAnalyzer.normalize(location));
         }
 
         // Calculate statistics
@@ -158,6 +153,7 @@ public class EmployerAdminController {
             employer.setLogoPath(logoPath);
 
             employerRepository.save(employer);
+            eventPublisher.publishEvent(new EmployerChangedEvent(employer.getId()));
 
             session.setAttribute("admin_employer_flash", java.util.Map.of(
                     "type", "success",
@@ -213,20 +209,15 @@ public class EmployerAdminController {
                 throw new IllegalArgumentException("Tên công ty không được để trống");
             }
 
-            // Handle logo removal
-            if (removeLogo && employer.getLogoPath() != null) {
-                deleteLogo(employer.getLogoPath());
-                employer.setLogoPath(null);
-            }
-
-            // Handle new logo upload
+            // Handle new logo upload / logo removal; the old logo is released only once the new one is stored
+            String previousLogo = employer.getLogoPath();
+            boolean logoReplaced = false;
             if (companyLogo != null && !companyLogo.isEmpty()) {
-                // Delete old logo if exists
-                if (employer.getLogoPath() != null) {
-                    deleteLogo(employer.getLogoPath());
-                }
-                String logoPath = saveLogo(companyLogo);
-                employer.setLogoPath(logoPath);
+                employer.setLogoPath(saveLogo(companyLogo));
+                logoReplaced = true;
+            } else if (removeLogo && previousLogo != null) {
+                employer.setLogoPath(null);
+                logoReplaced = true;
             }
 
             // Update employer
@@ -236,6 +227,9 @@ public class EmployerAdminController {
             employer.setAbout(about != null && !about.trim().isEmpty() ? about.trim() : null);
 
             employerRepository.save(employer);
+            if (logoReplaced) {
+                deleteLogo(previousLogo);
+            }
 
             session.setAttribute("admin_employer_flash", java.util.Map.of(
                     "type", "success",
@@ -257,12 +251,10 @@ public class EmployerAdminController {
             Employer employer = employerRepository.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Nhà tuyển dụng không tồn tại"));
 
-            // Delete logo if exists
-            if (employer.getLogoPath() != null) {
-                deleteLogo(employer.getLogoPath());
-            }
-
             employerRepository.delete(employer);
+            // Removed after commit, and only when no other profile shares the same file
+            deleteLogo(employer.getLogoPath());
+            eventPublisher.publishEvent(new EmployerChangedEvent(id));
 
             session.setAttribute("admin_employer_flash", java.util.Map.of(
                     "type", "success",
@@ -280,44 +272,13 @@ public class EmployerAdminController {
     }
 
     private String saveLogo(MultipartFile file) throws IOException {
-        // Validate file size
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("Kích thước file không được vượt quá 3MB");
-        }
-
-        // Validate file type
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("File phải là ảnh (PNG, JPG, GIF, WEBP)");
-        }
-
-        // Generate unique filename
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String filename = UUID.randomUUID().toString() + extension;
-
-        // Save file
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return "/uploads/logos/" + filename;
+        // Content-addressed: uploads/logos/<sha256>.<ext>, type checked from the file header
+        return "/" + uploadStorageService.store(file, UploadKind.LOGO);
     }
 
     private void deleteLogo(String logoPath) {
         if (logoPath != null && !logoPath.isEmpty()) {
-            try {
-                String filename = logoPath.substring(logoPath.lastIndexOf("/") + 1);
-                Path filePath = Paths.get(UPLOAD_DIR + filename);
-                Files.deleteIfExists(filePath);
-            } catch (IOException e) {
-                // Log error but don't throw exception
-                System.err.println("Could not delete logo: " + e.getMessage());
-            }
+            uploadStorageService.release(logoPath);
         }
     }
 }
@@ -0,0 +1,124 @@
+package com.example.JobFinder.config;
+
+import com.example.JobFinder.service.HomePageCache;
+import com.example.JobFinder.service.HomePageCache.Lookup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Trả trang chủ của khách chưa đăng nhập từ {@link HomePageCache}.
+ *
+ * Chạy sau chuỗi filter của Spring Security nên đã biết người dùng. Khi render để lưu, token CSRF
+ * trong trang được thay bằng chuỗi giữ chỗ; lúc trả về mới điền token của chính request đó,
+ * nên HTML dùng chung không mang token của phiên khác.
+ */
+@Component
+@RequiredArgsConstructor
+public class HomePageCacheFilter extends OncePerRequestFilter {
+
+    private static final String CSRF_PLACEHOLDER = "__HOME_CACHE_CSRF__";
+
+    private final HomePageCache homePageCache;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !homePageCache.isEnabled()
+            || !"GET".equals(request.getMethod())
+            || !"/".equals(request.getRequestURI().substring(request.getContextPath().length()))
+            || request.getQueryString() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isAnonymous()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Lookup lookup = homePageCache.lookup(request.getLocale());
+        if (lookup.page() != null) {
+            response.setHeader("X-Page-Cache", lookup.page().version() == lookup.version() ? "HIT" : "STALE");
+            write(request, response, lookup.page().html(), lookup.page().contentType());
+            return;
+        }
+        if (!lookup.render()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(new PlaceholderCsrfRequest(request), captured);
+            if (captured.getStatus() == HttpServletResponse.SC_OK && captured.getContentType() != null
+                    && captured.getContentType().startsWith("text/html")) {
+                String html = new String(captured.getContentAsByteArray(), StandardCharsets.UTF_8);
+                homePageCache.store(lookup, html, captured.getContentType());
+                stored = true;
+                response.setHeader("X-Page-Cache", "MISS");
+                write(request, response, html, captured.getContentType());
+            } else {
+                captured.copyBodyToResponse();
+            }
+        } finally {
+            if (!stored) {
+                homePageCache.release(lookup);
+            }
+        }
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, String html, String contentType)
+            throws IOException {
+        CsrfToken csrf = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+        String body = html.replace(CSRF_PLACEHOLDER, csrf != null ? csrf.getToken() : "");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        response.setContentType(contentType);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private static boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated()
+            || authentication instanceof AnonymousAuthenticationToken;
+    }
+
+    /**
+     * Request dùng khi render để lưu: template đọc token CSRF giữ chỗ thay vì token của phiên.
+     */
+    private static final class PlaceholderCsrfRequest extends HttpServletRequestWrapper {
+
+        private final CsrfToken placeholder;
+
+        PlaceholderCsrfRequest(HttpServletRequest request) {
+            super(request);
+            CsrfToken real = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+            this.placeholder = real != null
+                ? new DefaultCsrfToken(real.getHeaderName(), real.getParameterName(), CSRF_PLACEHOLDER)
+                : null;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            if (placeholder != null && (CsrfToken.class.getName().equals(name) || "_csrf".equals(name))) {
+                return placeholder;
+            }
+            return super.getAttribute(name);
+        }
+    }
+}
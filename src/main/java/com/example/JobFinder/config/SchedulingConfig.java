@@ -0,0 +1,12 @@
+package com.example.JobFinder.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Bật các tác vụ nền định kỳ (@Scheduled), ví dụ dựng lại trie gợi ý tìm kiếm.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,6 +4,13 @@ import com.example.JobFinder.service.AdminDashboardService;
 import com.example.JobFinder.service.AdminDashboardService.DashboardData;
 import com.example.JobFinder.service.AdminDashboardService.MonthlyActivityPoint;
 import com.example.JobFinder.service.AdminDashboardService.PipelineStatus;
+import com.example.JobFinder.service.CurrentUserService;
+import com.example.JobFinder.service.EmailOutboxDispatcher;
+import com.example.JobFinder.service.HeaderContextCache;
+import com.example.JobFinder.service.HomePageCache;
+import com.example.JobFinder.service.JobViewDeduplicator;
+import com.example.JobFinder.service.NotificationStreamHub;
+import com.example.JobFinder.service.UploadStorageService;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +20,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping("/admin")
@@ -21,6 +29,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public class AdminController {
 
     private final AdminDashboardService adminDashboardService;
+    private final JobViewDeduplicator jobViewDeduplicator;
+    private final HeaderContextCache headerContextCache;
+    private final CurrentUserService currentUserService;
+    private final HomePageCache homePageCache;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+    private final NotificationStreamHub notificationStreamHub;
+    private final UploadStorageService uploadStorageService;
 
     @GetMapping("/dashboard")
     public String adminDashboard(Authentication authentication, Model model) {
@@ -38,6 +53,8 @@ public class AdminController {
         model.addAttribute("hiredCount", stats.hiredCount());
         model.addAttribute("employerCount", stats.employerCount());
         model.addAttribute("candidateCount", stats.candidateCount());
+        model.addAttribute("statsRefreshedAt", stats.refreshedAt());
+        model.addAttribute("statsAgeMinutes", stats.ageSeconds() / 60);
 
         List<PipelineStatus> pipelineStatuses = stats.pipelineStatuses();
         List<MonthlyActivityPoint> monthlyActivity = stats.monthlyActivity();
@@ -73,4 +90,46 @@ public class AdminController {
 
         return "admin/dashboard";
     }
+
+    @GetMapping("/metrics/view-dedupe")
+    @ResponseBody
+    public Map<String, Object> viewDedupeMetrics() {
+        return jobViewDeduplicator.metrics();
+    }
+
+    @GetMapping("/metrics/header-cache")
+    @ResponseBody
+    public Map<String, Object> headerCacheMetrics() {
+        return headerContextCache.metrics();
+    }
+
+    @GetMapping("/metrics/principal")
+    @ResponseBody
+    public Map<String, Object> principalMetrics() {
+        return currentUserService.metrics();
+    }
+
+    @GetMapping("/metrics/home-cache")
+    @ResponseBody
+    public Map<String, Object> homeCacheMetrics() {
+        return homePageCache.metrics();
+    }
+
+    @GetMapping("/metrics/email-outbox")
+    @ResponseBody
+    public Map<String, Object> emailOutboxMetrics() {
+        return emailOutboxDispatcher.metrics();
+    }
+
+    @GetMapping("/metrics/notification-stream")
+    @ResponseBody
+    public Map<String, Object> notificationStreamMetrics() {
+        return notificationStreamHub.metrics();
+    }
+
+    @GetMapping("/metrics/uploads")
+    @ResponseBody
+    public Map<String, Object> uploadMetrics() {
+        return uploadStorageService.metrics();
+    }
 }
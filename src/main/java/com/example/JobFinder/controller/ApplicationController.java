@@ -3,18 +3,23 @@ package com.example.JobFinder.controller;
 import com.example.JobFinder.model.Application;
 import com.example.JobFinder.model.Candidate;
 import com.example.JobFinder.model.Job;
-import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.ApplicationRepository;
 import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.JobRepository;
-import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.ApplicationStatusChangedEvent;
+import com.example.JobFinder.service.CurrentUserService;
 import com.example.JobFinder.service.NotificationService;
 import com.example.JobFinder.service.EmailService;
+import com.example.JobFinder.util.KeysetCursor;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
@@ -38,36 +43,18 @@ public class ApplicationController {
     private final ApplicationRepository applicationRepository;
     private final CandidateRepository candidateRepository;
     private final JobRepository jobRepository;
-    private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserService currentUserService;
+    private static final String APPLIED_CURSOR_SORT = "applied";
     private static final List<String> STATUS_STAGES = List.of("applied", "viewed", "shortlisted", "hired");
 
     /**
-     * Get candidate from authenticated user
+     * Get candidate ID from the authenticated principal (no query)
      */
-    private Candidate getCandidateFromAuth(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-
-        try {
-            Object principal = authentication.getPrincipal();
-            if (principal instanceof UserDetails userDetails) {
-                String email = userDetails.getUsername();
-                Optional<User> userOpt = userRepository.findByEmailIgnoreCase(email);
-
-                if (userOpt.isPresent()) {
-                    User user = userOpt.get();
-                    Optional<Candidate> candidateOpt = candidateRepository.findByUserId(user.getId());
-                    return candidateOpt.orElse(null);
-                }
-            }
-        } catch (Exception e) {
-            return null;
-        }
-
-        return null;
+    private Integer getCandidateId(Authentication authentication) {
+        return currentUserService.candidateId(authentication);
     }
 
     /**
@@ -78,12 +65,13 @@ public class ApplicationController {
             @RequestParam(required = false, defaultValue = "") String status,
             @RequestParam(required = false, defaultValue = "") String keyword,
             @RequestParam(required = false, defaultValue = "1") int page,
+            @RequestParam(required = false) String cursor,
             Authentication authentication,
             Model model,
             HttpSession session) {
 
-        Candidate candidate = getCandidateFromAuth(authentication);
-        if (candidate == null) {
+        Integer candidateId = getCandidateId(authentication);
+        if (candidateId == null) {
             return "redirect:/auth/login";
         }
 
@@ -96,39 +84,44 @@ public class ApplicationController {
             session.removeAttribute("application_flash");
         }
 
-        // Pagination
+        // Pagination: filtered/paged in SQL; "cursor" switches to keyset mode (no count, cost independent of history size)
         int pageSize = 12;
-        List<Application> allApplications = applicationRepository.findByCandidateId(candidate.getId());
-        
-        // Filter
-        List<Application> filteredApplications = allApplications.stream()
-            .filter(app -> status.isEmpty() || app.getStatus().equals(status))
-            .filter(app -> {
-                if (keyword.isEmpty()) return true;
-                String lowerKeyword = keyword.toLowerCase();
-                String jobTitle = app.getJob() != null ? app.getJob().getTitle() : "";
-                String employerName = app.getJob() != null && app.getJob().getEmployer() != null
-                    ? app.getJob().getEmployer().getCompanyName() : "";
-                return jobTitle.toLowerCase().contains(lowerKeyword) ||
-                       employerName.toLowerCase().contains(lowerKeyword);
-            })
-            .collect(Collectors.toList());
-
-        long total = filteredApplications.size();
-        int totalPages = (int) Math.ceil((double) total / pageSize);
-        totalPages = Math.max(totalPages, 1);
-        if (page < 1) {
-            page = 1;
-        }
-        if (page > totalPages) {
-            page = totalPages;
+        String normalizedKeyword = VietnameseTextAnalyzer.normalize(keyword);
+        boolean cursorMode = cursor != null;
+        List<Application> pageApplications;
+        long total;
+        int totalPages;
+        String nextCursor = null;
+        if (cursorMode) {
+            KeysetCursor after = KeysetCursor.decode(cursor, APPLIED_CURSOR_SORT).orElse(null);
+            List<Application> rows = applicationRepository.findByCandidateIdBeforeCursor(
+                candidateId, status, normalizedKeyword,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+            boolean hasNext = rows.size() > pageSize;
+            pageApplications = hasNext ? rows.subList(0, pageSize) : rows;
+            if (hasNext) {
+                Application last = pageApplications.get(pageApplications.size() - 1);
+                nextCursor = KeysetCursor.ofCreatedAt(APPLIED_CURSOR_SORT, last.getAppliedAt(), last.getId()).encode();
+            }
+            total = pageApplications.size();
+            totalPages = 1;
+        } else {
+            page = Math.max(page, 1);
+            Page<Application> applicationPage = applicationRepository.findByCandidateIdWithFilters(
+                candidateId, status, normalizedKeyword,
+                PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "appliedAt", "id")));
+            total = applicationPage.getTotalElements();
+            totalPages = Math.max(applicationPage.getTotalPages(), 1);
+            if (page > totalPages) {
+                page = totalPages;
+                applicationPage = applicationRepository.findByCandidateIdWithFilters(
+                    candidateId, status, normalizedKeyword,
+                    PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "appliedAt", "id")));
+            }
+            pageApplications = applicationPage.getContent();
         }
 
-        int fromIndex = (page - 1) * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, filteredApplications.size());
-        
-        List<Application> pageApplications = filteredApplications.subList(fromIndex, toIndex);
-
         // Convert to map
         List<Map<String, Object>> applicationList = pageApplications.stream()
             .map(app -> {
@@ -157,22 +150,23 @@ public class ApplicationController {
             })
             .collect(Collectors.toList());
 
-        // Statistics
+        // Statistics (single GROUP BY status over the candidate's applications)
         Map<String, Long> statusCounts = new HashMap<>();
-        statusCounts.put("applied", allApplications.stream().filter(a -> "applied".equals(a.getStatus())).count());
-        statusCounts.put("viewed", allApplications.stream().filter(a -> "viewed".equals(a.getStatus())).count());
-        statusCounts.put("shortlisted", allApplications.stream().filter(a -> "shortlisted".equals(a.getStatus())).count());
-        statusCounts.put("rejected", allApplications.stream().filter(a -> "rejected".equals(a.getStatus())).count());
-        statusCounts.put("hired", allApplications.stream().filter(a -> "hired".equals(a.getStatus())).count());
-
-        if (candidate.getUser() != null) {
-            notificationService.markAllAsRead(candidate.getUser().getId());
+        long allCount = 0;
+        for (Object[] row : applicationRepository.countByCandidateIdGroupByStatus(candidateId)) {
+            long count = ((Number) row[1]).longValue();
+            statusCounts.put((String) row[0], count);
+            allCount += count;
         }
 
+        notificationService.markAllAsRead(currentUserService.userId(authentication));
+
         model.addAttribute("applications", applicationList);
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", totalPages);
         model.addAttribute("total", total);
+        model.addAttribute("cursorMode", cursorMode);
+        model.addAttribute("nextCursor", nextCursor);
         model.addAttribute("statusCounts", statusCounts);
         model.addAttribute("filterStatus", status);
         model.addAttribute("filterKeyword", keyword);
@@ -180,7 +174,7 @@ public class ApplicationController {
         model.addAttribute("pageStyles", List.of("applications.css"));
         model.addAttribute("statusStages", STATUS_STAGES);
         model.addAttribute("statusFilters", List.of(
-            buildStatusFilter("", "Tất cả", total),
+            buildStatusFilter("", "Tất cả", allCount),
             buildStatusFilter("applied", "Đã ứng tuyển", statusCounts.getOrDefault("applied", 0L)),
             buildStatusFilter("viewed", "Đã xem", statusCounts.getOrDefault("viewed", 0L)),
             buildStatusFilter("shortlisted", "Được shortlist", statusCounts.getOrDefault("shortlisted", 0L)),
@@ -202,8 +196,8 @@ public class ApplicationController {
             Model model,
             RedirectAttributes redirectAttributes) {
 
-        Candidate candidate = getCandidateFromAuth(authentication);
-        if (candidate == null) {
+        Integer candidateId = getCandidateId(authentication);
+        if (candidateId == null) {
             return "redirect:/auth/login";
         }
 
@@ -217,7 +211,7 @@ public class ApplicationController {
         Application application = applicationOpt.get();
 
         // Check ownership
-        if (!application.getCandidate().getId().equals(candidate.getId())) {
+        if (!application.getCandidate().getId().equals(candidateId)) {
             redirectAttributes.addFlashAttribute("flashType", "danger");
             redirectAttributes.addFlashAttribute("flashMessage", "Bạn không có quyền xem hồ sơ này");
             return "redirect:/applications";
@@ -269,7 +263,8 @@ public class ApplicationController {
             HttpSession session,
             RedirectAttributes redirectAttributes) {
 
-        Candidate candidate = getCandidateFromAuth(authentication);
+        Integer candidateId = getCandidateId(authentication);
+        Candidate candidate = candidateId != null ? candidateRepository.findById(candidateId).orElse(null) : null;
         if (candidate == null) {
             redirectAttributes.addFlashAttribute("flashType", "warning");
             redirectAttributes.addFlashAttribute("flashMessage", "Vui lòng đăng nhập để ứng tuyển");
@@ -321,6 +316,8 @@ public class ApplicationController {
             application.setStatus("applied");
 
             applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(
+                application.getId(), null, "applied", application.getAppliedAt()));
 
             emailService.sendNewApplicationToEmployer(application);
 
@@ -350,8 +347,8 @@ public class ApplicationController {
             Authentication authentication,
             HttpSession session) {
 
-        Candidate candidate = getCandidateFromAuth(authentication);
-        if (candidate == null) {
+        Integer candidateId = getCandidateId(authentication);
+        if (candidateId == null) {
             return "redirect:/auth/login";
         }
 
@@ -364,7 +361,7 @@ public class ApplicationController {
             Application application = applicationOpt.get();
 
             // Check ownership
-            if (!application.getCandidate().getId().equals(candidate.getId())) {
+            if (!application.getCandidate().getId().equals(candidateId)) {
                 throw new IllegalArgumentException("Bạn không có quyền thực hiện thao tác này");
             }
 
@@ -374,6 +371,7 @@ public class ApplicationController {
             }
 
             applicationRepository.delete(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(id, application.getStatus(), null, application.getAppliedAt()));
 
             Map<String, String> flash = new HashMap<>();
             flash.put("type", "success");
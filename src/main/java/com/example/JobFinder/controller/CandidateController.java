@@ -5,6 +5,7 @@ import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.ApplicationRepository;
 import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.CurrentUserService;
 import com.example.JobFinder.service.JobService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,18 +26,20 @@ public class CandidateController {
     private final CandidateRepository candidateRepository;
     private final ApplicationRepository applicationRepository;
     private final JobService jobService;
+    private final CurrentUserService currentUserService;
 
     @PreAuthorize("hasRole('CANDIDATE')")
     @GetMapping("/dashboard")
     public String candidateDashboard(Authentication authentication, Model model) {
         Candidate candidate = null;
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            User currentUser = userRepository.findByEmailIgnoreCase(email).orElse(null);
+        Integer userId = currentUserService.userId(authentication);
+        if (userId != null) {
+            // findByUserId nạp kèm user; chỉ tra riêng user khi chưa có hồ sơ ứng viên
+            candidate = candidateRepository.findByUserId(userId).orElse(null);
+            User currentUser = candidate != null ? candidate.getUser() : userRepository.findById(userId).orElse(null);
             model.addAttribute("currentUser", currentUser);
 
             if (currentUser != null) {
-                candidate = candidateRepository.findByUserId(currentUser.getId()).orElse(null);
                 model.addAttribute("candidate", candidate);
                 model.addAttribute("headline", candidate != null ? candidate.getHeadline() : null);
                 model.addAttribute("location", candidate != null ? candidate.getLocation() : null);
@@ -4,7 +4,9 @@ import com.example.JobFinder.model.Candidate;
 import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.AuthenticatedUser;
 import com.example.JobFinder.service.CandidateProfileService;
+import com.example.JobFinder.service.CurrentUserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -22,6 +24,7 @@ public class CandidateProfileController {
     private final CandidateProfileService candidateProfileService;
     private final UserRepository userRepository;
     private final CandidateRepository candidateRepository;
+    private final CurrentUserService currentUserService;
 
     /**
      * Hiển thị trang hồ sơ ứng viên
@@ -32,14 +35,14 @@ public class CandidateProfileController {
                              Authentication authentication,
                              Model model) {
         
-        User currentUser = null;
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            currentUser = userRepository.findByEmailIgnoreCase(email).orElse(null);
-        }
+        AuthenticatedUser principal = currentUserService.current(authentication).orElse(null);
 
         // Lấy thông tin ứng viên theo thứ tự: user param -> candidate param -> current user
-        Candidate profileCandidate = candidateProfileService.getProfile(user, candidate, currentUser);
+        Integer profileUserId = user;
+        if (profileUserId == null && candidate == null && principal != null && principal.isCandidate()) {
+            profileUserId = principal.getUserId();
+        }
+        Candidate profileCandidate = candidateProfileService.getProfile(profileUserId, candidate, null);
         
         if (profileCandidate == null) {
             // Nếu không tìm thấy, tạo profile mẫu
@@ -73,10 +76,9 @@ public class CandidateProfileController {
         model.addAttribute("experienceList", candidateProfileService.parseExperience(profileCandidate.getExperience()));
         
         // Check if current user is viewing their own profile
-        boolean isOwnProfile = currentUser != null && 
-                              profileUser.getId().equals(currentUser.getId());
+        boolean isOwnProfile = principal != null &&
+                              profileUser.getId().equals(principal.getUserId());
         model.addAttribute("isOwnProfile", isOwnProfile);
-        model.addAttribute("currentUser", currentUser);
         
         return "frontend/candidate/profile";
     }
@@ -92,21 +94,26 @@ public class CandidateProfileController {
             return "redirect:/login";
         }
 
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmailIgnoreCase(email).orElse(null);
-        
-        if (currentUser == null || currentUser.getRole().getId() != 3) {
+        AuthenticatedUser principal = currentUserService.current(authentication).orElse(null);
+        if (principal == null || !principal.isCandidate()) {
             redirectAttributes.addFlashAttribute("error", "Chỉ ứng viên mới có thể chỉnh sửa hồ sơ");
             return "redirect:/";
         }
 
-        Candidate candidate = candidateRepository.findByUserId(currentUser.getId()).orElse(null);
+        // findByUserId nạp kèm user; chỉ tra riêng user khi phải tạo hồ sơ mới
+        Candidate candidate = candidateRepository.findByUserId(principal.getUserId()).orElse(null);
         if (candidate == null) {
+            User currentUser = userRepository.findById(principal.getUserId()).orElse(null);
+            if (currentUser == null) {
+                redirectAttributes.addFlashAttribute("error", "Không tìm thấy thông tin người dùng");
+                return "redirect:/";
+            }
             // Tạo candidate mới nếu chưa có
             candidate = new Candidate();
             candidate.setUser(currentUser);
             candidateRepository.save(candidate);
         }
+        User currentUser = candidate.getUser();
 
         model.addAttribute("user", currentUser);
         model.addAttribute("candidate", candidate);
@@ -139,8 +146,8 @@ public class CandidateProfileController {
                                Authentication authentication,
                                RedirectAttributes redirectAttributes) {
         try {
-            String email = authentication.getName();
-            User currentUser = userRepository.findByEmailIgnoreCase(email).orElse(null);
+            Integer userId = currentUserService.userId(authentication);
+            User currentUser = userId != null ? userRepository.findById(userId).orElse(null) : null;
             if (currentUser == null) {
                 redirectAttributes.addFlashAttribute("error", "Không tìm thấy thông tin người dùng");
                 return "redirect:/candidate/edit-profile";
@@ -169,20 +176,25 @@ public class CandidateProfileController {
             return "redirect:/login";
         }
 
-        String email = authentication.getName();
-        User currentUser = userRepository.findByEmailIgnoreCase(email).orElse(null);
-        
-        if (currentUser == null || currentUser.getRole().getId() != 3) {
+        AuthenticatedUser principal = currentUserService.current(authentication).orElse(null);
+        if (principal == null || !principal.isCandidate()) {
             redirectAttributes.addFlashAttribute("error", "Chỉ ứng viên mới có thể tải CV");
             return "redirect:/";
         }
 
-        Candidate candidate = candidateRepository.findByUserId(currentUser.getId()).orElse(null);
+        // findByUserId nạp kèm user; chỉ tra riêng user khi phải tạo hồ sơ mới
+        Candidate candidate = candidateRepository.findByUserId(principal.getUserId()).orElse(null);
         if (candidate == null) {
+            User currentUser = userRepository.findById(principal.getUserId()).orElse(null);
+            if (currentUser == null) {
+                redirectAttributes.addFlashAttribute("error", "Không tìm thấy thông tin người dùng");
+                return "redirect:/";
+            }
             candidate = new Candidate();
             candidate.setUser(currentUser);
             candidateRepository.save(candidate);
         }
+        User currentUser = candidate.getUser();
 
         model.addAttribute("candidate", candidate);
         model.addAttribute("currentCvPath", candidate.getCvPath());
@@ -199,8 +211,8 @@ public class CandidateProfileController {
                           Authentication authentication,
                           RedirectAttributes redirectAttributes) {
         try {
-            String email = authentication.getName();
-            User currentUser = userRepository.findByEmailIgnoreCase(email).orElse(null);
+            Integer userId = currentUserService.userId(authentication);
+            User currentUser = userId != null ? userRepository.findById(userId).orElse(null) : null;
             if (currentUser == null) {
                 redirectAttributes.addFlashAttribute("error", "Không tìm thấy thông tin người dùng");
                 return "redirect:/candidate/upload-cv";
@@ -5,16 +5,23 @@ import com.example.JobFinder.dto.ExperienceEntry;
 import com.example.JobFinder.model.Application;
 import com.example.JobFinder.model.Employer;
 import com.example.JobFinder.model.Job;
-import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.ApplicationRepository;
 import com.example.JobFinder.repository.CategoryRepository;
 import com.example.JobFinder.repository.EmployerRepository;
 import com.example.JobFinder.repository.JobRepository;
-import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.ApplicationStatusChangedEvent;
+import com.example.JobFinder.service.EmployerService;
+import com.example.JobFinder.service.JobChangedEvent;
+import com.example.JobFinder.service.JobService;
 import com.example.JobFinder.service.NotificationService;
+import com.example.JobFinder.service.CurrentUserService;
 import com.example.JobFinder.service.EmailService;
+import com.example.JobFinder.service.JobAggregateService;
+import com.example.JobFinder.service.JobAggregateService.JobAggregates;
+import com.example.JobFinder.service.ViewerSketchService;
 import com.example.JobFinder.util.ExperienceParser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StringUtils;
 import org.springframework.data.domain.Page;
@@ -23,6 +30,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -44,7 +52,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Controller
@@ -54,15 +61,19 @@ import java.util.stream.Collectors;
 public class EmployerController {
     
     private final EmployerRepository employerRepository;
-    private final UserRepository userRepository;
     private final JobRepository jobRepository;
     private final ApplicationRepository applicationRepository;
     private final CategoryRepository categoryRepository;
     private final NotificationService notificationService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserService currentUserService;
+    private final ViewerSketchService viewerSketchService;
+    private final JobAggregateService jobAggregateService;
+    private final JobService jobService;
+    private final EmployerService employerService;
 
     private static final String LOGO_UPLOAD_DIR = "uploads/logos/";
-    private static final long MAX_LOGO_SIZE = 3 * 1024 * 1024; // 3MB
 
     @PostConstruct
     public void ensureLogoDirectoryExists() {
@@ -77,23 +88,10 @@ public class EmployerController {
      * Get employer from authenticated user
      */
     private Employer getEmployerFromAuth(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        
-        try {
-            String email = authentication.getName();
-            Optional<User> userOpt = userRepository.findByEmailIgnoreCase(email);
-            
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                return employerRepository.findByUserId(user.getId()).orElse(null);
-            }
-        } catch (Exception e) {
-            return null;
-        }
-        
-        return null;
+        // Id lấy từ principal; tham chiếu lười chưa truy vấn, đủ cho so sánh id và gán khóa ngoại.
+        // Nơi cần dữ liệu nhà tuyển dụng đã nạp lại bằng findByIdWithUser.
+        Integer employerId = currentUserService.employerId(authentication);
+        return employerId != null ? employerRepository.getReferenceById(employerId) : null;
     }
 
     @GetMapping("/dashboard")
@@ -141,6 +139,9 @@ public class EmployerController {
         model.addAttribute("totalJobs", totalJobs);
         model.addAttribute("activeJobs", activeJobs);
         model.addAttribute("recentApplications", recentApplications);
+        model.addAttribute("uniqueViewers", viewerSketchService.employerUniqueViewers(employer.getId()));
+        model.addAttribute("uniqueViewersLast30", viewerSketchService.employerUniqueViewers(
+            employer.getId(), LocalDate.now().minusDays(29), LocalDate.now()));
         model.addAttribute("latestApplications", latestApplications);
         model.addAttribute("pageTitle", "Bảng điều khiển nhà tuyển dụng");
         model.addAttribute("currentDate", LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
@@ -181,7 +182,9 @@ public class EmployerController {
         
         Page<Job> jobPage = jobRepository.findByEmployerId(employer.getId(), pageable);
         
-        // Get application count for each job
+        // Application/view/save counts for the whole page in one grouped query per metric
+        JobAggregates aggregates = jobAggregateService.load(
+            jobPage.getContent().stream().map(Job::getId).toList());
         List<Map<String, Object>> jobs = jobPage.getContent().stream()
             .map(job -> {
                 Map<String, Object> jobMap = new HashMap<>();
@@ -193,7 +196,9 @@ public class EmployerController {
                 jobMap.put("quantity", job.getQuantity());
                 jobMap.put("deadline", job.getDeadline());
                 jobMap.put("updatedAt", job.getUpdatedAt());
-                jobMap.put("applicationCount", applicationRepository.countByJobId(job.getId()));
+                jobMap.put("applicationCount", aggregates.applicationCount(job.getId()));
+                jobMap.put("viewCount", aggregates.viewCount(job.getId()));
+                jobMap.put("savedCount", aggregates.savedCount(job.getId()));
                 return jobMap;
             })
             .collect(Collectors.toList());
@@ -327,6 +332,7 @@ public class EmployerController {
             }
             
             jobRepository.save(job);
+            eventPublisher.publishEvent(new JobChangedEvent(job.getId()));
             
             redirectAttributes.addFlashAttribute("flashType", "success");
             redirectAttributes.addFlashAttribute("flashMessage", "Đã tạo tin tuyển dụng thành công");
@@ -398,6 +404,7 @@ public class EmployerController {
             }
             
             jobRepository.save(job);
+            eventPublisher.publishEvent(new JobChangedEvent(job.getId()));
             
             redirectAttributes.addFlashAttribute("flashType", "success");
             redirectAttributes.addFlashAttribute("flashMessage", "Đã cập nhật tin tuyển dụng thành công");
@@ -436,7 +443,8 @@ public class EmployerController {
         }
         
         try {
-            jobRepository.delete(jobOpt.get());
+            // Báo ứng viên và xóa trong giao dịch của JobService; lỗi chỉ tới đây sau khi giao dịch đã rollback
+            jobService.deleteJob(id);
             
             redirectAttributes.addFlashAttribute("flashType", "success");
             redirectAttributes.addFlashAttribute("flashMessage", "Đã xóa tin tuyển dụng thành công");
@@ -565,6 +573,7 @@ public class EmployerController {
         if ("applied".equals(application.getStatus())) {
             application.setStatus("viewed");
             applicationRepository.save(application);
+            eventPublisher.publishEvent(new ApplicationStatusChangedEvent(id, "applied", "viewed"));
             // Reload to ensure all lazy relationships are fetched
             applicationOpt = applicationRepository.findByIdWithFullDetails(id);
             application = applicationOpt.get();
@@ -698,55 +707,6 @@ public class EmployerController {
         return value != null ? value : "";
     }
 
-    private String normalize(String value) {
-        if (value == null) {
-            return null;
-        }
-        String trimmed = value.trim();
-        return trimmed.isEmpty() ? null : trimmed;
-    }
-
-    private String saveLogo(MultipartFile file) throws IOException {
-        if (file.getSize() > MAX_LOGO_SIZE) {
-            throw new IllegalArgumentException("Kích thước file không được vượt quá 3MB");
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("File phải là ảnh PNG, JPG, GIF hoặc WEBP");
-        }
-
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String extension = originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf('.'))
-                : "";
-        String filename = UUID.randomUUID() + extension;
-
-        Path uploadPath = Paths.get(LOGO_UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return "/uploads/logos/" + filename;
-    }
-
-    private void deleteLogo(String logoPath) {
-        if (logoPath == null || logoPath.isEmpty()) {
-            return;
-        }
-
-        try {
-            String filename = extractFileName(logoPath);
-            Path filePath = Paths.get(LOGO_UPLOAD_DIR).resolve(filename);
-            Files.deleteIfExists(filePath);
-        } catch (IOException ignored) {
-            // Suppress cleanup issues to avoid interrupting update flow
-        }
-    }
-
     private void migrateLegacyLogos() {
         try {
             List<Employer> employers = employerRepository.findAll();
@@ -804,6 +764,7 @@ public class EmployerController {
      */
     @PreAuthorize("hasAuthority('view_applications')")
     @PostMapping({"/applications/{id}/update-status", "/applications/update-status"})
+    @Transactional
     public String updateApplicationStatus(
             @PathVariable(name = "id", required = false) Integer pathId,
             @RequestParam(name = "applicationId", required = false) Integer requestId,
@@ -856,6 +817,7 @@ public class EmployerController {
         application.setDecisionNote(normalizedNote);
         
         applicationRepository.save(application);
+        eventPublisher.publishEvent(new ApplicationStatusChangedEvent(id, previousStatus, status));
 
         boolean statusChanged = !status.equalsIgnoreCase(previousStatus);
         boolean noteChanged = !Objects.equals(normalizedNote, previousNote);
@@ -926,42 +888,10 @@ public class EmployerController {
             return "redirect:/auth/login";
         }
 
-        employer = employerRepository.findByIdWithUser(employer.getId()).orElse(employer);
-
         try {
-            if (companyName == null || companyName.trim().isEmpty()) {
-                throw new IllegalArgumentException("Tên công ty không được để trống");
-            }
-
-            if (removeLogo && employer.getLogoPath() != null) {
-                deleteLogo(employer.getLogoPath());
-                employer.setLogoPath(null);
-            }
-
-            if (companyLogo != null && !companyLogo.isEmpty()) {
-                if (employer.getLogoPath() != null) {
-                    deleteLogo(employer.getLogoPath());
-                }
-                employer.setLogoPath(saveLogo(companyLogo));
-            }
-
-            employer.setCompanyName(companyName.trim());
-            employer.setWebsite(normalize(website));
-            employer.setAddress(normalize(address));
-            employer.setAbout(normalize(about));
-
-            if (employer.getUser() != null) {
-                User user = employer.getUser();
-                if (contactName != null) {
-                    user.setName(normalize(contactName));
-                }
-                if (contactPhone != null) {
-                    user.setPhone(normalize(contactPhone));
-                }
-                userRepository.save(user);
-            }
-
-            employerRepository.save(employer);
+            // Lưu logo, thông tin công ty và bỏ logo cũ trong một giao dịch của EmployerService
+            employerService.updateCompanyProfile(employer.getId(), companyName, website, address, about,
+                companyLogo, removeLogo, contactName, contactPhone);
             
             redirectAttributes.addFlashAttribute("flashType", "success");
             redirectAttributes.addFlashAttribute("flashMessage", "Đã cập nhật thông tin công ty thành công");
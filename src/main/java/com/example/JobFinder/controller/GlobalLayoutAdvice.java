@@ -1,11 +1,14 @@
 package com.example.JobFinder.controller;
 
-import com.example.JobFinder.service.HeaderContextService;
+import com.example.JobFinder.service.HeaderContextCache;
+import com.example.JobFinder.service.HeaderContextCache.HeaderEntry;
 import com.example.JobFinder.service.HeaderContextService.HeaderUserContext;
-import com.example.JobFinder.service.HomeService;
+import com.example.JobFinder.service.LayoutDataCache;
 import com.example.JobFinder.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
+import org.springframework.ui.Model;
+import org.thymeleaf.context.LazyContextVariable;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
@@ -16,31 +19,52 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class GlobalLayoutAdvice {
 
-    private final HomeService homeService;
-    private final HeaderContextService headerContextService;
-    private final NotificationService notificationService;
+    private final LayoutDataCache layoutDataCache;
+    private final HeaderContextCache headerContextCache;
 
+    // Lazy: chỉ được tính khi template thực sự dùng tới (redirect, POST, JSON, trang admin không tốn truy vấn)
     @ModelAttribute("globalStats")
-    public Map<String, Object> populateGlobalStats() {
-        return homeService.getStatistics();
+    public LazyContextVariable<Map<String, Object>> populateGlobalStats() {
+        return new LazyContextVariable<>() {
+            @Override
+            protected Map<String, Object> loadValue() {
+                return layoutDataCache.get().statistics();
+            }
+        };
     }
 
     @ModelAttribute("navCategories")
-    public List<Map<String, Object>> populateNavCategories() {
-        return homeService.getTopCategories(6);
+    public LazyContextVariable<List<Map<String, Object>>> populateNavCategories() {
+        return new LazyContextVariable<>() {
+            @Override
+            protected List<Map<String, Object>> loadValue() {
+                return layoutDataCache.get().navCategories();
+            }
+        };
     }
 
-    @ModelAttribute("headerUser")
-    public HeaderUserContext populateHeaderUser(Authentication authentication) {
-        return headerContextService.buildContext(authentication).orElse(null);
-    }
-
-    @ModelAttribute("headerNotifications")
-    public List<NotificationService.NotificationView> populateHeaderNotifications(
-            @ModelAttribute("headerUser") HeaderUserContext headerUser) {
-        if (headerUser == null) {
-            return List.of();
-        }
-        return notificationService.getRecentNotifications(headerUser.userId(), 5);
+    // headerUser và headerNotifications dùng chung một lần tra cache trong request
+    @ModelAttribute
+    public void populateHeader(Authentication authentication, Model model) {
+        LazyContextVariable<HeaderEntry> header = new LazyContextVariable<>() {
+            @Override
+            protected HeaderEntry loadValue() {
+                return headerContextCache.get(authentication).orElse(null);
+            }
+        };
+        model.addAttribute("headerUser", new LazyContextVariable<HeaderUserContext>() {
+            @Override
+            protected HeaderUserContext loadValue() {
+                HeaderEntry entry = header.getValue();
+                return entry != null ? entry.user() : null;
+            }
+        });
+        model.addAttribute("headerNotifications", new LazyContextVariable<List<NotificationService.NotificationView>>() {
+            @Override
+            protected List<NotificationService.NotificationView> loadValue() {
+                HeaderEntry entry = header.getValue();
+                return entry != null ? entry.notifications() : List.of();
+            }
+        });
     }
 }
@@ -1,6 +1,8 @@
 package com.example.JobFinder.controller;
 
 import com.example.JobFinder.service.HomeService;
+import com.example.JobFinder.service.LayoutDataCache;
+import com.example.JobFinder.service.LayoutDataCache.LayoutData;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,6 +17,7 @@ import java.util.Map;
 public class HomeController {
 
     private final HomeService homeService;
+    private final LayoutDataCache layoutDataCache;
 
     @GetMapping("/")
     public String home(
@@ -25,7 +28,7 @@ public class HomeController {
         // Page metadata
         model.addAttribute("pageTitle", "JobFind - Nền tảng việc làm chuẩn TopCV");
         model.addAttribute("pageStyles", List.of("home.css"));
-        model.addAttribute("pageScripts", List.of("homepage.js"));
+        model.addAttribute("pageScripts", List.of("homepage.js", "search-suggest.js"));
         
         // Get popular keywords
         model.addAttribute("searchKeywords", homeService.getPopularKeywords(6));
@@ -34,18 +37,19 @@ public class HomeController {
         model.addAttribute("prefilledKeyword", keyword != null ? keyword : "");
         model.addAttribute("prefilledLocation", location != null ? location : "");
         
-        // Hero metrics (statistics)
-        Map<String, Object> stats = homeService.getStatistics();
-        model.addAttribute("heroMetrics", homeService.formatHeroMetrics(stats));
+        // Hero metrics (statistics) and categories come from the shared layout cache
+        LayoutData layoutData = layoutDataCache.get();
+        model.addAttribute("heroMetrics", homeService.formatHeroMetrics(layoutData.statistics()));
         
         // Hero categories (top 3 for sidebar)
-        model.addAttribute("heroCategories", homeService.getTopCategories(3));
+        List<Map<String, Object>> topCategories = layoutData.navCategories();
+        model.addAttribute("heroCategories", topCategories.subList(0, Math.min(3, topCategories.size())));
         
         // Highlight cards
         model.addAttribute("highlightCards", homeService.getHighlightCards());
         
         // Top categories (6 for main section)
-        model.addAttribute("topCategories", homeService.getTopCategories(6));
+        model.addAttribute("topCategories", topCategories);
         
         // Hot jobs
         model.addAttribute("hotJobs", homeService.getHotJobs(4));
@@ -1,14 +1,12 @@
 package com.example.JobFinder.controller;
 
-import com.example.JobFinder.model.User;
-import com.example.JobFinder.model.Candidate;
 import com.example.JobFinder.repository.CategoryRepository;
 import com.example.JobFinder.repository.CandidateRepository;
-import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.CurrentUserService;
 import com.example.JobFinder.service.JobService;
+import com.example.JobFinder.service.SearchSuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -19,7 +17,6 @@ import jakarta.servlet.http.HttpSession;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @Controller
 @RequestMapping("/jobs")
@@ -28,34 +25,15 @@ public class JobController {
     
     private final JobService jobService;
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
     private final CandidateRepository candidateRepository;
+    private final SearchSuggestionService searchSuggestionService;
+    private final CurrentUserService currentUserService;
     
     /**
      * Get candidate ID from authenticated user
      */
     private Integer getCandidateId(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        
-        try {
-            Object principal = authentication.getPrincipal();
-            if (principal instanceof UserDetails userDetails) {
-                String email = userDetails.getUsername();
-                Optional<User> userOpt = userRepository.findByEmailIgnoreCase(email);
-                
-                if (userOpt.isPresent()) {
-                    User user = userOpt.get();
-                    Optional<Candidate> candidateOpt = candidateRepository.findByUserId(user.getId());
-                    return candidateOpt.map(Candidate::getId).orElse(null);
-                }
-            }
-        } catch (Exception e) {
-            return null;
-        }
-        
-        return null;
+        return currentUserService.candidateId(authentication);
     }
     
     /**
@@ -75,7 +53,7 @@ public class JobController {
             return "redirect:/auth/login";
         }
         
-        return listJobs(null, null, null, null, "newest", page, true, authentication, model);
+        return listJobs(null, null, null, null, null, null, "newest", page, null, true, authentication, model);
     }
     
     /**
@@ -86,9 +64,12 @@ public class JobController {
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String employmentType,
-            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) List<Integer> categoryId,
+            @RequestParam(required = false) Integer minSalary,
+            @RequestParam(required = false) Integer maxSalary,
             @RequestParam(required = false, defaultValue = "newest") String sort,
             @RequestParam(required = false, defaultValue = "1") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "false") boolean saved,
             Authentication authentication,
             Model model) {
@@ -107,16 +88,36 @@ public class JobController {
             model.addAttribute("pageTitle", "Việc làm đã lưu | JobFind");
             model.addAttribute("headingTitle", "Việc làm đã lưu");
             model.addAttribute("showSaved", true);
+        } else if ((cursor != null || page <= 1) && JobService.supportsCursor(sort)) {
+            // Keyset mode from page 1 on: the first page already carries the "next" cursor, no OFFSET afterwards,
+            // total served from cache (salary/views sorts stay on offset paging)
+            result = jobService.getPublishedJobsByCursor(
+                keyword, location, employmentType, categoryId, millionsToVnd(minSalary), millionsToVnd(maxSalary),
+                sort, cursor, perPage, true
+            );
+            result.put("totalPages", 0);
+            model.addAttribute("nextCursor", result.get("nextCursor"));
+            model.addAttribute("pageTitle", "Danh sách việc làm mới nhất | JobFind");
+            model.addAttribute("headingTitle", "Việc làm mới nhất");
+            model.addAttribute("showSaved", false);
         } else {
             // Show all jobs with filters
             result = jobService.getPublishedJobsWithFilters(
-                keyword, location, employmentType, categoryId, sort, page, perPage
+                keyword, location, employmentType, categoryId, millionsToVnd(minSalary), millionsToVnd(maxSalary),
+                sort, page, perPage
             );
             model.addAttribute("pageTitle", "Danh sách việc làm mới nhất | JobFind");
             model.addAttribute("headingTitle", "Việc làm mới nhất");
             model.addAttribute("showSaved", false);
         }
         
+        // Facet counts for the sidebar (null while the search index is rebuilding)
+        if (!(saved && canSaveJobs)) {
+            model.addAttribute("facets", jobService.getJobFacets(
+                keyword, location, employmentType, categoryId, millionsToVnd(minSalary), millionsToVnd(maxSalary)
+            ).orElse(null));
+        }
+        
         // Add result data to model
         model.addAttribute("jobs", result.get("jobs"));
         model.addAttribute("total", result.get("total"));
@@ -129,6 +130,9 @@ public class JobController {
         model.addAttribute("location", location != null ? location : "");
         model.addAttribute("employmentType", employmentType != null ? employmentType : "");
         model.addAttribute("categoryId", categoryId);
+        model.addAttribute("selectedCategoryIds", categoryId != null ? categoryId : List.of());
+        model.addAttribute("minSalary", minSalary);
+        model.addAttribute("maxSalary", maxSalary);
         model.addAttribute("sort", sort);
         
         // Get categories for filter dropdown
@@ -161,25 +165,100 @@ public class JobController {
         
         model.addAttribute("fullTimeCount", fullTimeCount);
         model.addAttribute("remoteCount", remoteCount);
-        model.addAttribute("pageScripts", List.of("saved-jobs.js"));
+        model.addAttribute("pageScripts", List.of("saved-jobs.js", "search-suggest.js"));
         
         return "frontend/jobs/index";
     }
 
     
+    /**
+     * JSON trang kế tiếp cho infinite scroll (keyset, mặc định không đếm tổng)
+     */
+    @GetMapping("/feed")
+    @ResponseBody
+    public Map<String, Object> jobFeed(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String employmentType,
+            @RequestParam(required = false) List<Integer> categoryId,
+            @RequestParam(required = false) Integer minSalary,
+            @RequestParam(required = false) Integer maxSalary,
+            @RequestParam(required = false, defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "12") int size,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal) {
+        
+        return jobService.getPublishedJobsByCursor(
+            keyword, location, employmentType, categoryId, millionsToVnd(minSalary), millionsToVnd(maxSalary),
+            sort, cursor, clampFeedSize(size), withTotal
+        );
+    }
+    
+    /**
+     * JSON trang kế tiếp của danh sách việc làm hot
+     */
+    @GetMapping("/hot/feed")
+    @ResponseBody
+    public Map<String, Object> hotJobFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "12") int size,
+            @RequestParam(required = false, defaultValue = "false") boolean withTotal) {
+        
+        return jobService.getHotJobsByCursor(cursor, clampFeedSize(size), withTotal);
+    }
+    
+    /**
+     * Gợi ý cho ô tìm kiếm (tiêu đề, công ty, ngành nghề), phục vụ hoàn toàn từ bộ nhớ
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public Map<String, Object> suggest(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(required = false, defaultValue = "8") int limit) {
+        
+        List<Map<String, Object>> suggestions = searchSuggestionService.suggest(query, Math.max(1, Math.min(limit, 20)))
+            .stream()
+            .map(suggestion -> Map.<String, Object>of("text", suggestion.text(), "type", suggestion.kind()))
+            .toList();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query != null ? query : "");
+        response.put("suggestions", suggestions);
+        return response;
+    }
+    
+    /**
+     * Bộ lọc lương nhập theo triệu đồng/tháng; giá trị không hợp lệ coi như không lọc
+     */
+    private Long millionsToVnd(Integer millions) {
+        return millions != null && millions > 0 ? millions * 1_000_000L : null;
+    }
+    
+    private int clampFeedSize(int size) {
+        return Math.max(1, Math.min(size, 50));
+    }
+    
     /**
      * Trang việc làm hot (sắp xếp theo lượt xem)
      */
     @GetMapping("/hot")
     public String hotJobs(
             @RequestParam(required = false, defaultValue = "1") int page,
+            @RequestParam(required = false) String cursor,
             Authentication authentication,
             Model model) {
         
         int perPage = 24;
         
-        // Get hot jobs sorted by view count
-        Map<String, Object> result = jobService.getHotJobs(page, perPage);
+        // Get hot jobs sorted by view count (keyset mode from page 1 on; ?page=N still serves offset links)
+        Map<String, Object> result;
+        if (cursor != null || page <= 1) {
+            result = jobService.getHotJobsByCursor(cursor, perPage, true);
+            result.put("totalPages", 0);
+            model.addAttribute("nextCursor", result.get("nextCursor"));
+        } else {
+            result = jobService.getHotJobs(page, perPage);
+        }
         
         model.addAttribute("jobs", result.get("jobs"));
         model.addAttribute("total", result.get("total"));
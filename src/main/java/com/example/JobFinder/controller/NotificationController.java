@@ -1,18 +1,22 @@
 package com.example.JobFinder.controller;
 
-import com.example.JobFinder.model.User;
-import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.CurrentUserService;
 import com.example.JobFinder.service.NotificationService;
-import java.security.Principal;
+import com.example.JobFinder.service.NotificationStreamHub;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -20,27 +24,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
+    private final CurrentUserService currentUserService;
+    private final NotificationStreamHub notificationStreamHub;
 
     @GetMapping("/poll")
-    public ResponseEntity<Map<String, Object>> poll(Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<Map<String, Object>> poll(Authentication authentication) {
+        Integer userId = currentUserService.userId(authentication);
+        if (userId == null) {
             return ResponseEntity.ok(Map.of(
                 "unread", 0,
                 "items", List.of()
             ));
         }
 
-        User user = userRepository.findByEmailIgnoreCase(principal.getName()).orElse(null);
-        if (user == null) {
-            return ResponseEntity.ok(Map.of(
-                "unread", 0,
-                "items", List.of()
-            ));
-        }
-
-        long unread = notificationService.countUnread(user.getId());
-        List<NotificationService.NotificationView> items = notificationService.getRecentNotifications(user.getId(), 5);
+        long unread = notificationService.countUnread(userId);
+        List<NotificationService.NotificationView> items = notificationService.getRecentNotifications(userId, 5);
 
         Map<String, Object> payload = new HashMap<>();
         payload.put("unread", unread);
@@ -49,18 +47,36 @@ public class NotificationController {
         return ResponseEntity.ok(payload);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Authentication authentication) {
+        Integer userId = currentUserService.userId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no")
+            .body(notificationStreamHub.subscribe(userId));
+    }
+
     @PostMapping("/mark-read")
-    public ResponseEntity<Map<String, Object>> markAllRead(Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<Map<String, Object>> markAllRead(Authentication authentication) {
+        Integer userId = currentUserService.userId(authentication);
+        if (userId == null) {
             return ResponseEntity.ok(Map.of("unread", 0));
         }
 
-        User user = userRepository.findByEmailIgnoreCase(principal.getName()).orElse(null);
-        if (user == null) {
+        notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok(Map.of("unread", 0));
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<Map<String, Object>> markRead(@PathVariable Integer id, Authentication authentication) {
+        Integer userId = currentUserService.userId(authentication);
+        if (userId == null) {
             return ResponseEntity.ok(Map.of("unread", 0));
         }
 
-        notificationService.markAllAsRead(user.getId());
-        return ResponseEntity.ok(Map.of("unread", 0));
+        notificationService.markAsRead(userId, id);
+        return ResponseEntity.ok(Map.of("unread", notificationService.countUnread(userId)));
     }
 }
@@ -4,7 +4,11 @@ import com.example.JobFinder.model.Role;
 import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.RoleRepository;
 import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.HeaderContextChangedEvent;
+import com.example.JobFinder.service.UploadStorageService;
+import com.example.JobFinder.service.UploadStorageService.UploadKind;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -14,12 +18,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.UUID;
 
 @Controller
 @RequestMapping("/admin/users")
@@ -31,25 +30,16 @@ public class UserAdminController {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UploadStorageService uploadStorageService;
     
-    // Upload directory configuration
-    private static final String UPLOAD_DIR = "src/main/resources/static/uploads/avatars/";
-    
-    public UserAdminController(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserAdminController(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                               ApplicationEventPublisher eventPublisher, UploadStorageService uploadStorageService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
-        
-        // Create upload directory if it doesn't exist
-        try {
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                log.info("Created upload directory: {}", UPLOAD_DIR);
-            }
-        } catch (IOException e) {
-            log.error("Could not create upload directory: {}", UPLOAD_DIR, e);
-        }
+        this.eventPublisher = eventPublisher;
+        this.uploadStorageService = uploadStorageService;
     }
 
     @GetMapping
@@ -103,7 +93,7 @@ public class UserAdminController {
             try {
                 String avatarPath = saveAvatar(avatar);
                 user.setAvatarPath(avatarPath);
-            } catch (IOException e) {
+            } catch (IOException | IllegalArgumentException e) {
                 log.error("Error uploading avatar", e);
                 redirectAttributes.addFlashAttribute("warningMessage", "Tạo người dùng thành công nhưng ảnh đại diện chưa được lưu");
             }
@@ -147,22 +137,24 @@ public class UserAdminController {
                 .orElseThrow(() -> new RuntimeException("Role not found"));
         user.setRole(role);
 
-        // Handle avatar upload
+        // Handle avatar upload; the old avatar is released only once the new one is saved
+        String previousAvatar = null;
         if (avatar != null && !avatar.isEmpty()) {
             try {
-                // Delete old avatar if exists
-                if (user.getAvatarPath() != null) {
-                    deleteAvatar(user.getAvatarPath());
-                }
                 String avatarPath = saveAvatar(avatar);
+                previousAvatar = user.getAvatarPath();
                 user.setAvatarPath(avatarPath);
-            } catch (IOException e) {
+            } catch (IOException | IllegalArgumentException e) {
                 log.error("Error uploading avatar", e);
                 redirectAttributes.addFlashAttribute("warningMessage", "Lỗi upload ảnh: " + e.getMessage());
             }
         }
 
         userRepository.save(user);
+        if (previousAvatar != null) {
+            deleteAvatar(previousAvatar);
+        }
+        eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(user.getId()));
         redirectAttributes.addFlashAttribute("successMessage", "Đã lưu thay đổi");
         return "redirect:/admin/users";
     }
@@ -175,64 +167,24 @@ public class UserAdminController {
             return "redirect:/admin/users";
         }
 
-        // Delete avatar if exists
+        userRepository.delete(user);
+        // Removed only when no other profile shares the same file
         if (user.getAvatarPath() != null) {
             deleteAvatar(user.getAvatarPath());
         }
-
-        userRepository.delete(user);
+        eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(id));
         redirectAttributes.addFlashAttribute("successMessage", "Đã xóa người dùng");
         return "redirect:/admin/users";
     }
 
     private String saveAvatar(MultipartFile file) throws IOException {
-        // Validate file
-        if (file.isEmpty()) {
-            throw new IOException("File is empty");
-        }
-        
-        // Validate file size (max 2MB)
-        long maxSize = 2 * 1024 * 1024; // 2MB
-        if (file.getSize() > maxSize) {
-            throw new IOException("File size exceeds maximum limit of 2MB");
-        }
-        
-        // Validate file type
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IOException("File must be an image");
-        }
-        
-        // Create upload directory if not exists
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        } else {
-            // Default to jpg if no extension
-            extension = ".jpg";
-        }
-        String filename = UUID.randomUUID().toString() + extension;
-        
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        log.info("Saved avatar: {}", filename);
-        return "/uploads/avatars/" + filename;
+        // Content-addressed: uploads/avatars/<sha256>.<ext>, type checked from the file header
+        String avatarPath = "/" + uploadStorageService.store(file, UploadKind.AVATAR);
+        log.info("Saved avatar: {}", avatarPath);
+        return avatarPath;
     }
 
     private void deleteAvatar(String avatarPath) {
-        try {
-            Path path = Paths.get("src/main/resources/static" + avatarPath);
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            log.error("Error deleting avatar: " + avatarPath, e);
-        }
+        uploadStorageService.release(avatarPath);
     }
 }
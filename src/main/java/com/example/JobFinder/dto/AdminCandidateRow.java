@@ -0,0 +1,21 @@
+package com.example.JobFinder.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của danh sách ứng viên trong trang quản trị (người dùng vai trò ứng viên, hồ sơ có thể chưa có),
+ * nạp bằng constructor expression nên không khởi tạo entity User/Candidate.
+ */
+public record AdminCandidateRow(
+        Integer userId,
+        String email,
+        String name,
+        LocalDateTime userCreatedAt,
+        Integer candidateId,
+        String headline,
+        String location,
+        String cvPath,
+        LocalDateTime cvUpdatedAt,
+        String profilePicture,
+        Integer experienceCount) {
+}
@@ -0,0 +1,21 @@
+package com.example.JobFinder.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của bảng tin tuyển dụng trong trang quản trị: chỉ các cột bảng hiển thị,
+ * nạp bằng constructor expression nên không khởi tạo entity Job/Employer/User.
+ */
+public record AdminJobRow(
+        Integer id,
+        String title,
+        String status,
+        Integer quantity,
+        LocalDate deadline,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Integer employerId,
+        String employerName,
+        String employerEmail) {
+}
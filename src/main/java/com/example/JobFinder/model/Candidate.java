@@ -45,6 +45,10 @@ public class Candidate {
     @Lob
     private String experience;
 
+    // Số vị trí trong experience, tính khi lưu hồ sơ để danh sách không phải parse JSON
+    @Column(name = "experience_count")
+    private Integer experienceCount;
+
     @Column(name = "profile_picture", length = 255)
     private String profilePicture;
 
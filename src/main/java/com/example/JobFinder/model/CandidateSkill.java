@@ -0,0 +1,38 @@
+package com.example.JobFinder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Một kỹ năng của ứng viên, tách từ JSON candidates.skills để lọc bằng chỉ mục thay vì parse chuỗi.
+ * Được ghi lại toàn bộ mỗi khi hồ sơ lưu (xem CandidateSkillIndex).
+ */
+@Entity
+@Table(name = "candidate_skills")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CandidateSkill {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "candidate_id", nullable = false)
+    private Candidate candidate;
+
+    @Column(nullable = false, length = 100)
+    private String skill;
+
+    @Column(name = "skill_normalized", nullable = false, length = 100)
+    private String skillNormalized;
+
+    @Column(name = "skill_canonical", length = 100)
+    private String skillCanonical;
+
+    @Column(nullable = false)
+    private Integer position;
+}
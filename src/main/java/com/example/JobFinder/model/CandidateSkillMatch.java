@@ -0,0 +1,22 @@
+package com.example.JobFinder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * user_id khớp bộ lọc kỹ năng của trang quản trị ứng viên. Bảng TEMPORARY theo kết nối, do
+ * CandidateAdminService tạo, điền và xóa trong cùng giao dịch để JPQL join thay cho danh sách IN rất dài.
+ */
+@Entity
+@Immutable
+@Table(name = "candidate_skill_matches")
+@Getter
+@NoArgsConstructor
+public class CandidateSkillMatch {
+    
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+}
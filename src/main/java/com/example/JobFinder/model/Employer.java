@@ -1,5 +1,6 @@
 package com.example.JobFinder.model;
 
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -8,6 +9,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -41,4 +44,18 @@ public class Employer {
 
     @Column(name = "logo_path", length = 255)
     private String logoPath;
+
+    // Cột tìm kiếm đã bỏ dấu (xem VietnameseTextAnalyzer)
+    @Column(name = "company_name_normalized", length = 255)
+    private String companyNameNormalized;
+
+    @Column(name = "address_normalized", length = 255)
+    private String addressNormalized;
+
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchText() {
+        companyNameNormalized = VietnameseTextAnalyzer.normalize(companyName);
+        addressNormalized = VietnameseTextAnalyzer.normalize(address);
+    }
 }
@@ -1,5 +1,7 @@
 package com.example.JobFinder.model;
 
+import com.example.JobFinder.util.SalaryParser;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -42,6 +44,19 @@ public class Job {
     @Column(name = "salary", length = 100)
     private String salary;
     
+    // Lương đã chuẩn hóa từ cột salary (VND/tháng), tính lại mỗi lần lưu (xem SalaryParser)
+    @Column(name = "salary_min")
+    private Long salaryMin;
+    
+    @Column(name = "salary_max")
+    private Long salaryMax;
+    
+    @Column(name = "salary_currency", length = 3)
+    private String salaryCurrency;
+    
+    @Column(name = "salary_negotiable")
+    private Boolean salaryNegotiable;
+    
     @Column(name = "employment_type", length = 50)
     private String employmentType;
     
@@ -57,12 +72,29 @@ public class Job {
     @Column(name = "deadline")
     private LocalDate deadline;
     
+    // Chỉ JobViewCounter ghi hai cột này (cộng dồn bằng SQL), entity không được ghi đè khi lưu
+    @Column(name = "view_count", insertable = false, updatable = false)
+    private Integer viewCount;
+    
+    @Column(name = "last_viewed_at", insertable = false, updatable = false)
+    private LocalDateTime lastViewedAt;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Cột tìm kiếm đã bỏ dấu, tính lại mỗi lần lưu (xem VietnameseTextAnalyzer)
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+    
+    @Column(name = "title_normalized", length = 255)
+    private String titleNormalized;
+    
+    @Column(name = "location_normalized", length = 255)
+    private String locationNormalized;
+    
     @ManyToMany
     @JoinTable(
         name = "job_category_map",
@@ -78,10 +110,32 @@ public class Job {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        refreshSearchText();
+        refreshSalary();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        refreshSearchText();
+        refreshSalary();
+    }
+    
+    public void refreshSalary() {
+        SalaryParser.ParsedSalary parsed = SalaryParser.parse(salary);
+        salaryMin = parsed.minMonthlyVnd();
+        salaryMax = parsed.maxMonthlyVnd();
+        salaryCurrency = parsed.currency();
+        salaryNegotiable = parsed.negotiable();
+    }
+    
+    public void refreshSearchText() {
+        titleNormalized = VietnameseTextAnalyzer.normalize(title);
+        locationNormalized = VietnameseTextAnalyzer.normalize(location);
+        searchText = VietnameseTextAnalyzer.normalizeAll(
+            title,
+            VietnameseTextAnalyzer.stripHtml(description),
+            VietnameseTextAnalyzer.stripHtml(jobRequirements)
+        );
     }
 }
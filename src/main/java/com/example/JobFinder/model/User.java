@@ -1,5 +1,6 @@
 package com.example.JobFinder.model;
 
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,6 +11,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import lombok.Getter;
@@ -52,9 +55,19 @@ public class User {
     @Column(name = "created_at", updatable = false, insertable = false)
     private LocalDateTime createdAt;
 
+    // Tên + email đã bỏ dấu, dùng cho bộ lọc từ khóa (xem VietnameseTextAnalyzer)
+    @Column(name = "search_text", length = 320)
+    private String searchText;
+
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Employer employerProfile;
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Candidate candidateProfile;
+
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchText() {
+        searchText = VietnameseTextAnalyzer.normalizeAll(name, email);
+    }
 }
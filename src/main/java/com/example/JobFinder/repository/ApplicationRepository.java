@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,17 +28,21 @@ public interface ApplicationRepository extends JpaRepository<Application, Intege
     // Count applications by status
     @Query("SELECT COUNT(a) FROM Application a WHERE a.status = :status")
     long countByStatus(@Param("status") String status);
+
+    // Application counts per status in one pass: rows of (status, count, appliedSince)
+    @Query("SELECT a.status, COUNT(a), SUM(CASE WHEN a.appliedAt >= :since THEN 1 ELSE 0 END) " +
+           "FROM Application a GROUP BY a.status")
+    List<Object[]> countGroupByStatusWithRecent(@Param("since") LocalDateTime since);
     
-    // Get all applications with filters for admin
+    // Get all applications with filters for admin (keyword normalized, matched against folded shadow columns)
        @Query("SELECT a FROM Application a " +
                  "LEFT JOIN FETCH a.job j " +
                  "LEFT JOIN FETCH j.employer e " +
                  "LEFT JOIN FETCH a.candidate c " +
                  "LEFT JOIN FETCH c.user u " +
                  "WHERE (:keyword IS NULL OR :keyword = '' OR " +
-                 "LOWER(u.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-                 "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-                 "LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+                 "u.searchText LIKE CONCAT('%', :keyword, '%') OR " +
+                 "j.titleNormalized LIKE CONCAT('%', :keyword, '%')) " +
                  "AND (:status IS NULL OR :status = '' OR a.status = :status) " +
                  "AND (:jobId IS NULL OR j.id = :jobId) " +
                  "AND (:employerId IS NULL OR e.id = :employerId) " +
@@ -64,6 +69,10 @@ public interface ApplicationRepository extends JpaRepository<Application, Intege
     // Count applications by job
     long countByJobId(Integer jobId);
     
+    // Application counts for a page of jobs as rows of [jobId, count] (jobs without applications are absent)
+    @Query("SELECT a.job.id, COUNT(a) FROM Application a WHERE a.job.id IN :jobIds GROUP BY a.job.id")
+    List<Object[]> countByJobIds(@Param("jobIds") Collection<Integer> jobIds);
+    
     // Get applications by candidate
     @Query("SELECT a FROM Application a " +
            "LEFT JOIN FETCH a.job j " +
@@ -72,6 +81,54 @@ public interface ApplicationRepository extends JpaRepository<Application, Intege
            "ORDER BY a.appliedAt DESC")
     List<Application> findByCandidateId(@Param("candidateId") Integer candidateId);
     
+    // Candidate's own applications filtered and paged in SQL (keyword matched against folded title/company)
+    @Query(value = "SELECT a FROM Application a " +
+           "LEFT JOIN FETCH a.job j " +
+           "LEFT JOIN FETCH j.employer e " +
+           "WHERE a.candidate.id = :candidateId " +
+           "AND (:status IS NULL OR :status = '' OR a.status = :status) " +
+           "AND (:keyword IS NULL OR :keyword = '' OR " +
+           "j.titleNormalized LIKE CONCAT('%', :keyword, '%') OR " +
+           "e.companyNameNormalized LIKE CONCAT('%', :keyword, '%')) ",
+           countQuery = "SELECT COUNT(a) FROM Application a " +
+           "LEFT JOIN a.job j " +
+           "LEFT JOIN j.employer e " +
+           "WHERE a.candidate.id = :candidateId " +
+           "AND (:status IS NULL OR :status = '' OR a.status = :status) " +
+           "AND (:keyword IS NULL OR :keyword = '' OR " +
+           "j.titleNormalized LIKE CONCAT('%', :keyword, '%') OR " +
+           "e.companyNameNormalized LIKE CONCAT('%', :keyword, '%')) ")
+    Page<Application> findByCandidateIdWithFilters(
+           @Param("candidateId") Integer candidateId,
+           @Param("status") String status,
+           @Param("keyword") String keyword,
+           Pageable pageable
+    );
+    
+    // Keyset pages of the candidate's applications ordered by (appliedAt, id) descending; no count query
+    @Query("SELECT a FROM Application a " +
+           "LEFT JOIN FETCH a.job j " +
+           "LEFT JOIN FETCH j.employer e " +
+           "WHERE a.candidate.id = :candidateId " +
+           "AND (:status IS NULL OR :status = '' OR a.status = :status) " +
+           "AND (:keyword IS NULL OR :keyword = '' OR " +
+           "j.titleNormalized LIKE CONCAT('%', :keyword, '%') OR " +
+           "e.companyNameNormalized LIKE CONCAT('%', :keyword, '%')) " +
+           "AND (:cursorTime IS NULL OR a.appliedAt < :cursorTime OR (a.appliedAt = :cursorTime AND a.id < :cursorId)) " +
+           "ORDER BY a.appliedAt DESC, a.id DESC")
+    List<Application> findByCandidateIdBeforeCursor(
+           @Param("candidateId") Integer candidateId,
+           @Param("status") String status,
+           @Param("keyword") String keyword,
+           @Param("cursorTime") LocalDateTime cursorTime,
+           @Param("cursorId") Integer cursorId,
+           Pageable limit
+    );
+    
+    // Per-status totals for a candidate as rows of [status, count]
+    @Query("SELECT a.status, COUNT(a) FROM Application a WHERE a.candidate.id = :candidateId GROUP BY a.status")
+    List<Object[]> countByCandidateIdGroupByStatus(@Param("candidateId") Integer candidateId);
+    
     // Get applications by job
     @Query("SELECT a FROM Application a " +
            "LEFT JOIN FETCH a.candidate c " +
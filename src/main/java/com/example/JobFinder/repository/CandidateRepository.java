@@ -1,7 +1,12 @@
 package com.example.JobFinder.repository;
 
+import com.example.JobFinder.dto.AdminCandidateRow;
 import com.example.JobFinder.model.Candidate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,8 +15,65 @@ public interface CandidateRepository extends JpaRepository<Candidate, Integer> {
 
     @Query("SELECT c FROM Candidate c LEFT JOIN FETCH c.user WHERE c.user.id = :userId")
     Optional<Candidate> findByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT c.id FROM Candidate c WHERE c.user.id = :userId")
+    Optional<Integer> findIdByUserId(@Param("userId") Integer userId);
     
     @Query("SELECT c FROM Candidate c LEFT JOIN FETCH c.user WHERE c.id = :id")
     @Override
     Optional<Candidate> findById(@Param("id") Integer id);
+
+    // Admin candidate directory: candidate-role users with their (optional) profile, filtered and paged in SQL.
+    // Skill matches are loaded into the per-connection candidate_skill_matches temporary table by
+    // CandidateAdminService (same transaction); no count query (stats carry the total)
+    @Query("SELECT new com.example.JobFinder.dto.AdminCandidateRow(" +
+           "u.id, u.email, u.name, u.createdAt, c.id, c.headline, c.location, c.cvPath, c.updatedAt, " +
+           "c.profilePicture, c.experienceCount) " +
+           "FROM User u LEFT JOIN u.candidateProfile c " +
+           "WHERE u.role.id = 3 " +
+           "AND (:keyword = '' OR u.searchText LIKE CONCAT('%', :normalizedKeyword, '%') OR " +
+           "c.headline LIKE CONCAT('%', :keyword, '%')) " +
+           "AND (:location = '' OR c.location LIKE CONCAT('%', :location, '%')) " +
+           "AND (:skillMatched = false OR u.id IN (SELECT m.userId FROM CandidateSkillMatch m)) " +
+           "AND (:cvStatus = '' OR " +
+           "(:cvStatus = 'has' AND c.cvPath IS NOT NULL AND c.cvPath <> '') OR " +
+           "(:cvStatus = 'missing' AND (c.cvPath IS NULL OR c.cvPath = ''))) " +
+           "ORDER BY u.id DESC")
+    List<AdminCandidateRow> findAdminCandidateRows(
+            @Param("keyword") String keyword,
+            @Param("normalizedKeyword") String normalizedKeyword,
+            @Param("location") String location,
+            @Param("skillMatched") boolean skillMatched,
+            @Param("cvStatus") String cvStatus,
+            Pageable pageable);
+
+    // One page of the directory when only the skill filter is set: ids are paged in memory by the caller
+    @Query("SELECT new com.example.JobFinder.dto.AdminCandidateRow(" +
+           "u.id, u.email, u.name, u.createdAt, c.id, c.headline, c.location, c.cvPath, c.updatedAt, " +
+           "c.profilePicture, c.experienceCount) " +
+           "FROM User u LEFT JOIN u.candidateProfile c " +
+           "WHERE u.role.id = 3 AND u.id IN :userIds " +
+           "ORDER BY u.id DESC")
+    List<AdminCandidateRow> findAdminCandidateRowsByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    // Totals for the same filters: one row of (total, withCv, cvUpdatedSince)
+    @Query("SELECT COUNT(u), " +
+           "SUM(CASE WHEN c.cvPath IS NOT NULL AND c.cvPath <> '' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN c.cvPath IS NOT NULL AND c.cvPath <> '' AND c.updatedAt > :since THEN 1 ELSE 0 END) " +
+           "FROM User u LEFT JOIN u.candidateProfile c " +
+           "WHERE u.role.id = 3 " +
+           "AND (:keyword = '' OR u.searchText LIKE CONCAT('%', :normalizedKeyword, '%') OR " +
+           "c.headline LIKE CONCAT('%', :keyword, '%')) " +
+           "AND (:location = '' OR c.location LIKE CONCAT('%', :location, '%')) " +
+           "AND (:skillMatched = false OR u.id IN (SELECT m.userId FROM CandidateSkillMatch m)) " +
+           "AND (:cvStatus = '' OR " +
+           "(:cvStatus = 'has' AND c.cvPath IS NOT NULL AND c.cvPath <> '') OR " +
+           "(:cvStatus = 'missing' AND (c.cvPath IS NULL OR c.cvPath = '')))")
+    List<Object[]> countAdminCandidateStats(
+            @Param("keyword") String keyword,
+            @Param("normalizedKeyword") String normalizedKeyword,
+            @Param("location") String location,
+            @Param("skillMatched") boolean skillMatched,
+            @Param("cvStatus") String cvStatus,
+            @Param("since") LocalDateTime since);
 }
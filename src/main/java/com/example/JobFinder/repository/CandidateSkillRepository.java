@@ -0,0 +1,18 @@
+package com.example.JobFinder.repository;
+
+import com.example.JobFinder.model.CandidateSkill;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CandidateSkillRepository extends JpaRepository<CandidateSkill, Integer> {
+
+    // Skills of a page of candidates in display order: rows of (candidateId, skill)
+    @Query("SELECT s.candidate.id, s.skill FROM CandidateSkill s " +
+           "WHERE s.candidate.id IN :candidateIds AND s.position < :limit " +
+           "ORDER BY s.candidate.id, s.position")
+    List<Object[]> findTopSkillsByCandidateIds(@Param("candidateIds") Collection<Integer> candidateIds,
+                                               @Param("limit") int limit);
+}
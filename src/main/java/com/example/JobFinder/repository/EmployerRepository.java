@@ -22,18 +22,22 @@ public interface EmployerRepository extends JpaRepository<Employer, Integer> {
 
     Optional<Employer> findByUserId(Integer userId);
 
+    @Query("SELECT e.id FROM Employer e WHERE e.user.id = :userId")
+    Optional<Integer> findIdByUserId(@Param("userId") Integer userId);
+
     boolean existsByUserId(Integer userId);
 
+    // keyword/location are VietnameseTextAnalyzer.normalize()d and matched against the folded shadow columns
     @Query("SELECT e FROM Employer e LEFT JOIN FETCH e.user u " +
-           "WHERE (:keyword = '' OR e.companyName LIKE %:keyword% OR e.address LIKE %:keyword% OR u.email LIKE %:keyword% OR u.name LIKE %:keyword%) " +
-           "AND (:location = '' OR e.address LIKE %:location%) " +
+           "WHERE (:keyword = '' OR e.companyNameNormalized LIKE %:keyword% OR e.addressNormalized LIKE %:keyword% OR u.searchText LIKE %:keyword%) " +
+           "AND (:location = '' OR e.addressNormalized LIKE %:location%) " +
            "ORDER BY e.id DESC")
     List<Employer> findByFilters(@Param("keyword") String keyword, @Param("location") String location);
 
     // For public employer directory with pagination
     @Query("SELECT e FROM Employer e " +
-           "WHERE (:searchTerm IS NULL OR :searchTerm = '' OR e.companyName LIKE %:searchTerm% OR e.address LIKE %:searchTerm%) " +
-           "AND (:location IS NULL OR :location = '' OR e.address LIKE %:location%)")
+           "WHERE (:searchTerm IS NULL OR :searchTerm = '' OR e.companyNameNormalized LIKE %:searchTerm% OR e.addressNormalized LIKE %:searchTerm%) " +
+           "AND (:location IS NULL OR :location = '' OR e.addressNormalized LIKE %:location%)")
     Page<Employer> findByFilters(@Param("searchTerm") String searchTerm, @Param("location") String location, Pageable pageable);
     
     Optional<Employer> findById(Long id);
@@ -1,5 +1,6 @@
 package com.example.JobFinder.repository;
 
+import com.example.JobFinder.dto.AdminJobRow;
 import com.example.JobFinder.model.Job;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,25 +26,112 @@ public interface JobRepository extends JpaRepository<Job, Integer> {
     // Count jobs by status
     @Query("SELECT COUNT(j) FROM Job j WHERE j.status = :status")
     long countByStatus(@Param("status") String status);
+
+    // Job counts per status in one pass: rows of (status, count)
+    @Query("SELECT j.status, COUNT(j) FROM Job j GROUP BY j.status")
+    List<Object[]> countGroupByStatus();
     
     // Get published jobs with pagination and filters (without FETCH for pagination)
+    // keyword/location are prefix patterns (VietnameseTextAnalyzer.prefixPattern, "abc%") or null, matched against the
+    // indexed folded shadow columns; substring/term matching is JobSearchIndex's job, this is only its fallback
+    // categoryIds are OR'ed; pass anyCategory = false with a non-empty placeholder list to disable the filter
+    // minSalary/maxSalary (monthly VND) match jobs whose parsed salary range overlaps the requested one
     @Query("SELECT DISTINCT j FROM Job j " +
            "LEFT JOIN j.employer e " +
            "LEFT JOIN j.categories c " +
            "WHERE j.status = 'published' " +
            "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE) " +
-           "AND (:keyword IS NULL OR :keyword = '' OR LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(e.companyName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(j.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-           "AND (:location IS NULL OR :location = '' OR LOWER(j.location) LIKE LOWER(CONCAT('%', :location, '%')) OR LOWER(e.address) LIKE LOWER(CONCAT('%', :location, '%'))) " +
+           "AND (:keyword IS NULL OR j.titleNormalized LIKE :keyword OR e.companyNameNormalized LIKE :keyword) " +
+           "AND (:location IS NULL OR j.locationNormalized LIKE :location OR e.addressNormalized LIKE :location) " +
            "AND (:employmentType IS NULL OR :employmentType = '' OR j.employmentType = :employmentType) " +
-           "AND (:categoryId IS NULL OR c.id = :categoryId)")
+           "AND (:anyCategory = false OR c.id IN :categoryIds) " +
+           "AND (:minSalary IS NULL OR COALESCE(j.salaryMax, j.salaryMin) >= :minSalary) " +
+           "AND (:maxSalary IS NULL OR COALESCE(j.salaryMin, j.salaryMax) <= :maxSalary)")
     Page<Job> findPublishedJobsWithFilters(
         @Param("keyword") String keyword,
         @Param("location") String location,
         @Param("employmentType") String employmentType,
-        @Param("categoryId") Integer categoryId,
+        @Param("anyCategory") boolean anyCategory,
+        @Param("categoryIds") Collection<Integer> categoryIds,
+        @Param("minSalary") Long minSalary,
+        @Param("maxSalary") Long maxSalary,
+        Pageable pageable
+    );
+    
+    // Keyset pages over published jobs (newest first), same filters as findPublishedJobsWithFilters.
+    // Category filter is a subquery so no DISTINCT is needed and (created_at, id) can drive the scan.
+    @Query("SELECT j.id FROM Job j " +
+           "JOIN j.employer e " +
+           "WHERE j.status = 'published' " +
+           "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE) " +
+           "AND (:keyword IS NULL OR j.titleNormalized LIKE :keyword OR e.companyNameNormalized LIKE :keyword) " +
+           "AND (:location IS NULL OR j.locationNormalized LIKE :location OR e.addressNormalized LIKE :location) " +
+           "AND (:employmentType IS NULL OR :employmentType = '' OR j.employmentType = :employmentType) " +
+           "AND (:anyCategory = false OR j.id IN (SELECT cj.id FROM Job cj JOIN cj.categories c WHERE c.id IN :categoryIds)) " +
+           "AND (:minSalary IS NULL OR COALESCE(j.salaryMax, j.salaryMin) >= :minSalary) " +
+           "AND (:maxSalary IS NULL OR COALESCE(j.salaryMin, j.salaryMax) <= :maxSalary) " +
+           "AND (:cursorTime IS NULL OR j.createdAt < :cursorTime OR (j.createdAt = :cursorTime AND j.id < :cursorId)) " +
+           "ORDER BY j.createdAt DESC, j.id DESC")
+    List<Integer> findPublishedIdsBeforeCursor(
+        @Param("keyword") String keyword,
+        @Param("location") String location,
+        @Param("employmentType") String employmentType,
+        @Param("anyCategory") boolean anyCategory,
+        @Param("categoryIds") Collection<Integer> categoryIds,
+        @Param("minSalary") Long minSalary,
+        @Param("maxSalary") Long maxSalary,
+        @Param("cursorTime") LocalDateTime cursorTime,
+        @Param("cursorId") Integer cursorId,
+        Pageable pageable
+    );
+    
+    // Keyset pages over published jobs (oldest first)
+    @Query("SELECT j.id FROM Job j " +
+           "JOIN j.employer e " +
+           "WHERE j.status = 'published' " +
+           "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE) " +
+           "AND (:keyword IS NULL OR j.titleNormalized LIKE :keyword OR e.companyNameNormalized LIKE :keyword) " +
+           "AND (:location IS NULL OR j.locationNormalized LIKE :location OR e.addressNormalized LIKE :location) " +
+           "AND (:employmentType IS NULL OR :employmentType = '' OR j.employmentType = :employmentType) " +
+           "AND (:anyCategory = false OR j.id IN (SELECT cj.id FROM Job cj JOIN cj.categories c WHERE c.id IN :categoryIds)) " +
+           "AND (:minSalary IS NULL OR COALESCE(j.salaryMax, j.salaryMin) >= :minSalary) " +
+           "AND (:maxSalary IS NULL OR COALESCE(j.salaryMin, j.salaryMax) <= :maxSalary) " +
+           "AND (:cursorTime IS NULL OR j.createdAt > :cursorTime OR (j.createdAt = :cursorTime AND j.id > :cursorId)) " +
+           "ORDER BY j.createdAt ASC, j.id ASC")
+    List<Integer> findPublishedIdsAfterCursor(
+        @Param("keyword") String keyword,
+        @Param("location") String location,
+        @Param("employmentType") String employmentType,
+        @Param("anyCategory") boolean anyCategory,
+        @Param("categoryIds") Collection<Integer> categoryIds,
+        @Param("minSalary") Long minSalary,
+        @Param("maxSalary") Long maxSalary,
+        @Param("cursorTime") LocalDateTime cursorTime,
+        @Param("cursorId") Integer cursorId,
         Pageable pageable
     );
     
+    // Total for the filtered listing (cached by JobService in cursor mode)
+    @Query("SELECT COUNT(j) FROM Job j " +
+           "JOIN j.employer e " +
+           "WHERE j.status = 'published' " +
+           "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE) " +
+           "AND (:keyword IS NULL OR j.titleNormalized LIKE :keyword OR e.companyNameNormalized LIKE :keyword) " +
+           "AND (:location IS NULL OR j.locationNormalized LIKE :location OR e.addressNormalized LIKE :location) " +
+           "AND (:employmentType IS NULL OR :employmentType = '' OR j.employmentType = :employmentType) " +
+           "AND (:anyCategory = false OR j.id IN (SELECT cj.id FROM Job cj JOIN cj.categories c WHERE c.id IN :categoryIds)) " +
+           "AND (:minSalary IS NULL OR COALESCE(j.salaryMax, j.salaryMin) >= :minSalary) " +
+           "AND (:maxSalary IS NULL OR COALESCE(j.salaryMin, j.salaryMax) <= :maxSalary)")
+    long countPublishedJobsWithFilters(
+        @Param("keyword") String keyword,
+        @Param("location") String location,
+        @Param("employmentType") String employmentType,
+        @Param("anyCategory") boolean anyCategory,
+        @Param("categoryIds") Collection<Integer> categoryIds,
+        @Param("minSalary") Long minSalary,
+        @Param("maxSalary") Long maxSalary
+    );
+    
     // Get featured jobs (recently posted)
     @Query("SELECT j FROM Job j LEFT JOIN FETCH j.employer e LEFT JOIN FETCH j.categories " +
            "WHERE j.status = 'published' " +
@@ -94,22 +183,42 @@ public interface JobRepository extends JpaRepository<Job, Integer> {
            "ORDER BY j.createdAt DESC")
     Page<Job> findSavedJobsByCandidateId(@Param("candidateId") Integer candidateId, Pageable pageable);
     
-    // Get hot jobs sorted by view count from job_views table
-    @Query("SELECT j FROM Job j " +
+    // Get hot jobs sorted by the denormalized view_count (maintained by JobViewCounter)
+    @Query(value = "SELECT j FROM Job j " +
            "LEFT JOIN FETCH j.employer e " +
            "LEFT JOIN FETCH j.categories " +
            "WHERE j.status = 'published' " +
            "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE) " +
-           "ORDER BY (SELECT COUNT(jv) FROM JobView jv WHERE jv.job.id = j.id) DESC, j.createdAt DESC")
+           "ORDER BY j.viewCount DESC, j.createdAt DESC",
+           countQuery = "SELECT COUNT(j) FROM Job j " +
+           "WHERE j.status = 'published' " +
+           "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)")
     Page<Job> findHotJobsByViewCount(Pageable pageable);
     
+    // Keyset pages for the hot list ordered by (view_count, id); view_count is NOT NULL so the
+    // predicate and ORDER BY walk idx_jobs_status_view_count (InnoDB appends id to the index)
+    @Query(value = """
+            SELECT j.id, j.view_count AS score
+            FROM jobs j
+            WHERE j.status = 'published'
+              AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)
+              AND (:cursorScore IS NULL OR j.view_count < :cursorScore
+                   OR (j.view_count = :cursorScore AND j.id < :cursorId))
+            ORDER BY j.view_count DESC, j.id DESC
+            """,
+           nativeQuery = true)
+    List<Object[]> findHotJobIdsBeforeCursor(@Param("cursorScore") Long cursorScore, @Param("cursorId") Integer cursorId, Pageable pageable);
+    
+    @Query("SELECT COUNT(j) FROM Job j WHERE j.status = 'published' AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)")
+    long countActivePublished();
+    
     // Get top N jobs by view count for homepage
     @Query("SELECT j FROM Job j " +
            "LEFT JOIN FETCH j.employer e " +
            "LEFT JOIN FETCH j.categories " +
            "WHERE j.status = 'published' " +
            "AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE) " +
-           "ORDER BY (SELECT COUNT(jv) FROM JobView jv WHERE jv.job.id = j.id) DESC, j.createdAt DESC")
+           "ORDER BY j.viewCount DESC, j.createdAt DESC")
     List<Job> findTopJobsByViewCount(Pageable pageable);
 
     @Query("SELECT YEAR(j.createdAt) AS yr, MONTH(j.createdAt) AS mon, COUNT(j) AS total " +
@@ -119,22 +228,42 @@ public interface JobRepository extends JpaRepository<Job, Integer> {
            "ORDER BY yr, mon")
     List<Object[]> countJobsGroupedByMonth(@Param("start") LocalDateTime start);
 
-    @Query("""
-            SELECT DISTINCT j.title
-            FROM Job j
-            WHERE j.status = 'published'
-              AND j.title IS NOT NULL
-              AND j.title <> ''
-              AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)
-            ORDER BY j.createdAt DESC
-            """)
-    List<String> findRecentJobTitles(Pageable pageable);
+    // Autocomplete source: [kind, label, job count, views, applications] for live job titles,
+    // company names and category names. Aggregated once per trie rebuild, never per request.
+    @Query(value = """
+            SELECT 'title' AS kind, j.title AS label, COUNT(*) AS jobs,
+                   COALESCE(SUM(j.view_count), 0) AS views, COALESCE(SUM(a.applications), 0) AS applications
+            FROM jobs j
+            LEFT JOIN (SELECT job_id, COUNT(*) AS applications FROM applications GROUP BY job_id) a ON a.job_id = j.id
+            WHERE j.status = 'published' AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)
+              AND j.title IS NOT NULL AND j.title <> ''
+            GROUP BY j.title
+            UNION ALL
+            SELECT 'company', e.company_name, COUNT(*),
+                   COALESCE(SUM(j.view_count), 0), COALESCE(SUM(a.applications), 0)
+            FROM jobs j
+            JOIN employers e ON e.id = j.employer_id
+            LEFT JOIN (SELECT job_id, COUNT(*) AS applications FROM applications GROUP BY job_id) a ON a.job_id = j.id
+            WHERE j.status = 'published' AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)
+              AND e.company_name IS NOT NULL AND e.company_name <> ''
+            GROUP BY e.company_name
+            UNION ALL
+            SELECT 'category', c.name, COUNT(*),
+                   COALESCE(SUM(j.view_count), 0), COALESCE(SUM(a.applications), 0)
+            FROM jobs j
+            JOIN job_category_map m ON m.job_id = j.id
+            JOIN job_categories c ON c.id = m.category_id
+            LEFT JOIN (SELECT job_id, COUNT(*) AS applications FROM applications GROUP BY job_id) a ON a.job_id = j.id
+            WHERE j.status = 'published' AND (j.deadline IS NULL OR j.deadline >= CURRENT_DATE)
+            GROUP BY c.name
+            """, nativeQuery = true)
+    List<Object[]> findSuggestionWeights();
 
-       // Recommendation fallback for MariaDB: prioritize location match, then recency
+       // Recommendation fallback for MariaDB: prioritize location match, then recency (location normalized)
        @Query(value = """
                      SELECT j.id,
                                CASE
-                                      WHEN :location IS NOT NULL AND j.location IS NOT NULL AND LOWER(j.location) LIKE CONCAT('%', LOWER(:location), '%') THEN 5
+                                      WHEN :location IS NOT NULL AND j.location_normalized LIKE CONCAT('%', :location, '%') THEN 5
                                       ELSE 0
                                END AS match_score
                      FROM jobs j
@@ -157,4 +286,44 @@ public interface JobRepository extends JpaRepository<Job, Integer> {
                  "LEFT JOIN FETCH j.categories " +
                  "WHERE j.id IN :ids")
        List<Job> findByIdInWithDetails(@Param("ids") List<Integer> ids);
+
+       // Admin job table: filtered/sorted/paged in SQL, projected to the displayed columns only
+       @Query(value = "SELECT new com.example.JobFinder.dto.AdminJobRow(" +
+                 "j.id, j.title, j.status, j.quantity, j.deadline, j.createdAt, j.updatedAt, " +
+                 "e.id, e.companyName, u.email) " +
+                 "FROM Job j " +
+                 "LEFT JOIN j.employer e " +
+                 "LEFT JOIN e.user u " +
+                 "WHERE (:keyword IS NULL OR :keyword = '' OR " +
+                 "j.titleNormalized LIKE CONCAT('%', :keyword, '%') OR " +
+                 "e.companyNameNormalized LIKE CONCAT('%', :keyword, '%')) " +
+                 "AND (:status IS NULL OR :status = '' OR j.status = :status) " +
+                 "AND (:employerId IS NULL OR e.id = :employerId) " +
+                 "AND (:dateFrom IS NULL OR j.createdAt >= :dateFrom) " +
+                 "AND (:dateTo IS NULL OR j.createdAt <= :dateTo)",
+              countQuery = "SELECT COUNT(j) FROM Job j " +
+                 "LEFT JOIN j.employer e " +
+                 "WHERE (:keyword IS NULL OR :keyword = '' OR " +
+                 "j.titleNormalized LIKE CONCAT('%', :keyword, '%') OR " +
+                 "e.companyNameNormalized LIKE CONCAT('%', :keyword, '%')) " +
+                 "AND (:status IS NULL OR :status = '' OR j.status = :status) " +
+                 "AND (:employerId IS NULL OR e.id = :employerId) " +
+                 "AND (:dateFrom IS NULL OR j.createdAt >= :dateFrom) " +
+                 "AND (:dateTo IS NULL OR j.createdAt <= :dateTo)")
+       Page<AdminJobRow> findAdminJobRows(
+              @Param("keyword") String keyword,
+              @Param("status") String status,
+              @Param("employerId") Integer employerId,
+              @Param("dateFrom") LocalDateTime dateFrom,
+              @Param("dateTo") LocalDateTime dateTo,
+              Pageable pageable
+       );
+
+       // Stored view counters for a page of jobs as rows of [jobId, viewCount]
+       @Query("SELECT j.id, j.viewCount FROM Job j WHERE j.id IN :ids")
+       List<Object[]> findViewCountsByIds(@Param("ids") Collection<Integer> ids);
+
+       // Keyset scan over published job IDs (used to build in-memory indexes in batches)
+       @Query("SELECT j.id FROM Job j WHERE j.status = 'published' AND j.id > :afterId ORDER BY j.id ASC")
+       List<Integer> findPublishedIdsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 }
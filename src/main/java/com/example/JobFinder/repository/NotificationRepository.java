@@ -14,9 +14,28 @@ public interface NotificationRepository extends JpaRepository<Notification, Inte
 
     List<Notification> findByUserIdOrderByCreatedAtDesc(Integer userId, Pageable pageable);
 
-    long countByUserIdAndReadFalse(Integer userId);
+    // Chưa đọc = is_read = FALSE và nằm sau mốc đã đọc; quét khoảng trên (user_id, is_read, id)
+    @Query(value = """
+        SELECT COUNT(*) FROM notifications n
+        WHERE n.user_id = :userId AND n.is_read = FALSE
+          AND n.id > COALESCE((SELECT s.last_read_id FROM notification_read_state s WHERE s.user_id = :userId), 0)
+        """, nativeQuery = true)
+    long countUnread(@Param("userId") Integer userId);
+
+    @Query(value = "SELECT COALESCE(MAX(s.last_read_id), 0) FROM notification_read_state s WHERE s.user_id = :userId",
+        nativeQuery = true)
+    int findLastReadId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO notification_read_state (user_id, last_read_id, last_read_at)
+        VALUES (:userId, (SELECT COALESCE(MAX(n.id), 0) FROM notifications n WHERE n.user_id = :userId), CURRENT_TIMESTAMP)
+        ON DUPLICATE KEY UPDATE last_read_id = GREATEST(last_read_id, VALUES(last_read_id)),
+                                last_read_at = VALUES(last_read_at)
+        """, nativeQuery = true)
+    int advanceReadWatermark(@Param("userId") Integer userId);
 
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
-    int markAllAsRead(@Param("userId") Integer userId);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.user.id = :userId AND n.read = false")
+    int markAsRead(@Param("userId") Integer userId, @Param("id") Integer id);
 }
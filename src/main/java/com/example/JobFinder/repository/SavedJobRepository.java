@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,10 @@ public interface SavedJobRepository extends JpaRepository<SavedJob, Integer> {
     // Count saved jobs by candidate
     long countByCandidateId(Integer candidateId);
     
+    // Save counts for a page of jobs as rows of [jobId, count] (jobs nobody saved are absent)
+    @Query("SELECT sj.job.id, COUNT(sj) FROM SavedJob sj WHERE sj.job.id IN :jobIds GROUP BY sj.job.id")
+    List<Object[]> countByJobIds(@Param("jobIds") Collection<Integer> jobIds);
+    
     // Delete saved job by candidate and job
     void deleteByCandidateIdAndJobId(Integer candidateId, Integer jobId);
 }
@@ -4,6 +4,7 @@ import com.example.JobFinder.repository.ApplicationRepository;
 import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.EmployerRepository;
 import com.example.JobFinder.repository.JobRepository;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -12,12 +13,31 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Số liệu trang dashboard quản trị, giữ sẵn trong bộ nhớ.
+ *
+ * Snapshot được tính bằng vài truy vấn gom nhóm (jobs theo trạng thái, hồ sơ theo trạng thái kèm số 30 ngày,
+ * hai biểu đồ theo tháng, top nhà tuyển dụng) lúc khởi động, rồi làm mới định kỳ khi có thay đổi
+ * hoặc đã quá {@code max-age-ms}. Pipeline trạng thái hồ sơ được cộng/trừ ngay theo
+ * {@link ApplicationStatusChangedEvent} nên không phải chờ lần làm mới; mỗi lần làm mới đặt lại số chính xác.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AdminDashboardService {
 
     private static final List<String> PIPELINE_ORDER = List.of("applied", "viewed", "shortlisted", "rejected", "hired");
@@ -42,49 +62,174 @@ public class AdminDashboardService {
     private final EmployerRepository employerRepository;
     private final CandidateRepository candidateRepository;
 
+    // Snapshot được coi là cũ sau khoảng này dù không có thay đổi nào
+    @Value("${jobfinder.admin.dashboard.max-age-ms:900000}")
+    private long maxAgeMs;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+    private final Object refreshLock = new Object();
+
+    /**
+     * Số liệu tính sẵn cùng các bộ đếm theo trạng thái hồ sơ được cộng dồn từ sự kiện giữa hai lần làm mới.
+     */
+    private record Snapshot(
+        DashboardData base,
+        Map<String, AtomicLong> statusCounts,
+        AtomicLong applicationsLast30,
+        LocalDateTime refreshedAt
+    ) {}
+
+    /**
+     * Số liệu dashboard đọc từ snapshot trong bộ nhớ (chỉ lần đầu, khi chưa có snapshot, mới truy vấn).
+     * Các số theo trạng thái hồ sơ được cập nhật ngay theo sự kiện; phần còn lại cũ tối đa một chu kỳ làm mới,
+     * xem {@link DashboardData#ageSeconds()}.
+     */
     public DashboardData buildDashboardData() {
-        long totalJobs = jobRepository.count();
-        long activeJobs = jobRepository.countByStatus("published");
-        long totalApplications = applicationRepository.count();
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        long applicationsLast30 = applicationRepository.countSince(thirtyDaysAgo);
-        long shortlistedCount = applicationRepository.countByStatus("shortlisted");
-        long hiredCount = applicationRepository.countByStatus("hired");
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        return compose(current);
+    }
 
-        double interviewRate = totalApplications == 0 ? 0 : (shortlistedCount * 100d) / totalApplications;
-        double hireRate = totalApplications == 0 ? 0 : (hiredCount * 100d) / totalApplications;
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        CompletableFuture.runAsync(this::refresh)
+            .exceptionally(ex -> {
+                log.warn("Không thể tính số liệu dashboard: {}", ex.getMessage());
+                return null;
+            });
+    }
 
-        List<PipelineStatus> pipelineStatuses = buildPipelineStatuses();
-        List<MonthlyActivityPoint> monthlyActivity = buildMonthlyActivity();
-        List<FeaturedEmployerStats> featuredEmployers = buildFeaturedEmployers();
+    @Scheduled(fixedDelayString = "${jobfinder.admin.dashboard.refresh-ms:60000}", initialDelayString = "${jobfinder.admin.dashboard.refresh-ms:60000}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot;
+        boolean expired = current == null
+            || Duration.between(current.refreshedAt(), LocalDateTime.now()).toMillis() >= maxAgeMs;
+        if (!dirty && !expired) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Không thể làm mới số liệu dashboard: {}", ex.getMessage());
+        }
+    }
 
-        long employerCount = employerRepository.count();
-        long candidateCount = candidateRepository.count();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onApplicationStatusChanged(ApplicationStatusChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null || Objects.equals(event.previousStatus(), event.status())) {
+            return;
+        }
+        if (event.previousStatus() != null) {
+            current.statusCounts().computeIfAbsent(event.previousStatus(), key -> new AtomicLong()).decrementAndGet();
+        }
+        if (event.status() != null) {
+            current.statusCounts().computeIfAbsent(event.status(), key -> new AtomicLong()).incrementAndGet();
+        }
+        if (event.previousStatus() == null) {
+            current.applicationsLast30().incrementAndGet();
+        } else if (event.status() == null && isWithinLast30Days(current, event.appliedAt())) {
+            current.applicationsLast30().decrementAndGet();
+        }
+        // Biểu đồ theo tháng và nhà tuyển dụng nổi bật được tính lại ở lần làm mới kế tiếp
+        dirty = true;
+    }
+
+    // Cùng mốc với truy vấn lúc làm mới; hồ sơ trôi ra khỏi cửa sổ giữa hai lần làm mới được sửa khi làm mới
+    private static boolean isWithinLast30Days(Snapshot current, LocalDateTime appliedAt) {
+        return appliedAt != null && !appliedAt.isBefore(current.refreshedAt().minusDays(30));
+    }
 
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        dirty = true;
+    }
+
+    /**
+     * Tính lại toàn bộ snapshot bằng vài truy vấn gom nhóm; chỉ một luồng tính tại một thời điểm.
+     */
+    private Snapshot refresh() {
+        synchronized (refreshLock) {
+            dirty = false;
+            LocalDateTime now = LocalDateTime.now();
+
+            long totalJobs = 0;
+            long activeJobs = 0;
+            for (Object[] row : jobRepository.countGroupByStatus()) {
+                long count = ((Number) row[1]).longValue();
+                totalJobs += count;
+                if ("published".equals(row[0])) {
+                    activeJobs = count;
+                }
+            }
+
+            Map<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+            long applicationsLast30 = 0;
+            for (Object[] row : applicationRepository.countGroupByStatusWithRecent(now.minusDays(30))) {
+                String status = row[0] != null ? row[0].toString() : "";
+                statusCounts.put(status, new AtomicLong(((Number) row[1]).longValue()));
+                applicationsLast30 += row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            }
+
+            DashboardData base = new DashboardData(
+                totalJobs,
+                activeJobs,
+                0, 0, 0, 0, 0, 0,
+                employerRepository.count(),
+                candidateRepository.count(),
+                List.of(),
+                buildMonthlyActivity(),
+                buildFeaturedEmployers(),
+                now,
+                0
+            );
+            Snapshot fresh = new Snapshot(base, statusCounts, new AtomicLong(applicationsLast30), now);
+            snapshot = fresh;
+            return fresh;
+        }
+    }
+
+    private DashboardData compose(Snapshot current) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long totalApplications = 0;
+        for (Map.Entry<String, AtomicLong> entry : current.statusCounts().entrySet()) {
+            long count = Math.max(entry.getValue().get(), 0L);
+            counts.put(entry.getKey(), count);
+            totalApplications += count;
+        }
+        long shortlistedCount = counts.getOrDefault("shortlisted", 0L);
+        long hiredCount = counts.getOrDefault("hired", 0L);
+
+        double interviewRate = totalApplications == 0 ? 0 : (shortlistedCount * 100d) / totalApplications;
+        double hireRate = totalApplications == 0 ? 0 : (hiredCount * 100d) / totalApplications;
+
+        DashboardData base = current.base();
         return new DashboardData(
-            totalJobs,
-            activeJobs,
+            base.totalJobs(),
+            base.activeJobs(),
             totalApplications,
-            applicationsLast30,
+            current.applicationsLast30().get(),
             shortlistedCount,
             hiredCount,
             interviewRate,
             hireRate,
-            employerCount,
-            candidateCount,
-            pipelineStatuses,
-            monthlyActivity,
-            featuredEmployers
+            base.employerCount(),
+            base.candidateCount(),
+            buildPipelineStatuses(counts),
+            base.monthlyActivity(),
+            base.featuredEmployers(),
+            current.refreshedAt(),
+            Math.max(Duration.between(current.refreshedAt(), LocalDateTime.now()).toSeconds(), 0L)
         );
     }
 
-    private List<PipelineStatus> buildPipelineStatuses() {
-        Map<String, Long> counts = new LinkedHashMap<>();
+    private List<PipelineStatus> buildPipelineStatuses(Map<String, Long> counts) {
         long total = 0;
         for (String status : PIPELINE_ORDER) {
-            long count = applicationRepository.countByStatus(status);
-            counts.put(status, count);
-            total += count;
+            total += counts.getOrDefault(status, 0L);
         }
 
         List<PipelineStatus> result = new ArrayList<>();
@@ -192,7 +337,9 @@ public class AdminDashboardService {
         long candidateCount,
         List<PipelineStatus> pipelineStatuses,
         List<MonthlyActivityPoint> monthlyActivity,
-        List<FeaturedEmployerStats> featuredEmployers
+        List<FeaturedEmployerStats> featuredEmployers,
+        LocalDateTime refreshedAt,
+        long ageSeconds
     ) {}
 
     public record PipelineStatus(String key, String label, long count, double percentage, String color) {}
@@ -0,0 +1,15 @@
+package com.example.JobFinder.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Phát ra khi một hồ sơ ứng tuyển được tạo ({@code previousStatus} null), đổi trạng thái
+ * hoặc bị xóa/rút ({@code status} null). Dùng để cập nhật các số đếm giữ trong bộ nhớ.
+ * {@code appliedAt} là ngày nộp của hồ sơ khi tạo/xóa (để chỉnh số hồ sơ 30 ngày), null khi chỉ đổi trạng thái.
+ */
+public record ApplicationStatusChangedEvent(Integer applicationId, String previousStatus, String status, LocalDateTime appliedAt) {
+
+    public ApplicationStatusChangedEvent(Integer applicationId, String previousStatus, String status) {
+        this(applicationId, previousStatus, status, null);
+    }
+}
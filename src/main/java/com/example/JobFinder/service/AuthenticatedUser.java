@@ -0,0 +1,37 @@
+package com.example.JobFinder.service;
+
+import java.util.Collection;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Principal sau đăng nhập: ngoài email và quyền còn mang sẵn id người dùng, vai trò và id hồ sơ
+ * nhà tuyển dụng/ứng viên, để controller không phải tra lại người dùng theo email ở mỗi request.
+ * Được lưu trong session nên chỉ giữ các giá trị không đổi theo thời gian (id, vai trò).
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Integer userId;
+    private final String roleKey;
+    private final Integer employerId;
+    private final Integer candidateId;
+
+    public AuthenticatedUser(String email, String password, Collection<? extends GrantedAuthority> authorities,
+                             Integer userId, String roleKey, Integer employerId, Integer candidateId) {
+        super(email, password != null ? password : "", authorities);
+        this.userId = userId;
+        this.roleKey = roleKey;
+        this.employerId = employerId;
+        this.candidateId = candidateId;
+    }
+
+    public boolean isCandidate() {
+        return "candidate".equals(roleKey);
+    }
+
+    public boolean isEmployer() {
+        return "employer".equals(roleKey);
+    }
+}
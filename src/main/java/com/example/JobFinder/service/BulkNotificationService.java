@@ -0,0 +1,193 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.model.Job;
+import com.example.JobFinder.model.Notification;
+import com.example.JobFinder.service.EmailService.OutgoingEmail;
+import com.example.JobFinder.service.NotificationService.NotificationView;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+/**
+ * Gửi cùng một thông báo (và thư) tới nhiều người nhận, ví dụ mọi ứng viên của một tin bị đóng/xóa.
+ *
+ * Người nhận được đọc theo từng lô {@code batch-size} (keyset theo id, không giữ cả danh sách trong bộ nhớ);
+ * mỗi lô ghi notifications và email_outbox bằng JDBC batch, driver gộp thành INSERT nhiều dòng
+ * (rewriteBatchedStatements). Chạy trong giao dịch của nơi gọi, nên phải gọi trước khi xóa tin.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkNotificationService {
+
+    private static final String RECIPIENT_COLUMNS = "u.id AS user_id, u.email, u.name";
+    private static final RowMapper<Recipient> RECIPIENT_MAPPER = (rs, rowNum) ->
+        new Recipient(rs.getInt("user_id"), rs.getString("email"), rs.getString("name"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${jobfinder.notifications.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Nội dung gửi hàng loạt; {@code emailSubject} rỗng thì chỉ tạo thông báo, không gửi thư.
+     */
+    public record BulkMessage(String title, String message, String icon, String emailSubject, String emailText) {
+    }
+
+    record Recipient(int userId, String email, String name) {
+    }
+
+    public static BulkMessage jobClosed(Job job) {
+        String jobTitle = jobTitle(job);
+        String employer = employerName(job);
+        return new BulkMessage(
+            "Tin tuyển dụng đã đóng",
+            employer + " đã ngừng nhận hồ sơ cho vị trí " + jobTitle + ".",
+            "fa-circle-xmark",
+            "[JobFinder] Vị trí " + jobTitle + " đã ngừng tuyển",
+            employer + " đã đóng tin tuyển dụng bạn ứng tuyển.\nVị trí: " + jobTitle
+                + "\n\nHồ sơ của bạn vẫn được lưu trong mục Việc làm đã ứng tuyển.");
+    }
+
+    public static BulkMessage jobRemoved(Job job) {
+        String jobTitle = jobTitle(job);
+        String employer = employerName(job);
+        return new BulkMessage(
+            "Tin tuyển dụng đã bị gỡ",
+            "Vị trí " + jobTitle + " của " + employer + " không còn trên JobFinder.",
+            "fa-trash-can",
+            "[JobFinder] Vị trí " + jobTitle + " không còn nhận hồ sơ",
+            "Tin tuyển dụng bạn ứng tuyển đã bị gỡ khỏi JobFinder.\nVị trí: " + jobTitle
+                + "\nCông ty: " + employer + "\n\nHãy khám phá các việc làm tương tự trên JobFinder.");
+    }
+
+    /**
+     * Thông báo tới ứng viên còn đang chờ kết quả của tin (bỏ qua hồ sơ đã từ chối, đã nhận, đã rút).
+     * Trả về số người nhận.
+     */
+    @Transactional
+    public int notifyJobApplicants(Integer jobId, BulkMessage message) {
+        if (jobId == null) {
+            return 0;
+        }
+        int total = 0;
+        int lastApplicationId = 0;
+        while (true) {
+            List<Integer> applicationIds = new ArrayList<>();
+            List<Recipient> chunk = jdbcTemplate.query("""
+                    SELECT a.id AS application_id, %s
+                    FROM applications a
+                    JOIN candidates c ON c.id = a.candidate_id
+                    JOIN users u ON u.id = c.user_id
+                    WHERE a.job_id = ? AND a.id > ? AND a.status NOT IN ('rejected', 'hired', 'withdrawn')
+                    ORDER BY a.id
+                    LIMIT ?
+                    """.formatted(RECIPIENT_COLUMNS),
+                (rs, rowNum) -> {
+                    applicationIds.add(rs.getInt("application_id"));
+                    return RECIPIENT_MAPPER.mapRow(rs, rowNum);
+                },
+                jobId, lastApplicationId, batchSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            deliver(chunk, message);
+            total += chunk.size();
+            lastApplicationId = applicationIds.get(applicationIds.size() - 1);
+            if (chunk.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Đã gửi thông báo '{}' tới {} ứng viên của tin {}", message.title(), total, jobId);
+        }
+        return total;
+    }
+
+    /**
+     * Thông báo tới một tập người dùng; id không tồn tại được bỏ qua. Trả về số người nhận.
+     */
+    @Transactional
+    public int notifyUsers(Collection<Integer> userIds, BulkMessage message) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = userIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        int total = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Integer> slice = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(slice.size(), "?"));
+            List<Recipient> chunk = jdbcTemplate.query(
+                "SELECT " + RECIPIENT_COLUMNS + " FROM users u WHERE u.id IN (" + placeholders + ") ORDER BY u.id",
+                RECIPIENT_MAPPER, slice.toArray());
+            if (!chunk.isEmpty()) {
+                deliver(chunk, message);
+                total += chunk.size();
+            }
+        }
+        return total;
+    }
+
+    private void deliver(List<Recipient> chunk, BulkMessage message) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO notifications (user_id, title, message, icon_path, is_read) VALUES (?, ?, ?, ?, FALSE)",
+            chunk, chunk.size(), (ps, recipient) -> {
+                ps.setInt(1, recipient.userId());
+                ps.setString(2, message.title());
+                ps.setString(3, message.message());
+                ps.setString(4, message.icon());
+            });
+
+        if (StringUtils.hasText(message.emailSubject())) {
+            List<OutgoingEmail> emails = new ArrayList<>(chunk.size());
+            for (Recipient recipient : chunk) {
+                emails.add(new OutgoingEmail(recipient.email(), message.emailSubject(), emailBody(recipient, message)));
+            }
+            emailService.sendAll(emails);
+        }
+
+        // Cùng một bản hiển thị cho mọi người nhận; các listener chạy sau commit
+        NotificationView view = notificationService.toView(Notification.builder()
+            .title(message.title())
+            .message(message.message())
+            .iconPath(message.icon())
+            .createdAt(LocalDateTime.now())
+            .build(), 0);
+        for (Recipient recipient : chunk) {
+            eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(recipient.userId()));
+            eventPublisher.publishEvent(new NotificationCreatedEvent(recipient.userId(), view));
+        }
+    }
+
+    private static String emailBody(Recipient recipient, BulkMessage message) {
+        String name = StringUtils.hasText(recipient.name()) ? recipient.name().trim() : "bạn";
+        return "Chào " + name + ",\n\n" + message.emailText() + "\n\nJobFinder Team";
+    }
+
+    private static String jobTitle(Job job) {
+        return job != null && StringUtils.hasText(job.getTitle()) ? job.getTitle().trim() : "một vị trí đang tuyển";
+    }
+
+    private static String employerName(Job job) {
+        if (job == null || job.getEmployer() == null || !StringUtils.hasText(job.getEmployer().getCompanyName())) {
+            return "Nhà tuyển dụng";
+        }
+        return job.getEmployer().getCompanyName().trim();
+    }
+}
@@ -1,199 +1,174 @@
 package com.example.JobFinder.service;
 
+import com.example.JobFinder.dto.AdminCandidateRow;
 import com.example.JobFinder.model.Candidate;
 import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.CandidateRepository;
-import com.example.JobFinder.repository.UserRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.JobFinder.repository.CandidateSkillRepository;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CandidateAdminService {
 
+    private static final int PAGE_SIZE = 20;
+    private static final int DISPLAY_SKILLS = 4;
+
     private final CandidateRepository candidateRepository;
-    private final UserRepository userRepository;
-    private final ObjectMapper objectMapper;
+    private final CandidateSkillRepository candidateSkillRepository;
+    private final CandidateSkillSearchIndex candidateSkillSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
 
-    public Map<String, Object> getCandidatesList(String keyword, String location, String skill, String cvStatus) {
-        // Get all users with role_id = 3 (candidates)
-        List<User> candidateUsers = userRepository.findByRoleId(Integer.valueOf(3));
-        
-        List<Map<String, Object>> candidates = new ArrayList<>();
-        
-        for (User user : candidateUsers) {
-            Optional<Candidate> candidateOpt = candidateRepository.findByUserId(user.getId());
-            
-            // Apply filters
-            if (!matchesFilters(user, candidateOpt.orElse(null), keyword, location, skill, cvStatus)) {
-                continue;
+    /**
+     * Danh sách ứng viên cho trang quản trị: lọc, phân trang và thống kê đều chạy trong SQL;
+     * kỹ năng hiển thị lấy từ candidate_skills bằng một truy vấn cho cả trang.
+     * Ứng viên khớp kỹ năng được nạp vào bảng tạm candidate_skill_matches (cùng kết nối, nên cần giao dịch)
+     * thay cho danh sách IN; khi chỉ lọc theo kỹ năng, tổng số và trang được cắt thẳng từ mảng user_id.
+     */
+    @Transactional
+    public Map<String, Object> getCandidatesList(String keyword, String location, String skill, String cvStatus, int page) {
+        String normalizedKeyword = VietnameseTextAnalyzer.normalize(keyword);
+        String cvFilter = "has".equals(cvStatus) || "missing".equals(cvStatus) ? cvStatus : "";
+
+        // Kỹ năng: giao posting list trong chỉ mục (hỗ trợ "java, react | vue"); chưa sẵn sàng thì so tên chuẩn
+        // trên candidate_skills với cùng cú pháp
+        Optional<int[]> skillMatches = skill.isBlank() ? Optional.empty()
+            : candidateSkillSearchIndex.search(skill).or(() -> candidateSkillSearchIndex.searchStored(skill));
+        boolean skillMatched = skillMatches.isPresent();
+        int[] matchedUserIds = skillMatches.orElse(new int[0]);
+        boolean skillOnly = skillMatched && keyword.isBlank() && location.isBlank() && cvFilter.isEmpty();
+
+        Object[] totals = new Object[3];
+        List<AdminCandidateRow> rows = Collections.emptyList();
+        int safePage = 1;
+        int totalPages = 1;
+        if (!skillMatched || matchedUserIds.length > 0) {
+            // Truy vấn luôn tham chiếu bảng tạm (MySQL phân giải tên bảng khi chuẩn bị câu lệnh), kể cả khi rỗng
+            loadSkillMatches(matchedUserIds);
+            try {
+                List<Object[]> statsRows = candidateRepository.countAdminCandidateStats(
+                    keyword, normalizedKeyword, location, skillMatched, cvFilter, LocalDateTime.now().minusDays(30));
+                if (!statsRows.isEmpty()) {
+                    totals = statsRows.get(0);
+                }
+                long total = skillOnly ? matchedUserIds.length : toLong(totals[0]);
+                totalPages = Math.max((int) Math.ceil((double) total / PAGE_SIZE), 1);
+                safePage = Math.min(Math.max(page, 1), totalPages);
+                if (skillOnly) {
+                    rows = candidateRepository.findAdminCandidateRowsByUserIds(pageOfUserIds(matchedUserIds, safePage));
+                } else if (total > 0) {
+                    rows = candidateRepository.findAdminCandidateRows(
+                        keyword, normalizedKeyword, location, skillMatched, cvFilter,
+                        PageRequest.of(safePage - 1, PAGE_SIZE));
+                }
+            } finally {
+                jdbcTemplate.execute("DROP TEMPORARY TABLE IF EXISTS candidate_skill_matches");
             }
-            
+        }
+        long totalCandidates = skillOnly ? matchedUserIds.length : toLong(totals[0]);
+
+        Map<Integer, List<String>> topSkills = loadTopSkills(rows);
+        List<Map<String, Object>> candidates = new ArrayList<>(rows.size());
+        for (AdminCandidateRow row : rows) {
             Map<String, Object> candidateData = new HashMap<>();
-            candidateData.put("user_id", user.getId());
-            candidateData.put("email", user.getEmail());
-            candidateData.put("full_name", user.getName() != null ? user.getName() : "Ứng viên JobFind");
-            candidateData.put("user_created_at", user.getCreatedAt());
-            
-            if (candidateOpt.isPresent()) {
-                Candidate candidate = candidateOpt.get();
-                candidateData.put("candidate_id", candidate.getId());
-                candidateData.put("headline", candidate.getHeadline() != null ? candidate.getHeadline() : "Chưa cập nhật");
-                candidateData.put("location", candidate.getLocation() != null ? candidate.getLocation() : "Chưa cập nhật");
-                candidateData.put("cv_path", candidate.getCvPath());
-                candidateData.put("cv_updated_at", candidate.getUpdatedAt());
-                candidateData.put("profile_picture", candidate.getProfilePicture());
-                
-                // Parse skills JSON to get first few skills
-                List<String> skillList = parseSkills(candidate.getSkills());
-                candidateData.put("skills_list", skillList);
-                candidateData.put("skills_display_list", getTopSkills(skillList, 4));
-                
-                List<Map<String, Object>> experienceList = parseExperience(candidate.getExperience());
-                candidateData.put("experience_list", experienceList);
-                candidateData.put("experience_count", experienceList.size());
-                candidateData.put("experience_summary", experienceList.isEmpty()
-                    ? "Chưa cập nhật"
-                    : experienceList.size() + " vị trí");
-            } else {
-                candidateData.put("candidate_id", null);
-                candidateData.put("headline", "Chưa cập nhật");
-                candidateData.put("location", "Chưa cập nhật");
-                candidateData.put("cv_path", null);
-                candidateData.put("cv_updated_at", null);
-                candidateData.put("skills_list", Collections.emptyList());
-                candidateData.put("skills_display_list", Collections.emptyList());
-                candidateData.put("experience_list", Collections.emptyList());
-                candidateData.put("experience_count", 0);
-                candidateData.put("experience_summary", "Chưa cập nhật");
-            }
-            
+            candidateData.put("user_id", row.userId());
+            candidateData.put("email", row.email());
+            candidateData.put("full_name", row.name() != null ? row.name() : "Ứng viên JobFind");
+            candidateData.put("user_created_at", row.userCreatedAt());
+            candidateData.put("candidate_id", row.candidateId());
+            candidateData.put("headline", row.headline() != null ? row.headline() : "Chưa cập nhật");
+            candidateData.put("location", row.location() != null ? row.location() : "Chưa cập nhật");
+            candidateData.put("cv_path", row.cvPath());
+            candidateData.put("cv_updated_at", row.cvUpdatedAt());
+            candidateData.put("profile_picture", row.profilePicture());
+            candidateData.put("skills_display_list", topSkills.getOrDefault(row.candidateId(), Collections.emptyList()));
+
+            int experienceCount = row.experienceCount() != null ? row.experienceCount() : 0;
+            candidateData.put("experience_count", experienceCount);
+            candidateData.put("experience_summary", experienceCount == 0 ? "Chưa cập nhật" : experienceCount + " vị trí");
             candidates.add(candidateData);
         }
-        
-        // Calculate stats
-        Map<String, Object> stats = calculateStats(candidates);
-        
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalCandidates", totalCandidates);
+        stats.put("withCv", toLong(totals[1]));
+        stats.put("recentCv", toLong(totals[2]));
+
         Map<String, Object> result = new HashMap<>();
         result.put("candidates", candidates);
         result.put("stats", stats);
-        
+        result.put("currentPage", safePage);
+        result.put("totalPages", totalPages);
+
         return result;
     }
 
-    private boolean matchesFilters(User user, Candidate candidate, String keyword, String location, String skill, String cvStatus) {
-        // Keyword filter (name or email)
-        if (!keyword.isEmpty()) {
-            String lowerKeyword = keyword.toLowerCase();
-            boolean matchesName = user.getName() != null && user.getName().toLowerCase().contains(lowerKeyword);
-            boolean matchesEmail = user.getEmail().toLowerCase().contains(lowerKeyword);
-            boolean matchesHeadline = candidate != null && candidate.getHeadline() != null && 
-                candidate.getHeadline().toLowerCase().contains(lowerKeyword);
-            
-            if (!matchesName && !matchesEmail && !matchesHeadline) {
-                return false;
-            }
-        }
-        
-        // Location filter
-        if (!location.isEmpty() && candidate != null) {
-            if (candidate.getLocation() == null || !candidate.getLocation().toLowerCase().contains(location.toLowerCase())) {
-                return false;
-            }
+    /**
+     * Bảng tạm sống theo kết nối nên được làm rỗng trước khi điền; batch được driver gộp thành INSERT nhiều dòng.
+     * CREATE/DROP TEMPORARY TABLE không tự commit giao dịch.
+     */
+    private void loadSkillMatches(int[] userIds) {
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE IF NOT EXISTS candidate_skill_matches (user_id INT PRIMARY KEY)");
+        jdbcTemplate.execute("DELETE FROM candidate_skill_matches");
+        if (userIds.length == 0) {
+            return;
         }
-        
-        // Skill filter
-        if (!skill.isEmpty() && candidate != null) {
-            List<String> skills = parseSkills(candidate.getSkills());
-            boolean hasSkill = skills.stream().anyMatch(s -> s.toLowerCase().contains(skill.toLowerCase()));
-            if (!hasSkill) {
-                return false;
-            }
-        }
-        
-        // CV status filter
-        if (!cvStatus.isEmpty()) {
-            boolean hasCv = candidate != null && candidate.getCvPath() != null && !candidate.getCvPath().isEmpty();
-            if ("has".equals(cvStatus) && !hasCv) {
-                return false;
-            }
-            if ("missing".equals(cvStatus) && hasCv) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
+        jdbcTemplate.batchUpdate("INSERT INTO candidate_skill_matches (user_id) VALUES (?)",
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setInt(1, userIds[i]);
+                }
 
-    private List<String> parseSkills(String skillsJson) {
-        if (skillsJson == null || skillsJson.trim().isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        try {
-            List<String> skills = objectMapper.readValue(skillsJson, new TypeReference<List<String>>() {});
-            return skills.stream()
-                .filter(s -> s != null && !s.trim().isEmpty())
-                .map(String::trim)
-                .collect(Collectors.toList());
-        } catch (Exception e) {
-            return Collections.emptyList();
-        }
+                @Override
+                public int getBatchSize() {
+                    return userIds.length;
+                }
+            });
     }
 
-    private List<String> getTopSkills(List<String> skills, int limit) {
-        if (skills.isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * user_id của một trang theo thứ tự mới nhất trước (ORDER BY u.id DESC) từ mảng tăng dần.
+     */
+    static List<Integer> pageOfUserIds(int[] userIds, int page) {
+        int to = userIds.length - (page - 1) * PAGE_SIZE;
+        int from = Math.max(to - PAGE_SIZE, 0);
+        List<Integer> ids = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = to - 1; i >= from; i--) {
+            ids.add(userIds[i]);
         }
-        int actualLimit = Math.min(limit, skills.size());
-        return new ArrayList<>(skills.subList(0, actualLimit));
+        return ids;
     }
 
-    private List<Map<String, Object>> parseExperience(String experienceJson) {
-        if (experienceJson == null || experienceJson.trim().isEmpty()) {
-            return Collections.emptyList();
+    private Map<Integer, List<String>> loadTopSkills(List<AdminCandidateRow> rows) {
+        List<Integer> candidateIds = rows.stream()
+            .map(AdminCandidateRow::candidateId)
+            .filter(Objects::nonNull)
+            .toList();
+        if (candidateIds.isEmpty()) {
+            return Collections.emptyMap();
         }
-        try {
-            return objectMapper.readValue(experienceJson, new TypeReference<List<Map<String, Object>>>() {});
-        } catch (Exception e) {
-            return Collections.emptyList();
+        Map<Integer, List<String>> skills = new HashMap<>();
+        for (Object[] row : candidateSkillRepository.findTopSkillsByCandidateIds(candidateIds, DISPLAY_SKILLS)) {
+            skills.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((String) row[1]);
         }
+        return skills;
     }
 
-    private Map<String, Object> calculateStats(List<Map<String, Object>> candidates) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        int totalCandidates = candidates.size();
-        int withCv = 0;
-        int recentCv = 0;
-        
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        
-        for (Map<String, Object> candidate : candidates) {
-            String cvPath = (String) candidate.get("cv_path");
-            LocalDateTime cvUpdatedAt = (LocalDateTime) candidate.get("cv_updated_at");
-            
-            if (cvPath != null && !cvPath.isEmpty()) {
-                withCv++;
-                
-                if (cvUpdatedAt != null && cvUpdatedAt.isAfter(thirtyDaysAgo)) {
-                    recentCv++;
-                }
-            }
-        }
-        
-        stats.put("totalCandidates", totalCandidates);
-        stats.put("withCv", withCv);
-        stats.put("recentCv", recentCv);
-        
-        return stats;
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
     }
 
     public Map<String, Object> prepareCandidateData(User user, Candidate candidate) {
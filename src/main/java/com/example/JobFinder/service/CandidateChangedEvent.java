@@ -0,0 +1,8 @@
+package com.example.JobFinder.service;
+
+/**
+ * Phát ra sau khi hồ sơ ứng viên được lưu hoặc tài khoản ứng viên bị xóa.
+ * Các thành phần giữ dữ liệu trong bộ nhớ (chỉ mục kỹ năng...) lắng nghe để đồng bộ lại.
+ */
+public record CandidateChangedEvent(Integer userId) {
+}
@@ -4,18 +4,16 @@ import com.example.JobFinder.model.Candidate;
 import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.UploadStorageService.UploadKind;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -30,24 +28,9 @@ public class CandidateProfileService {
     private final CandidateRepository candidateRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
-
-    private static final String UPLOAD_DIR = "uploads/";
-    private static final String CV_DIR = UPLOAD_DIR + "cv/";
-    private static final String AVATAR_DIR = UPLOAD_DIR + "avatars/";
-    private static final long MAX_CV_SIZE = 5 * 1024 * 1024; // 5MB
-    private static final long MAX_AVATAR_SIZE = 2 * 1024 * 1024; // 2MB
-    private static final List<String> ALLOWED_CV_TYPES = Arrays.asList(
-        "application/pdf",
-        "application/msword",
-        "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
-    );
-    private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
-        "image/jpeg",
-        "image/jpg",
-        "image/png",
-        "image/gif",
-        "image/webp"
-    );
+    private final CandidateSkillIndex candidateSkillIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UploadStorageService uploadStorageService;
 
     /**
      * Lấy profile ứng viên theo thứ tự ưu tiên
@@ -142,13 +125,12 @@ public class CandidateProfileService {
 
         // Xử lý avatar
         if (removeAvatar && user.getAvatarPath() != null) {
-            deleteFile(user.getAvatarPath());
+            uploadStorageService.release(user.getAvatarPath());
             user.setAvatarPath(null);
         } else if (avatar != null && !avatar.isEmpty()) {
-            validateImageFile(avatar);
-            String avatarPath = saveFile(avatar, AVATAR_DIR, "avatar");
+            String avatarPath = uploadStorageService.store(avatar, UploadKind.AVATAR);
             if (user.getAvatarPath() != null) {
-                deleteFile(user.getAvatarPath());
+                uploadStorageService.release(user.getAvatarPath());
             }
             user.setAvatarPath(avatarPath);
         }
@@ -193,11 +175,15 @@ public class CandidateProfileService {
         if (experience != null && !experience.trim().isEmpty()) {
             List<Map<String, String>> experienceList = parseExperienceInput(experience);
             candidate.setExperience(objectMapper.writeValueAsString(experienceList));
+            candidate.setExperienceCount(experienceList.size());
         } else {
             candidate.setExperience(null);
+            candidate.setExperienceCount(0);
         }
 
         candidateRepository.save(candidate);
+        candidateSkillIndex.reindexSkills(candidate.getId(), candidate.getSkills());
+        eventPublisher.publishEvent(new CandidateChangedEvent(user.getId()));
     }
 
     /**
@@ -205,93 +191,20 @@ public class CandidateProfileService {
      */
     @Transactional
     public void uploadCv(User user, MultipartFile cvFile) throws IOException {
-        validateCvFile(cvFile);
-
         Candidate candidate = candidateRepository.findByUserId(user.getId())
             .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy hồ sơ ứng viên"));
 
-        String cvPath = saveFile(cvFile, CV_DIR, "cv");
+        String cvPath = uploadStorageService.store(cvFile, UploadKind.CV);
         
-        // Xóa CV cũ nếu có
+        // Bỏ tham chiếu tới CV cũ nếu có
         if (candidate.getCvPath() != null) {
-            deleteFile(candidate.getCvPath());
+            uploadStorageService.release(candidate.getCvPath());
         }
 
         candidate.setCvPath(cvPath);
         candidateRepository.save(candidate);
     }
 
-    /**
-     * Validate CV file
-     */
-    private void validateCvFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("Vui lòng chọn tệp CV");
-        }
-
-        if (file.getSize() > MAX_CV_SIZE) {
-            throw new IllegalArgumentException("Kích thước tệp CV vượt quá 5MB");
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_CV_TYPES.contains(contentType)) {
-            throw new IllegalArgumentException("Chỉ chấp nhận định dạng PDF, DOC hoặc DOCX");
-        }
-    }
-
-    /**
-     * Validate image file
-     */
-    private void validateImageFile(MultipartFile file) throws IOException {
-        if (file.getSize() > MAX_AVATAR_SIZE) {
-            throw new IOException("Kích thước ảnh vượt quá 2MB");
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType)) {
-            throw new IOException("Chỉ chấp nhận định dạng JPG, PNG, GIF hoặc WEBP");
-        }
-    }
-
-    /**
-     * Lưu file
-     */
-    private String saveFile(MultipartFile file, String directory, String prefix) throws IOException {
-        // Tạo thư mục nếu chưa có
-        Path uploadPath = Paths.get(directory);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Tạo tên file unique
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        String filename = prefix + "_" + System.currentTimeMillis() + "_" + 
-                         UUID.randomUUID().toString().substring(0, 8) + extension;
-
-        // Lưu file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return directory + filename;
-    }
-
-    /**
-     * Xóa file
-     */
-    private void deleteFile(String filePath) {
-        try {
-            Path path = Paths.get(filePath);
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            // Log error but don't throw
-            System.err.println("Could not delete file: " + filePath);
-        }
-    }
-
     /**
      * Parse experience input từ textarea
      * Format: "Title | Company | YYYY-MM | YYYY-MM | Description"
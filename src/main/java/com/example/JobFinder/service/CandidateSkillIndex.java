@@ -0,0 +1,145 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Giữ bảng candidate_skills và cột candidates.experience_count khớp với JSON skills/experience của hồ sơ,
+ * để danh sách ứng viên lọc theo kỹ năng bằng chỉ mục thay vì parse JSON từng dòng mỗi lần tải trang.
+ * Hồ sơ được ghi lại khi lưu (experience_count do entity tự ghi); dữ liệu cũ (experience_count còn NULL)
+ * được điền lúc khởi động.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateSkillIndex {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_SKILL_LENGTH = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CandidateSkillSearchIndex skillSearchIndex;
+
+    @Value("${jobfinder.candidates.skill-index.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    /**
+     * Dạng so khớp của một kỹ năng: bỏ dấu, chữ thường, gộp khoảng trắng; giữ ký hiệu như "c++", "c#".
+     */
+    public static String normalizeSkill(String skill) {
+        if (skill == null) {
+            return "";
+        }
+        return VietnameseTextAnalyzer.fold(skill.trim()).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Ghi lại kỹ năng của một hồ sơ; gọi trong giao dịch lưu hồ sơ.
+     */
+    public void reindexSkills(Integer candidateId, String skillsJson) {
+        jdbcTemplate.update("DELETE FROM candidate_skills WHERE candidate_id = ?", candidateId);
+        List<Object[]> rows = skillRows(candidateId, parseList(skillsJson));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO candidate_skills (candidate_id, skill, skill_normalized, skill_canonical, position) "
+                    + "VALUES (?, ?, ?, ?, ?)",
+                rows);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillEnabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::backfill)
+            .exceptionally(ex -> {
+                log.warn("Không thể dựng chỉ mục kỹ năng ứng viên: {}", ex.getMessage());
+                return null;
+            });
+    }
+
+    /**
+     * Điền các hồ sơ chưa được lập chỉ mục, quét theo id từng lô; mỗi lô một giao dịch nên chạy lại an toàn.
+     */
+    public int backfill() {
+        int indexed = 0;
+        int lastId = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(
+                "SELECT id, skills, experience FROM candidates " +
+                    "WHERE experience_count IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new Object[] {rs.getInt("id"), rs.getString("skills"), rs.getString("experience")},
+                lastId, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(row -> {
+                reindexSkills((Integer) row[0], (String) row[1]);
+                jdbcTemplate.update("UPDATE candidates SET experience_count = ? WHERE id = ?",
+                    parseList((String) row[2]).size(), row[0]);
+            }));
+            indexed += batch.size();
+            lastId = (Integer) batch.get(batch.size() - 1)[0];
+        }
+        if (indexed > 0) {
+            log.info("Đã lập chỉ mục kỹ năng cho {} hồ sơ ứng viên", indexed);
+        }
+        return indexed;
+    }
+
+    private List<Object[]> skillRows(Integer candidateId, List<Object> skills) {
+        // Bỏ kỹ năng trùng sau chuẩn hóa, giữ thứ tự nhập để hiển thị "kỹ năng nổi bật"
+        Map<String, String> unique = new LinkedHashMap<>();
+        for (Object value : skills) {
+            if (value == null) {
+                continue;
+            }
+            String skill = value.toString().trim();
+            if (skill.length() > MAX_SKILL_LENGTH) {
+                skill = skill.substring(0, MAX_SKILL_LENGTH);
+            }
+            String normalized = normalizeSkill(skill);
+            if (!normalized.isEmpty()) {
+                unique.putIfAbsent(normalized, skill);
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(unique.size());
+        int position = 0;
+        for (Map.Entry<String, String> entry : unique.entrySet()) {
+            // Tên chuẩn theo SkillDictionary để truy vấn dự phòng gộp bí danh giống chỉ mục trong bộ nhớ
+            String canonical = skillSearchIndex.canonicalize(entry.getValue());
+            rows.add(new Object[] {candidateId, entry.getValue(), entry.getKey(), canonical, position++});
+        }
+        return rows;
+    }
+
+    private List<Object> parseList(String json) {
+        if (json == null || json.isBlank()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Object> values = objectMapper.readValue(json, new TypeReference<List<Object>>() {});
+            return values != null ? values : Collections.emptyList();
+        } catch (Exception e) {
+            return Collections.emptyList();
+        }
+    }
+}
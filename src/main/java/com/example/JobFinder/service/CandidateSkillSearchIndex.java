@@ -0,0 +1,368 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.util.SkillDictionary;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Chỉ mục đảo ngược kỹ năng → ứng viên trong bộ nhớ, dùng cho tìm ứng viên theo nhiều kỹ năng.
+ *
+ * Kỹ năng trong candidate_skills được gộp về tên chuẩn qua {@link SkillDictionary} (skills/dictionary.txt),
+ * mỗi tên chuẩn giữ posting list là mảng user_id đã sắp xếp. Truy vấn dạng {@code "java, react | vue"}:
+ * dấu phẩy là AND, dấu {@code |} là OR trong một vế; các vế OR được hợp lại rồi giao theo thứ tự từ
+ * list ngắn nhất, mỗi phần tử chỉ tìm nhị phân trong các list còn lại.
+ * Hồ sơ được cập nhật sau khi giao dịch lưu commit ({@link CandidateChangedEvent}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateSkillSearchIndex {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final String DICTIONARY_PATH = "skills/dictionary.txt";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jobfinder.candidates.skill-search.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, String[]> skillsByUser = new HashMap<>();
+    // Nạp ngay khi tạo bean để CandidateSkillIndex ghi skill_canonical đúng cả trước lần dựng đầu tiên
+    private volatile SkillDictionary dictionary = loadDictionary();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuild)
+            .exceptionally(ex -> {
+                log.error("Không thể dựng chỉ mục kỹ năng ứng viên", ex);
+                return null;
+            });
+    }
+
+    /**
+     * Nạp lại từ điển và dựng lại toàn bộ chỉ mục, quét ứng viên theo user_id từng lô.
+     * Trong lúc dựng, search() trả về rỗng để nơi gọi dùng truy vấn SQL.
+     */
+    public void rebuild() {
+        ready = false;
+        long started = System.currentTimeMillis();
+        dictionary = loadDictionary();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            skillsByUser.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int lastUserId = 0;
+        while (true) {
+            List<Integer> userIds = jdbcTemplate.queryForList(
+                "SELECT user_id FROM candidates WHERE user_id > ? ORDER BY user_id LIMIT ?",
+                Integer.class, lastUserId, BUILD_BATCH_SIZE);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Map<Integer, List<String>> batch = loadSkills(userIds.get(0), userIds.get(userIds.size() - 1));
+            lock.writeLock().lock();
+            try {
+                // user_id tăng dần nên phần lớn lần thêm là nối vào cuối posting list
+                batch.forEach(this::putUser);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastUserId = userIds.get(userIds.size() - 1);
+        }
+
+        ready = true;
+        log.info("Đã dựng chỉ mục kỹ năng: {} ứng viên, {} kỹ năng trong {} ms",
+            skillsByUser.size(), postings.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCandidateChanged(CandidateChangedEvent event) {
+        if (!enabled || event.userId() == null) {
+            return;
+        }
+        List<String> skills = loadSkills(event.userId(), event.userId())
+            .getOrDefault(event.userId(), List.of());
+        lock.writeLock().lock();
+        try {
+            removeUser(event.userId());
+            putUser(event.userId(), skills);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tên chuẩn của một kỹ năng theo từ điển hiện tại.
+     */
+    public String canonicalize(String skill) {
+        return dictionary.canonicalize(skill);
+    }
+
+    /**
+     * user_id (tăng dần) của các ứng viên khớp truy vấn kỹ năng.
+     * Trả về Optional.empty() khi chỉ mục chưa sẵn sàng hoặc truy vấn không có kỹ năng nào.
+     */
+    public Optional<int[]> search(String query) {
+        List<List<String>> clauses = parseQuery(query);
+        if (!enabled || !ready || clauses.isEmpty()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<int[]> lists = new ArrayList<>(clauses.size());
+            for (List<String> clause : clauses) {
+                int[] matches = union(clause);
+                if (matches.length == 0) {
+                    return Optional.of(matches);
+                }
+                lists.add(matches);
+            }
+            return Optional.of(intersect(lists));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cùng cú pháp và cùng tên chuẩn với {@link #search} nhưng so khớp bằng skill_canonical trong bảng
+     * candidate_skills, dùng khi chỉ mục chưa sẵn sàng: mỗi vế AND một truy vấn IN, kết quả giao trong bộ nhớ.
+     * Trả về Optional.empty() khi truy vấn không có kỹ năng nào.
+     */
+    public Optional<int[]> searchStored(String query) {
+        List<List<String>> clauses = parseQuery(query);
+        if (clauses.isEmpty()) {
+            return Optional.empty();
+        }
+        List<int[]> lists = new ArrayList<>(clauses.size());
+        for (List<String> clause : clauses) {
+            String placeholders = String.join(", ", Collections.nCopies(clause.size(), "?"));
+            int[] matches = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT c.user_id FROM candidate_skills s JOIN candidates c ON c.id = s.candidate_id "
+                        + "WHERE s.skill_canonical IN (" + placeholders + ") ORDER BY c.user_id",
+                    Integer.class, clause.toArray())
+                .stream().mapToInt(Integer::intValue).toArray();
+            if (matches.length == 0) {
+                return Optional.of(matches);
+            }
+            lists.add(matches);
+        }
+        return Optional.of(intersect(lists));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Tách truy vấn thành các vế AND (dấu phẩy), mỗi vế là các tên chuẩn OR (dấu |), đã bỏ trùng.
+     */
+    List<List<String>> parseQuery(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return clauses;
+        }
+        for (String part : query.split(",")) {
+            Set<String> alternatives = new LinkedHashSet<>();
+            for (String skill : part.split("\\|")) {
+                String canonical = dictionary.canonicalize(skill);
+                if (!canonical.isEmpty()) {
+                    alternatives.add(canonical);
+                }
+            }
+            if (!alternatives.isEmpty()) {
+                clauses.add(new ArrayList<>(alternatives));
+            }
+        }
+        return clauses;
+    }
+
+    private int[] union(List<String> skills) {
+        if (skills.size() == 1) {
+            Postings list = postings.get(skills.get(0));
+            return list != null ? list.toArray() : new int[0];
+        }
+        int total = 0;
+        List<Postings> lists = new ArrayList<>(skills.size());
+        for (String skill : skills) {
+            Postings list = postings.get(skill);
+            if (list != null) {
+                lists.add(list);
+                total += list.size;
+            }
+        }
+        int[] merged = new int[total];
+        int length = 0;
+        for (Postings list : lists) {
+            System.arraycopy(list.ids, 0, merged, length, list.size);
+            length += list.size;
+        }
+        Arrays.sort(merged);
+        return Arrays.stream(merged).distinct().toArray();
+    }
+
+    static int[] intersect(List<int[]> lists) {
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            int[] other = lists.get(i);
+            int[] next = new int[result.length];
+            int length = 0;
+            int from = 0;
+            for (int id : result) {
+                int position = Arrays.binarySearch(other, from, other.length, id);
+                if (position >= 0) {
+                    next[length++] = id;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+                if (from == other.length) {
+                    break;
+                }
+            }
+            result = Arrays.copyOf(next, length);
+        }
+        return result;
+    }
+
+    private Map<Integer, List<String>> loadSkills(int fromUserId, int toUserId) {
+        Map<Integer, List<String>> skills = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT c.user_id, s.skill
+                FROM candidates c
+                JOIN candidate_skills s ON s.candidate_id = c.id
+                WHERE c.user_id BETWEEN ? AND ?
+                ORDER BY c.user_id
+                """,
+            rs -> {
+                skills.computeIfAbsent(rs.getInt("user_id"), id -> new ArrayList<>()).add(rs.getString("skill"));
+            },
+            fromUserId, toUserId);
+        return skills;
+    }
+
+    private void putUser(Integer userId, List<String> skills) {
+        Set<String> canonical = new LinkedHashSet<>();
+        for (String skill : skills) {
+            String name = dictionary.canonicalize(skill);
+            if (!name.isEmpty()) {
+                canonical.add(name);
+            }
+        }
+        if (canonical.isEmpty()) {
+            return;
+        }
+        String[] names = new String[canonical.size()];
+        int i = 0;
+        for (String name : canonical) {
+            // Dùng chung chuỗi khóa của posting list để mỗi tên chuẩn chỉ giữ một bản trong bộ nhớ
+            Postings list = postings.computeIfAbsent(name, key -> new Postings());
+            list.add(userId);
+            names[i++] = name;
+        }
+        skillsByUser.put(userId, names);
+    }
+
+    private void removeUser(Integer userId) {
+        String[] names = skillsByUser.remove(userId);
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            Postings list = postings.get(name);
+            if (list != null) {
+                list.remove(userId);
+                if (list.size == 0) {
+                    postings.remove(name);
+                }
+            }
+        }
+    }
+
+    private static SkillDictionary loadDictionary() {
+        ClassPathResource resource = new ClassPathResource(DICTIONARY_PATH);
+        if (!resource.exists()) {
+            return SkillDictionary.empty();
+        }
+        try (InputStream input = resource.getInputStream()) {
+            return SkillDictionary.load(input);
+        } catch (IOException ex) {
+            log.warn("Không thể đọc từ điển kỹ năng {}: {}", DICTIONARY_PATH, ex.getMessage());
+            return SkillDictionary.empty();
+        }
+    }
+
+    /**
+     * Mảng user_id đã sắp xếp, có chỗ trống ở cuối để thêm mới không phải cấp phát lại mỗi lần.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        private void insertAt(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.JobFinder.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Người dùng hiện tại đọc từ principal {@link AuthenticatedUser}, không truy vấn DB.
+ *
+ * Principal được nạp lại (và thay trong session) khi thiếu: session đăng nhập trước khi có principal này,
+ * hoặc hồ sơ ứng viên/nhà tuyển dụng được tạo sau khi đăng nhập.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CurrentUserService {
+
+    private final CustomUserDetailsService userDetailsService;
+
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    // Mỗi lần đọc từ principal tiết kiệm truy vấn user theo email (kèm role/quyền) và truy vấn hồ sơ theo user_id
+    private final LongAdder principalReads = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    public Optional<AuthenticatedUser> current(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() ||
+            authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal && !isMissingProfile(principal)) {
+            principalReads.increment();
+            return Optional.of(principal);
+        }
+        return Optional.ofNullable(reload(authentication));
+    }
+
+    public Integer userId(Authentication authentication) {
+        return current(authentication).map(AuthenticatedUser::getUserId).orElse(null);
+    }
+
+    public Integer employerId(Authentication authentication) {
+        return current(authentication).map(AuthenticatedUser::getEmployerId).orElse(null);
+    }
+
+    public Integer candidateId(Authentication authentication) {
+        return current(authentication).map(AuthenticatedUser::getCandidateId).orElse(null);
+    }
+
+    /**
+     * Nạp lại principal từ DB; với đăng nhập bằng form thì thay luôn vào SecurityContext và session
+     * để các request sau đọc được id mới. Đăng nhập remember-me chỉ dùng bản mới cho request hiện tại.
+     */
+    public AuthenticatedUser reload(Authentication authentication) {
+        reloads.increment();
+        AuthenticatedUser fresh;
+        try {
+            fresh = userDetailsService.loadUserByUsername(authentication.getName());
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+        if (authentication instanceof UsernamePasswordAuthenticationToken) {
+            UsernamePasswordAuthenticationToken token =
+                UsernamePasswordAuthenticationToken.authenticated(fresh, null, fresh.getAuthorities());
+            token.setDetails(authentication.getDetails());
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(token);
+            SecurityContextHolder.setContext(context);
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                    && attributes.getResponse() != null) {
+                securityContextRepository.saveContext(context, attributes.getRequest(), attributes.getResponse());
+            }
+        }
+        return fresh;
+    }
+
+    public Map<String, Object> metrics() {
+        long reads = principalReads.sum();
+        long reloaded = reloads.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("principalReads", reads);
+        metrics.put("reloads", reloaded);
+        metrics.put("principalHitRate", reads + reloaded == 0 ? 0.0 : (double) reads / (reads + reloaded));
+        return metrics;
+    }
+
+    private static boolean isMissingProfile(AuthenticatedUser principal) {
+        return (principal.isCandidate() && principal.getCandidateId() == null)
+            || (principal.isEmployer() && principal.getEmployerId() == null);
+    }
+}
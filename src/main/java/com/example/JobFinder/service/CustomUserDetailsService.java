@@ -3,16 +3,18 @@ package com.example.JobFinder.service;
 import com.example.JobFinder.model.Permission;
 import com.example.JobFinder.model.Role;
 import com.example.JobFinder.model.User;
+import com.example.JobFinder.repository.CandidateRepository;
+import com.example.JobFinder.repository.EmployerRepository;
 import com.example.JobFinder.repository.UserRepository;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -24,10 +26,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final EmployerRepository employerRepository;
+    private final CandidateRepository candidateRepository;
 
     @Override
     @Transactional(readOnly = true)
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public AuthenticatedUser loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Attempting to load user: {}", username);
         User user = userRepository.findByEmailIgnoreCase(username)
             .orElseThrow(() -> {
@@ -43,15 +47,19 @@ public class CustomUserDetailsService implements UserDetailsService {
         Collection<? extends GrantedAuthority> authorities = buildAuthorities(user);
         log.debug("User {} granted authorities: {}", user.getEmail(), authorities);
 
-        return org.springframework.security.core.userdetails.User
-            .withUsername(user.getEmail())
-            .password(user.getPasswordHash())
-            .authorities(authorities)
-            .accountExpired(false)
-            .accountLocked(false)
-            .credentialsExpired(false)
-            .disabled(false)
-            .build();
+        String roleKey = user.getRole() != null && user.getRole().getName() != null
+            ? user.getRole().getName().toLowerCase(Locale.ROOT)
+            : "";
+        // Id hồ sơ đi kèm principal để controller khỏi tra lại theo email ở mỗi request
+        Integer employerId = "employer".equals(roleKey)
+            ? employerRepository.findIdByUserId(user.getId()).orElse(null)
+            : null;
+        Integer candidateId = "candidate".equals(roleKey)
+            ? candidateRepository.findIdByUserId(user.getId()).orElse(null)
+            : null;
+
+        return new AuthenticatedUser(user.getEmail(), user.getPasswordHash(), authorities,
+            user.getId(), roleKey, employerId, candidateId);
     }
 
     private Collection<? extends GrantedAuthority> buildAuthorities(User user) {
@@ -0,0 +1,265 @@
+package com.example.JobFinder.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gửi thư trong email_outbox ở nền.
+ *
+ * Mỗi worker nhận một lô thư đến hạn bằng SELECT ... FOR UPDATE SKIP LOCKED nên các worker (và các instance)
+ * không nhận trùng; trong cùng giao dịch nhận, thư được cộng lượt thử và dời hạn thêm {@code lease-ms}
+ * rồi commit ngay, SMTP chạy ngoài giao dịch. Worker chết giữa chừng thì thư đến hạn lại sau lease
+ * (gửi ít nhất một lần). Cả lô gửi qua một kết nối SMTP; thư lỗi thử lại với backoff lũy thừa,
+ * quá {@code max-attempts} lần thì chuyển sang failed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JavaMailSender mailSender;
+
+    @Value("${jobfinder.mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobfinder.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${jobfinder.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${jobfinder.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${jobfinder.mail.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${jobfinder.mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${jobfinder.mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    private ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    record OutboxMessage(long id, String recipient, String subject, String body, int attempts) {
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${jobfinder.mail.outbox.poll-ms:2000}", initialDelayString = "${jobfinder.mail.outbox.poll-ms:2000}")
+    public void poll() {
+        // Không chặn luồng lập lịch trong lúc gửi; vòng mới chỉ bắt đầu khi các worker của vòng trước đã xong
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<?>[] rounds = new CompletableFuture<?>[Math.max(1, workers)];
+        for (int i = 0; i < rounds.length; i++) {
+            rounds[i] = CompletableFuture.runAsync(this::drain, executor);
+        }
+        CompletableFuture.allOf(rounds).whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.warn("Không thể gửi thư trong outbox: {}", ex.getMessage());
+            }
+            running.set(false);
+        });
+    }
+
+    /**
+     * Nhận và gửi từng lô cho tới khi hết thư đến hạn; trả về số thư đã xử lý.
+     */
+    public int drain() {
+        int total = 0;
+        while (true) {
+            List<OutboxMessage> batch = claim();
+            if (batch.isEmpty()) {
+                return total;
+            }
+            complete(batch, send(batch));
+            total += batch.size();
+            if (batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private List<OutboxMessage> claim() {
+        List<OutboxMessage> batch = transactionTemplate.execute(status -> {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            List<OutboxMessage> rows = jdbcTemplate.query("""
+                    SELECT id, recipient, subject, body, attempts
+                    FROM email_outbox
+                    WHERE status = 'pending' AND next_attempt_at <= ?
+                    ORDER BY next_attempt_at, id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                    """,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("recipient"),
+                    rs.getString("subject"), rs.getString("body"), rs.getInt("attempts") + 1),
+                now, batchSize);
+            if (!rows.isEmpty()) {
+                Timestamp leaseUntil = new Timestamp(now.getTime() + leaseMs);
+                jdbcTemplate.batchUpdate(
+                    "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ? WHERE id = ?",
+                    rows, rows.size(), (ps, row) -> {
+                        ps.setTimestamp(1, leaseUntil);
+                        ps.setLong(2, row.id());
+                    });
+            }
+            return rows;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /**
+     * Gửi cả lô qua một kết nối SMTP; trả về lỗi theo id thư (rỗng nếu tất cả thành công).
+     */
+    Map<Long, String> send(List<OutboxMessage> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        Map<Object, Long> idByMessage = new IdentityHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage row = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(row.recipient());
+            message.setSubject(row.subject());
+            message.setText(row.body());
+            messages[i] = message;
+            idByMessage.put(message, row.id());
+        }
+        try {
+            mailSender.send(messages);
+            return Collections.emptyMap();
+        } catch (MailSendException ex) {
+            if (ex.getFailedMessages().isEmpty()) {
+                return failAll(batch, ex);
+            }
+            Map<Long, String> failures = new HashMap<>();
+            ex.getFailedMessages().forEach((message, cause) -> {
+                Long id = idByMessage.get(message);
+                if (id != null) {
+                    failures.put(id, cause.getMessage());
+                }
+            });
+            return failures;
+        } catch (MailException ex) {
+            return failAll(batch, ex);
+        }
+    }
+
+    private void complete(List<OutboxMessage> batch, Map<Long, String> failures) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> sentRows = new ArrayList<>();
+        List<Object[]> retryRows = new ArrayList<>();
+        List<Object[]> failedRows = new ArrayList<>();
+        for (OutboxMessage row : batch) {
+            String error = failures.get(row.id());
+            if (!failures.containsKey(row.id())) {
+                sentRows.add(new Object[] {now, row.id()});
+            } else if (row.attempts() >= maxAttempts) {
+                failedRows.add(new Object[] {truncate(error), row.id()});
+            } else {
+                Timestamp retryAt = new Timestamp(now.getTime() + backoffMillis(row.attempts(), backoffBaseMs, backoffMaxMs));
+                retryRows.add(new Object[] {retryAt, truncate(error), row.id()});
+            }
+        }
+        if (!sentRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE email_outbox SET status = 'sent', sent_at = ?, last_error = NULL WHERE id = ?", sentRows);
+        }
+        if (!retryRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE email_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?", retryRows);
+        }
+        if (!failedRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE email_outbox SET status = 'failed', last_error = ? WHERE id = ?", failedRows);
+            log.warn("Bỏ {} thư sau {} lần gửi thất bại", failedRows.size(), maxAttempts);
+        }
+        sent.add(sentRows.size());
+        retried.add(retryRows.size());
+        failed.add(failedRows.size());
+    }
+
+    /**
+     * Thời gian chờ trước lần thử kế tiếp sau {@code attempts} lần đã thử: base * 2^(attempts - 1), tối đa max.
+     */
+    static long backoffMillis(int attempts, long baseMs, long maxMs) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(maxMs, baseMs << exponent);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("sent", sent.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("failed", failed.sum());
+        jdbcTemplate.query("SELECT status, COUNT(*) AS total FROM email_outbox GROUP BY status",
+            rs -> {
+                metrics.put("queue." + rs.getString("status"), rs.getLong("total"));
+            });
+        metrics.put("workers", workers);
+        metrics.put("batchSize", batchSize);
+        return metrics;
+    }
+
+    private static Map<Long, String> failAll(List<OutboxMessage> batch, Exception ex) {
+        log.warn("Không thể gửi lô {} thư: {}", batch.size(), ex.getMessage());
+        Map<Long, String> failures = new HashMap<>();
+        batch.forEach(row -> failures.put(row.id(), ex.getMessage()));
+        return failures;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "Lỗi không xác định";
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -4,23 +4,19 @@ import com.example.JobFinder.model.Application;
 import com.example.JobFinder.model.Candidate;
 import com.example.JobFinder.model.Job;
 import com.example.JobFinder.model.User;
+import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.Nullable;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+    private final JdbcTemplate jdbcTemplate;
 
     public void sendNewApplicationToEmployer(Application application) {
         if (application == null) return;
@@ -77,18 +73,31 @@ public class EmailService {
         send(candidateUser.getEmail(), subject, body.toString());
     }
 
-    private void send(String to, String subject, String text) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-        } catch (MailException ignored) {
-            log.warn("Gửi email thất bại tới {} với tiêu đề '{}': {}", to, subject, ignored.getMessage());
+    /**
+     * Ghi nhiều thư vào email_outbox bằng một lệnh batch, cùng giao dịch hiện tại như {@link #send}.
+     */
+    public void sendAll(List<OutgoingEmail> emails) {
+        List<Object[]> rows = emails.stream()
+            .filter(email -> StringUtils.hasText(email.to()))
+            .map(email -> new Object[] {email.to(), email.subject(), email.text()})
+            .toList();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO email_outbox (recipient, subject, body) VALUES (?, ?, ?)", rows);
         }
     }
 
+    public record OutgoingEmail(String to, String subject, String text) {
+    }
+
+    /**
+     * Ghi thư vào email_outbox trong giao dịch hiện tại (nếu có); {@link EmailOutboxDispatcher} gửi ở nền.
+     * Thay đổi nghiệp vụ rollback thì thư cũng không được gửi.
+     */
+    private void send(String to, String subject, String text) {
+        jdbcTemplate.update("INSERT INTO email_outbox (recipient, subject, body) VALUES (?, ?, ?)",
+            to, subject, text);
+    }
+
     private String safe(String value) {
         return value == null ? "" : value.trim();
     }
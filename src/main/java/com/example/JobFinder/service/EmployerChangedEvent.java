@@ -0,0 +1,8 @@
+package com.example.JobFinder.service;
+
+/**
+ * Phát ra sau khi một nhà tuyển dụng được tạo hoặc xóa.
+ * Các thành phần giữ số liệu trong bộ nhớ (dữ liệu layout...) lắng nghe để làm mới.
+ */
+public record EmployerChangedEvent(Integer employerId) {
+}
@@ -3,10 +3,14 @@ package com.example.JobFinder.service;
 import com.example.JobFinder.model.Category;
 import com.example.JobFinder.model.Employer;
 import com.example.JobFinder.model.Job;
+import com.example.JobFinder.model.User;
 import com.example.JobFinder.repository.EmployerRepository;
 import com.example.JobFinder.repository.JobRepository;
-import com.example.JobFinder.repository.JobViewRepository;
+import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.UploadStorageService.UploadKind;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.data.domain.Page;
@@ -15,7 +19,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -30,11 +37,82 @@ public class EmployerService {
 
     private final EmployerRepository employerRepository;
     private final JobRepository jobRepository;
-    private final JobViewRepository jobViewRepository;
+    private final JobViewCounter jobViewCounter;
+    private final ViewerSketchService viewerSketchService;
     private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UploadStorageService uploadStorageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Pattern BENEFIT_SPLIT_PATTERN = Pattern.compile("[\\r\\n;,]+");
 
+    /**
+     * Cập nhật hồ sơ công ty trong một giao dịch. Logo mới được lưu trước, logo cũ chỉ bỏ tham chiếu sau khi
+     * lưu thành công (tệp được dọn sau commit), nên lỗi ở bất kỳ bước nào đều giữ nguyên logo đang dùng.
+     */
+    @Transactional
+    public void updateCompanyProfile(Integer employerId, String companyName, String website, String address,
+                                     String about, MultipartFile companyLogo, boolean removeLogo,
+                                     String contactName, String contactPhone) throws IOException {
+        if (companyName == null || companyName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Tên công ty không được để trống");
+        }
+        Employer employer = employerRepository.findByIdWithUser(employerId)
+            .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy nhà tuyển dụng"));
+
+        String previousCompanyName = employer.getCompanyName();
+        String previousAddress = employer.getAddress();
+        String previousLogo = employer.getLogoPath();
+
+        boolean logoReplaced = false;
+        if (companyLogo != null && !companyLogo.isEmpty()) {
+            employer.setLogoPath("/" + uploadStorageService.store(companyLogo, UploadKind.LOGO));
+            logoReplaced = true;
+        } else if (removeLogo && previousLogo != null) {
+            employer.setLogoPath(null);
+            logoReplaced = true;
+        }
+
+        employer.setCompanyName(companyName.trim());
+        employer.setWebsite(normalize(website));
+        employer.setAddress(normalize(address));
+        employer.setAbout(normalize(about));
+
+        if (employer.getUser() != null) {
+            User user = employer.getUser();
+            if (contactName != null) {
+                user.setName(normalize(contactName));
+            }
+            if (contactPhone != null) {
+                user.setPhone(normalize(contactPhone));
+            }
+            userRepository.save(user);
+            eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(user.getId()));
+        }
+
+        employerRepository.save(employer);
+
+        // Tải lại đúng ảnh cũ cũng đã tăng tham chiếu ở store(), nên vẫn bỏ một tham chiếu của logo trước
+        if (logoReplaced && previousLogo != null && !previousLogo.isEmpty()) {
+            uploadStorageService.release(previousLogo);
+        }
+
+        // Tên công ty/địa chỉ nằm trong chỉ mục tìm kiếm của các tin đang đăng
+        if (!Objects.equals(previousCompanyName, employer.getCompanyName())
+                || !Objects.equals(previousAddress, employer.getAddress())) {
+            jobRepository.findPublishedByEmployerId(employer.getId())
+                .forEach(job -> eventPublisher.publishEvent(new JobChangedEvent(job.getId())));
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
     public Map<String, Object> getDirectoryPaginated(String searchTerm, String location, String sortOrder, int page, int perPage) {
         Map<String, Object> result = new HashMap<>();
         
@@ -43,7 +121,8 @@ public class EmployerService {
         Page<Employer> employerPage;
         
         if ((searchTerm != null && !searchTerm.isEmpty()) || (location != null && !location.isEmpty())) {
-            employerPage = employerRepository.findByFilters(searchTerm, location, pageable);
+            employerPage = employerRepository.findByFilters(
+                VietnameseTextAnalyzer.normalize(searchTerm), VietnameseTextAnalyzer.normalize(location), pageable);
         } else {
             employerPage = employerRepository.findAll(pageable);
         }
@@ -104,6 +183,7 @@ public class EmployerService {
                     "totalJobs", 0,
                     "recentJobs", 0,
                     "totalViews", 0,
+                    "uniqueViewers", 0,
                     "uniqueLocations", 0,
                     "locationTags", List.of(),
                     "latestActivity", "Đang cập nhật"
@@ -115,8 +195,10 @@ public class EmployerService {
         Set<String> locations = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
         long recentJobs = 0;
         LocalDateTime latestActivity = null;
+        long totalViews = 0;
 
         for (Job job : jobs) {
+            totalViews += jobViewCounter.viewCount(job);
             if (job.getLocation() != null && !job.getLocation().isBlank()) {
                 locations.add(job.getLocation().trim());
             }
@@ -132,7 +214,8 @@ public class EmployerService {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalJobs", jobs.size());
         stats.put("recentJobs", recentJobs);
-        stats.put("totalViews", jobViewRepository.countByEmployerId(employerId.intValue()));
+        stats.put("totalViews", totalViews);
+        stats.put("uniqueViewers", viewerSketchService.employerUniqueViewers(employerId.intValue()));
         stats.put("uniqueLocations", locations.size());
         stats.put("locationTags", new ArrayList<>(locations));
         stats.put("latestActivity", latestActivity != null
@@ -221,7 +304,7 @@ public class EmployerService {
                     Map<String, Object> timelineRow = new HashMap<>();
                     timelineRow.put("title", job.getTitle());
                     timelineRow.put("date", job.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-                    timelineRow.put("view_count", jobViewRepository.countByJobId(job.getId()));
+                    timelineRow.put("view_count", jobViewCounter.viewCount(job));
                     return timelineRow;
                 })
                 .collect(Collectors.toList());
@@ -343,7 +426,7 @@ public class EmployerService {
         map.put("location", job.getLocation());
         map.put("salary", job.getSalary());
         map.put("employmentType", job.getEmploymentType());
-        map.put("viewCount", jobViewRepository.countByJobId(job.getId()));
+        map.put("viewCount", jobViewCounter.viewCount(job));
         map.put("status", job.getStatus());
         map.put("createdAt", job.getCreatedAt());
         return map;
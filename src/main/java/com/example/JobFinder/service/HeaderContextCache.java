@@ -0,0 +1,180 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.service.HeaderContextService.HeaderUserContext;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Ngữ cảnh header (thông tin người dùng, số tin đã lưu, số thông báo chưa đọc và vài thông báo gần nhất)
+ * giữ trong bộ nhớ theo từng người dùng, tối đa {@code max-entries} người (bỏ người ít dùng nhất).
+ *
+ * Mục bị xóa ngay khi dữ liệu gốc đổi ({@link HeaderContextChangedEvent}, {@link CandidateChangedEvent})
+ * sau khi giao dịch commit; TTL ngắn chỉ để chuỗi "x phút trước" của thông báo không cũ quá lâu.
+ */
+@Service
+@RequiredArgsConstructor
+public class HeaderContextCache {
+
+    public static final int RECENT_NOTIFICATION_LIMIT = 5;
+
+    private final HeaderContextService headerContextService;
+    private final NotificationService notificationService;
+
+    @Value("${jobfinder.header.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${jobfinder.header.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    // Thứ tự truy cập + removeEldestEntry = LRU; mọi truy cập (kể cả hai chỉ mục phụ) nằm trong synchronized (entries)
+    private final LinkedHashMap<String, HeaderEntry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HeaderEntry> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            unindex(eldest.getKey(), eldest.getValue());
+            evictions.increment();
+            return true;
+        }
+    };
+    private final Map<Integer, String> keyByUserId = new HashMap<>();
+    private final Map<Integer, String> keyByCandidateId = new HashMap<>();
+
+    // Tăng mỗi lần xóa mục: lần tải bắt đầu trước đó có thể đã đọc dữ liệu cũ nên không được lưu lại
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public record HeaderEntry(
+        HeaderUserContext user,
+        List<NotificationService.NotificationView> notifications,
+        long loadedAtMillis
+    ) {
+    }
+
+    public Optional<HeaderEntry> get(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() ||
+            authentication instanceof AnonymousAuthenticationToken || authentication.getName() == null) {
+            return Optional.empty();
+        }
+        String key = authentication.getName().toLowerCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            HeaderEntry cached = entries.get(key);
+            if (cached != null && now - cached.loadedAtMillis() < ttlMs) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        misses.increment();
+        long startGeneration = generation.get();
+        Optional<HeaderUserContext> context = headerContextService.buildContext(authentication);
+        if (context.isEmpty()) {
+            return Optional.empty();
+        }
+        HeaderUserContext user = context.get();
+        HeaderEntry fresh = new HeaderEntry(
+            user,
+            List.copyOf(notificationService.getRecentNotifications(user.userId(), RECENT_NOTIFICATION_LIMIT)),
+            now
+        );
+        synchronized (entries) {
+            if (generation.get() == startGeneration) {
+                HeaderEntry previous = entries.put(key, fresh);
+                if (previous != null) {
+                    unindex(key, previous);
+                }
+                keyByUserId.put(user.userId(), key);
+                if (user.candidateId() != null) {
+                    keyByCandidateId.put(user.candidateId(), key);
+                }
+            }
+        }
+        return Optional.of(fresh);
+    }
+
+    public void invalidateUser(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            remove(keyByUserId.get(userId));
+        }
+    }
+
+    public void invalidateCandidate(Integer candidateId) {
+        if (candidateId == null) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            remove(keyByCandidateId.get(candidateId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHeaderContextChanged(HeaderContextChangedEvent event) {
+        invalidateUser(event.userId());
+        invalidateCandidate(event.candidateId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCandidateChanged(CandidateChangedEvent event) {
+        invalidateUser(event.userId());
+    }
+
+    public Map<String, Object> metrics() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hitCount);
+        metrics.put("misses", total - hitCount);
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        metrics.put("invalidations", invalidations.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("size", size);
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("ttlMs", ttlMs);
+        return metrics;
+    }
+
+    private void remove(String key) {
+        if (key == null) {
+            return;
+        }
+        HeaderEntry removed = entries.remove(key);
+        if (removed != null) {
+            unindex(key, removed);
+            invalidations.increment();
+        }
+    }
+
+    private void unindex(String key, HeaderEntry entry) {
+        keyByUserId.remove(entry.user().userId(), key);
+        if (entry.user().candidateId() != null) {
+            keyByCandidateId.remove(entry.user().candidateId(), key);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.JobFinder.service;
+
+/**
+ * Phát ra khi dữ liệu hiển thị trên header của một người dùng thay đổi (tin đã lưu, thông báo,
+ * tên/ảnh đại diện). Có thể chỉ biết userId hoặc chỉ biết candidateId.
+ */
+public record HeaderContextChangedEvent(Integer userId, Integer candidateId) {
+
+    public static HeaderContextChangedEvent forUser(Integer userId) {
+        return new HeaderContextChangedEvent(userId, null);
+    }
+
+    public static HeaderContextChangedEvent forCandidate(Integer candidateId) {
+        return new HeaderContextChangedEvent(null, candidateId);
+    }
+}
@@ -38,8 +38,9 @@ public class HeaderContextService {
             : "";
 
         long savedJobsCount = 0;
+        Integer candidateId = null;
         if ("candidate".equals(roleKey)) {
-            Integer candidateId = resolveCandidateId(user);
+            candidateId = resolveCandidateId(user);
             if (candidateId != null) {
                 savedJobsCount = jobService.countSavedJobsByCandidate(candidateId);
             }
@@ -55,7 +56,8 @@ public class HeaderContextService {
             roleKey,
             resolveDashboardUrl(roleKey),
             savedJobsCount,
-            unreadNotifications
+            unreadNotifications,
+            candidateId
         );
     }
 
@@ -97,7 +99,8 @@ public class HeaderContextService {
         String roleKey,
         String dashboardUrl,
         long savedJobsCount,
-        long unreadNotifications
+        long unreadNotifications,
+        Integer candidateId
     ) {
         public boolean isCandidate() {
             return "candidate".equals(roleKey);
@@ -0,0 +1,131 @@
+package com.example.JobFinder.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * HTML đã render của trang chủ cho khách chưa đăng nhập, theo ngôn ngữ của request.
+ *
+ * Trong {@code fresh-ms} bản lưu được trả thẳng. Khi hết hạn hoặc bị đánh dấu cũ (tin tuyển dụng
+ * được đăng/đóng/sửa, nhà tuyển dụng đổi), đúng một request được render lại còn các request khác
+ * vẫn nhận bản cũ; quá {@code max-stale-ms} thì không trả bản cũ nữa.
+ */
+@Service
+public class HomePageCache {
+
+    // Số ngôn ngữ tối đa được lưu, tránh Accept-Language tùy ý làm phình bộ nhớ
+    private static final int MAX_LOCALES = 8;
+
+    @Getter
+    @Value("${jobfinder.home.page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobfinder.home.page-cache.fresh-ms:60000}")
+    private long freshMs;
+
+    @Value("${jobfinder.home.page-cache.max-stale-ms:600000}")
+    private long maxStaleMs;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Page> pages = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> rendering = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+
+    public record Page(String html, String contentType, long renderedAtMillis, long version) {
+    }
+
+    /**
+     * Kết quả tra cache: {@code page} để trả về (có thể null), {@code render} = request này phải render
+     * (khi đó gọi {@link #store} hoặc {@link #release} sau khi xong).
+     */
+    public record Lookup(String key, Page page, boolean render, long version) {
+    }
+
+    public static String key(Locale locale) {
+        return locale != null ? locale.getLanguage() : "";
+    }
+
+    public Lookup lookup(Locale locale) {
+        String key = key(locale);
+        long currentVersion = version.get();
+        long now = System.currentTimeMillis();
+        Page page = pages.get(key);
+        if (page != null && page.version() == currentVersion && now - page.renderedAtMillis() < freshMs) {
+            hits.increment();
+            return new Lookup(key, page, false, currentVersion);
+        }
+        boolean usable = page != null && now - page.renderedAtMillis() < maxStaleMs;
+        if (usable && rendering.putIfAbsent(key, Boolean.TRUE) != null) {
+            // Đã có request khác đang render lại
+            staleHits.increment();
+            return new Lookup(key, page, false, currentVersion);
+        }
+        if (!usable && !pages.containsKey(key) && pages.size() >= MAX_LOCALES) {
+            return new Lookup(key, null, false, currentVersion);
+        }
+        if (!usable) {
+            rendering.put(key, Boolean.TRUE);
+        }
+        renders.increment();
+        return new Lookup(key, null, true, currentVersion);
+    }
+
+    public void store(Lookup lookup, String html, String contentType) {
+        try {
+            // Phiên bản lấy trước khi render: thay đổi xảy ra trong lúc render khiến bản này được coi là cũ ngay
+            pages.put(lookup.key(), new Page(html, contentType, System.currentTimeMillis(), lookup.version()));
+        } finally {
+            release(lookup);
+        }
+    }
+
+    public void release(Lookup lookup) {
+        rendering.remove(lookup.key());
+    }
+
+    /**
+     * Đánh dấu mọi bản lưu là cũ; request kế tiếp render lại, các request đồng thời vẫn nhận bản cũ.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployerChanged(EmployerChangedEvent event) {
+        invalidate();
+    }
+
+    public Map<String, Object> metrics() {
+        long fresh = hits.sum();
+        long stale = staleHits.sum();
+        long rendered = renders.sum();
+        long total = fresh + stale + rendered;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("hits", fresh);
+        metrics.put("staleHits", stale);
+        metrics.put("renders", rendered);
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) (fresh + stale) / total);
+        metrics.put("locales", List.copyOf(pages.keySet()));
+        metrics.put("freshMs", freshMs);
+        metrics.put("maxStaleMs", maxStaleMs);
+        return metrics;
+    }
+}
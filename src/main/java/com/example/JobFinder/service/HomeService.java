@@ -25,6 +25,7 @@ public class HomeService {
     private final JobRepository jobRepository;
     private final ApplicationRepository applicationRepository;
     private final JobService jobService;
+    private final SearchSuggestionService searchSuggestionService;
 
     private static final List<String> FALLBACK_KEYWORDS = List.of(
         "Product Manager",
@@ -189,8 +190,8 @@ public class HomeService {
 
     public List<String> getPopularKeywords(int limit) {
         int size = Math.max(limit, 1);
-        Pageable pageable = PageRequest.of(0, size);
-        LinkedHashSet<String> keywords = new LinkedHashSet<>(jobRepository.findRecentJobTitles(pageable));
+        // Lấy từ trie gợi ý đã dựng sẵn (xếp theo lượt xem/ứng tuyển), không truy vấn DB mỗi lượt vào trang chủ
+        LinkedHashSet<String> keywords = new LinkedHashSet<>(searchSuggestionService.topTitles(size));
         
         if (keywords.size() < size) {
             for (String fallback : FALLBACK_KEYWORDS) {
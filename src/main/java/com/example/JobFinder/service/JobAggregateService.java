@@ -0,0 +1,79 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.repository.ApplicationRepository;
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.repository.SavedJobRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Nạp số liệu tổng hợp (lượt xem, ứng tuyển, lượt lưu) cho cả một trang tin bằng một truy vấn
+ * GROUP BY ... IN mỗi loại, thay cho một truy vấn đếm trên mỗi dòng.
+ * Số câu lệnh không phụ thuộc số tin trong trang: tối đa ba, trang rỗng không truy vấn.
+ */
+@Service
+@RequiredArgsConstructor
+public class JobAggregateService {
+
+    private final JobRepository jobRepository;
+    private final ApplicationRepository applicationRepository;
+    private final SavedJobRepository savedJobRepository;
+    private final JobViewCounter jobViewCounter;
+
+    @Transactional(readOnly = true)
+    public JobAggregates load(Collection<Integer> jobIds) {
+        Set<Integer> ids = new LinkedHashSet<>(jobIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return JobAggregates.EMPTY;
+        }
+        Map<Integer, Long> views = toCounts(jobRepository.findViewCountsByIds(ids));
+        // Cộng phần lượt xem chưa ghi xuống DB để khớp với trang chi tiết
+        ids.forEach(id -> views.merge(id, jobViewCounter.pendingViews(id), Long::sum));
+        return new JobAggregates(
+            views,
+            toCounts(applicationRepository.countByJobIds(ids)),
+            toCounts(savedJobRepository.countByJobIds(ids)));
+    }
+
+    private static Map<Integer, Long> toCounts(List<Object[]> rows) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            Integer jobId = ((Number) row[0]).intValue();
+            long count = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+            counts.put(jobId, count);
+        }
+        return counts;
+    }
+
+    /**
+     * Số liệu theo id tin; tin không có dòng nào trả về 0.
+     */
+    public record JobAggregates(Map<Integer, Long> views, Map<Integer, Long> applications, Map<Integer, Long> saved) {
+
+        public static final JobAggregates EMPTY = new JobAggregates(Map.of(), Map.of(), Map.of());
+
+        public long viewCount(Integer jobId) {
+            return count(views, jobId);
+        }
+
+        public long applicationCount(Integer jobId) {
+            return count(applications, jobId);
+        }
+
+        public long savedCount(Integer jobId) {
+            return count(saved, jobId);
+        }
+
+        private static long count(Map<Integer, Long> counts, Integer jobId) {
+            return jobId != null ? counts.getOrDefault(jobId, 0L) : 0L;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.JobFinder.service;
+
+/**
+ * Phát ra sau khi một tin tuyển dụng được tạo, sửa, đổi trạng thái hoặc xóa.
+ * Các thành phần giữ dữ liệu trong bộ nhớ (chỉ mục tìm kiếm...) lắng nghe để đồng bộ lại.
+ */
+public record JobChangedEvent(Integer jobId) {
+}
@@ -0,0 +1,935 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.model.Category;
+import com.example.JobFinder.model.Job;
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.util.KeysetCursor;
+import com.example.JobFinder.util.SalaryParser;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+/**
+ * Chỉ mục đảo ngược trong bộ nhớ cho các tin tuyển dụng đang đăng.
+ * Trả lời lọc keyword/địa điểm/hình thức/danh mục/khoảng lương và phân trang theo ngày đăng, lương hoặc lượt xem,
+ * MySQL chỉ còn dùng để nạp chi tiết các job thuộc trang kết quả (và thay thế khi chỉ mục đang dựng).
+ *
+ * Mỗi job được gán một slot (số nguyên nhỏ, tái sử dụng khi job bị gỡ);
+ * posting list nhỏ lưu dạng mảng slot đã sắp xếp, posting list lớn chuyển sang BitSet để giao nhanh.
+ * Cũng chính các posting list theo danh mục/hình thức/địa điểm này trả về số đếm facet cho trang /jobs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobSearchIndex {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final long NO_SALARY = -1L;
+    private static final int MAX_LOCATION_FACETS = 10;
+    private static final Comparator<IndexedJob> NEWEST_FIRST = Comparator
+        .comparingLong(IndexedJob::createdAt).reversed()
+        .thenComparing(Comparator.comparingInt(IndexedJob::id).reversed());
+
+    private final JobRepository jobRepository;
+
+    @Value("${jobfinder.search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedJob> documents = new HashMap<>();
+    private final List<IndexedJob> slotDocuments = new ArrayList<>();
+    private final TreeMap<String, Postings> keywordPostings = new TreeMap<>();
+    private final TreeMap<String, Postings> locationPostings = new TreeMap<>();
+    private final Map<String, Postings> typePostings = new HashMap<>();
+    private final Map<Integer, Postings> categoryPostings = new HashMap<>();
+    private final Map<String, Postings> locationFacetPostings = new HashMap<>();
+    private final Map<String, String> locationLabels = new HashMap<>();
+    private final TreeMap<Long, Postings> deadlinePostings = new TreeMap<>();
+    private final TreeMap<Long, Postings> salaryLowPostings = new TreeMap<>();
+    private final TreeMap<Long, Postings> salaryHighPostings = new TreeMap<>();
+    private final List<IndexedJob> newestOrder = new ArrayList<>();
+    // Lượt xem theo job id: view_count lúc lập chỉ mục cộng các lô JobViewCounter đã ghi (JobViewsFlushedEvent)
+    private final Map<Integer, Long> viewCounts = new HashMap<>();
+    private final BitSet liveSlots = new BitSet();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuild)
+            .exceptionally(ex -> {
+                log.error("Không thể dựng chỉ mục tìm kiếm việc làm", ex);
+                return null;
+            });
+    }
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ bảng jobs (quét theo khóa id, từng lô).
+     * Trong lúc dựng, search() trả về rỗng để JobService dùng truy vấn JPQL.
+     */
+    public void rebuild() {
+        ready = false;
+        long started = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            slotDocuments.clear();
+            keywordPostings.clear();
+            locationPostings.clear();
+            typePostings.clear();
+            categoryPostings.clear();
+            locationFacetPostings.clear();
+            locationLabels.clear();
+            deadlinePostings.clear();
+            salaryLowPostings.clear();
+            salaryHighPostings.clear();
+            newestOrder.clear();
+            viewCounts.clear();
+            liveSlots.clear();
+            freeSlots.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int lastId = 0;
+        while (true) {
+            List<Integer> ids = jobRepository.findPublishedIdsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Job> jobs = jobRepository.findByIdInWithDetails(ids);
+            lock.writeLock().lock();
+            try {
+                for (Job job : jobs) {
+                    removeDocument(job.getId(), false);
+                    addDocument(job);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        lock.writeLock().lock();
+        try {
+            newestOrder.clear();
+            newestOrder.addAll(documents.values());
+            newestOrder.sort(NEWEST_FIRST);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        log.info("Đã dựng chỉ mục tìm kiếm: {} việc làm, {} từ khóa trong {} ms",
+            size(), keywordTermCount(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        if (!enabled || event.jobId() == null) {
+            return;
+        }
+        jobRepository.findByIdWithDetails(event.jobId())
+            .filter(job -> "published".equals(job.getStatus()))
+            .ifPresentOrElse(this::index, () -> remove(event.jobId()));
+    }
+
+    /**
+     * Thêm hoặc cập nhật một job trong chỉ mục.
+     */
+    public void index(Job job) {
+        if (job == null || job.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(job.getId(), true);
+            IndexedJob document = addDocument(job);
+            int position = Collections.binarySearch(newestOrder, document, NEWEST_FIRST);
+            newestOrder.add(position < 0 ? -position - 1 : position, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onViewsFlushed(JobViewsFlushedEvent event) {
+        if (!enabled || event.deltas().isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.deltas().forEach((jobId, delta) -> viewCounts.computeIfPresent(jobId, (id, views) -> views + delta));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer jobId) {
+        if (jobId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(jobId, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tìm ID job theo bộ lọc, đã sắp xếp và cắt trang.
+     * Trả về Optional.empty() khi chỉ mục chưa sẵn sàng hoặc kiểu sắp xếp chưa hỗ trợ.
+     */
+    public Optional<SearchResult> search(String keyword, String location, String employmentType,
+                                         Collection<Integer> categoryIds, Long minSalary, Long maxSalary,
+                                         String sortBy, int page, int perPage) {
+        int offset = Math.max(page - 1, 0) * perPage;
+        String rankedSort = rankedSort(sortBy);
+        if (rankedSort != null) {
+            if (!enabled || !ready) {
+                return Optional.empty();
+            }
+            lock.readLock().lock();
+            try {
+                Selection selection = select(keyword, location, employmentType, categoryIds, minSalary, maxSalary);
+                return Optional.of(new SearchResult(rank(selection, rankedSort, offset, perPage), selection.total()));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        Optional<Boolean> oldestFirst = resolveOrder(sortBy);
+        if (oldestFirst.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Selection selection = select(keyword, location, employmentType, categoryIds, minSalary, maxSalary);
+            List<Integer> pageIds = new ArrayList<>(perPage);
+            if (offset < selection.total()) {
+                collect(selection, oldestFirst.get(), selection.startIndex(oldestFirst.get(), null), offset, perPage, pageIds);
+            }
+            return Optional.of(new SearchResult(pageIds, selection.total()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Phân trang keyset: trả về tối đa {@code limit} ID nằm sau con trỏ (createdAt, id) theo thứ tự sắp xếp.
+     * Con trỏ null nghĩa là trang đầu.
+     */
+    public Optional<SearchResult> searchAfter(String keyword, String location, String employmentType,
+                                              Collection<Integer> categoryIds, Long minSalary, Long maxSalary,
+                                              String sortBy, KeysetCursor cursor, int limit) {
+        Optional<Boolean> oldestFirst = resolveOrder(sortBy);
+        if (oldestFirst.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Selection selection = select(keyword, location, employmentType, categoryIds, minSalary, maxSalary);
+            List<Integer> pageIds = new ArrayList<>(limit);
+            collect(selection, oldestFirst.get(), selection.startIndex(oldestFirst.get(), cursor), 0, limit, pageIds);
+            return Optional.of(new SearchResult(pageIds, selection.total()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số đếm facet cho truy vấn hiện tại: mỗi nhóm được đếm với mọi bộ lọc trừ chính nhóm đó,
+     * nên người dùng thấy được chọn thêm danh mục/hình thức khác sẽ ra bao nhiêu việc.
+     * Trả về Optional.empty() khi chỉ mục chưa sẵn sàng.
+     */
+    public Optional<FacetCounts> facets(String keyword, String location, String employmentType,
+                                        Collection<Integer> categoryIds, Long minSalary, Long maxSalary) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> termFilters = new ArrayList<>();
+            collectTermFilters(keywordPostings, tokenize(keyword), termFilters);
+            collectTermFilters(locationPostings, tokenize(location), termFilters);
+            collectSalaryFilters(minSalary, maxSalary, termFilters);
+            BitSet base = matchingSlots(termFilters, LocalDate.now().toEpochDay());
+
+            Postings typeFilter = typeFilter(employmentType);
+            Postings categoryFilter = categoryFilter(categoryIds);
+            BitSet scratch = new BitSet(base.length());
+
+            // Danh mục: đếm trong phạm vi (từ khóa + hình thức), bỏ qua lựa chọn danh mục hiện tại
+            BitSet categoryScope = restrict(base, typeFilter);
+            Map<Integer, Long> categoryCounts = new HashMap<>();
+            categoryPostings.forEach((categoryId, postings) -> {
+                long count = postings.countIn(categoryScope, scratch);
+                if (count > 0) {
+                    categoryCounts.put(categoryId, count);
+                }
+            });
+
+            // Hình thức: đếm trong phạm vi (từ khóa + danh mục)
+            BitSet typeScope = restrict(base, categoryFilter);
+            Map<String, Long> typeCounts = new HashMap<>();
+            typePostings.forEach((type, postings) -> {
+                long count = postings.countIn(typeScope, scratch);
+                if (count > 0) {
+                    typeCounts.put(type, count);
+                }
+            });
+
+            // Địa điểm: đếm trên toàn bộ kết quả hiện tại, chỉ giữ các địa điểm nhiều việc nhất
+            BitSet locationScope = restrict(typeScope, typeFilter);
+            List<LocationFacet> locations = new ArrayList<>();
+            locationFacetPostings.forEach((key, postings) -> {
+                long count = postings.countIn(locationScope, scratch);
+                if (count > 0) {
+                    locations.add(new LocationFacet(key, locationLabels.getOrDefault(key, key), count));
+                }
+            });
+            locations.sort(Comparator.comparingLong(LocationFacet::count).reversed()
+                .thenComparing(LocationFacet::label));
+
+            return Optional.of(new FacetCounts(categoryCounts, typeCounts,
+                List.copyOf(locations.subList(0, Math.min(locations.size(), MAX_LOCATION_FACETS))),
+                locationScope.cardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int keywordTermCount() {
+        lock.readLock().lock();
+        try {
+            return keywordPostings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thứ tự theo ngày đăng (duyệt thẳng newestOrder, hỗ trợ cả keyset); lương/lượt xem xem {@link #rankedSort}.
+     */
+    private Optional<Boolean> resolveOrder(String sortBy) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        String sort = StringUtils.hasText(sortBy) ? sortBy.toLowerCase(Locale.ROOT) : "newest";
+        return switch (sort) {
+            case "newest" -> Optional.of(false);
+            case "oldest" -> Optional.of(true);
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * "salary" hoặc "views" khi sắp theo lương/lượt xem (chỉ phân trang offset), null với các kiểu khác.
+     */
+    private static String rankedSort(String sortBy) {
+        String sort = StringUtils.hasText(sortBy) ? sortBy.toLowerCase(Locale.ROOT) : "";
+        return "salary".equals(sort) || "views".equals(sort) ? sort : null;
+    }
+
+    /**
+     * Trang {@code offset..offset+limit} theo lương (mức cao, rồi mức thấp; tin thỏa thuận xếp cuối) hoặc lượt xem,
+     * hòa thì tin mới trước. Chỉ giữ heap {@code offset + limit} phần tử thay vì sắp xếp toàn bộ kết quả.
+     */
+    private List<Integer> rank(Selection selection, String sort, int offset, int limit) {
+        int keep = offset + limit;
+        if (limit <= 0 || offset >= selection.total()) {
+            return List.of();
+        }
+        Comparator<IndexedJob> order = "salary".equals(sort)
+            ? Comparator.comparingLong(IndexedJob::salaryHigh).reversed()
+                .thenComparing(Comparator.comparingLong(IndexedJob::salaryLow).reversed())
+                .thenComparing(NEWEST_FIRST)
+            : Comparator.comparingLong((IndexedJob document) -> viewCounts.getOrDefault(document.id(), 0L)).reversed()
+                .thenComparing(NEWEST_FIRST);
+        // Đỉnh heap là phần tử xếp sau cùng trong số đang giữ
+        PriorityQueue<IndexedJob> top = new PriorityQueue<>(keep + 1, order.reversed());
+        for (IndexedJob document : selection.ordered()) {
+            if (!selection.accepts(document)) {
+                continue;
+            }
+            top.offer(document);
+            if (top.size() > keep) {
+                top.poll();
+            }
+        }
+        List<IndexedJob> ranked = new ArrayList<>(top);
+        ranked.sort(order);
+        List<Integer> ids = new ArrayList<>(limit);
+        for (int i = offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).id());
+        }
+        return ids;
+    }
+
+    /**
+     * Áp bộ lọc, gọi khi đang giữ read lock. Tập ứng viên nhỏ được lọc và sắp xếp sẵn;
+     * ngược lại giao các bitmap và duyệt thẳng trên newestOrder.
+     */
+    private Selection select(String keyword, String location, String employmentType, Collection<Integer> categoryIds,
+                             Long minSalary, Long maxSalary) {
+        long today = LocalDate.now().toEpochDay();
+        List<Postings> filters = new ArrayList<>();
+        collectTermFilters(keywordPostings, tokenize(keyword), filters);
+        collectTermFilters(locationPostings, tokenize(location), filters);
+        collectSalaryFilters(minSalary, maxSalary, filters);
+        Postings typeFilter = typeFilter(employmentType);
+        if (typeFilter != null) {
+            filters.add(typeFilter);
+        }
+        Postings categoryFilter = categoryFilter(categoryIds);
+        if (categoryFilter != null) {
+            filters.add(categoryFilter);
+        }
+        filters.sort(Comparator.comparingInt(Postings::size));
+
+        if (!filters.isEmpty() && filters.get(0).isEmpty()) {
+            return new Selection(List.of(), null, 0);
+        }
+        if (!filters.isEmpty() && filters.get(0).isSmall()) {
+            List<IndexedJob> matches = new ArrayList<>();
+            filters.get(0).forEach(slot -> {
+                for (int i = 1; i < filters.size(); i++) {
+                    if (!filters.get(i).contains(slot)) {
+                        return;
+                    }
+                }
+                IndexedJob document = slotDocuments.get(slot);
+                if (document != null && !document.isExpired(today)) {
+                    matches.add(document);
+                }
+            });
+            matches.sort(NEWEST_FIRST);
+            return new Selection(matches, null, matches.size());
+        }
+
+        // Mọi bộ lọc đều lớn: giao các bitmap rồi duyệt theo thứ tự ngày đăng
+        BitSet matches = (BitSet) liveSlots.clone();
+        for (Postings filter : filters) {
+            filter.andInto(matches);
+        }
+        expiredSlots(today).ifPresent(matches::andNot);
+        return new Selection(newestOrder, matches, matches.cardinality());
+    }
+
+    /**
+     * Bitmap các slot còn hạn khớp mọi bộ lọc (gọi khi đang giữ read lock).
+     */
+    private BitSet matchingSlots(List<Postings> filters, long today) {
+        filters.sort(Comparator.comparingInt(Postings::size));
+        if (!filters.isEmpty() && filters.get(0).isSmall()) {
+            BitSet matches = new BitSet();
+            filters.get(0).forEach(slot -> {
+                for (int i = 1; i < filters.size(); i++) {
+                    if (!filters.get(i).contains(slot)) {
+                        return;
+                    }
+                }
+                IndexedJob document = slotDocuments.get(slot);
+                if (document != null && !document.isExpired(today)) {
+                    matches.set(slot);
+                }
+            });
+            return matches;
+        }
+        BitSet matches = (BitSet) liveSlots.clone();
+        for (Postings filter : filters) {
+            filter.andInto(matches);
+        }
+        expiredSlots(today).ifPresent(matches::andNot);
+        return matches;
+    }
+
+    private static BitSet restrict(BitSet scope, Postings filter) {
+        if (filter == null) {
+            return scope;
+        }
+        BitSet restricted = (BitSet) scope.clone();
+        filter.andInto(restricted);
+        return restricted;
+    }
+
+    private Postings typeFilter(String employmentType) {
+        if (!StringUtils.hasText(employmentType)) {
+            return null;
+        }
+        return typePostings.getOrDefault(normalizeKey(employmentType), Postings.EMPTY);
+    }
+
+    /**
+     * Nhiều danh mục được chọn thì lấy hợp (OR); null khi không lọc theo danh mục.
+     */
+    private Postings categoryFilter(Collection<Integer> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return null;
+        }
+        if (categoryIds.size() == 1) {
+            return categoryPostings.getOrDefault(categoryIds.iterator().next(), Postings.EMPTY);
+        }
+        Postings union = new Postings();
+        for (Integer categoryId : categoryIds) {
+            Postings postings = categoryPostings.get(categoryId);
+            if (postings != null) {
+                union.addAll(postings);
+            }
+        }
+        return union;
+    }
+
+    private void collect(Selection selection, boolean oldestFirst, int startIndex, int offset, int limit,
+                         List<Integer> target) {
+        List<IndexedJob> ordered = selection.ordered();
+        int step = oldestFirst ? -1 : 1;
+        int seen = 0;
+        for (int i = startIndex; i >= 0 && i < ordered.size() && target.size() < limit; i += step) {
+            IndexedJob document = ordered.get(i);
+            if (!selection.accepts(document)) {
+                continue;
+            }
+            if (seen++ >= offset) {
+                target.add(document.id());
+            }
+        }
+    }
+
+    private Optional<BitSet> expiredSlots(long today) {
+        NavigableMap<Long, Postings> expired = deadlinePostings.headMap(today, false);
+        if (expired.isEmpty()) {
+            return Optional.empty();
+        }
+        BitSet slots = new BitSet();
+        expired.values().forEach(postings -> postings.orInto(slots));
+        return Optional.of(slots);
+    }
+
+    /**
+     * Mỗi từ trong truy vấn phải khớp; từ cuối cùng được khớp theo tiền tố
+     * để người dùng gõ dở ("ke to") vẫn ra kết quả.
+     */
+    private void collectTermFilters(NavigableMap<String, Postings> postings, List<String> terms,
+                                    List<Postings> filters) {
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            if (i < terms.size() - 1) {
+                filters.add(postings.getOrDefault(term, Postings.EMPTY));
+                continue;
+            }
+            NavigableMap<String, Postings> range = postings.subMap(term, true, term + Character.MAX_VALUE, true);
+            if (range.size() <= 1) {
+                filters.add(range.isEmpty() ? Postings.EMPTY : range.firstEntry().getValue());
+            } else {
+                Postings union = new Postings();
+                range.values().forEach(union::addAll);
+                filters.add(union);
+            }
+        }
+    }
+
+    /**
+     * Lọc lương theo khoảng giao nhau: mức cao của job >= minSalary và mức thấp <= maxSalary.
+     * Job không có con số lương (thỏa thuận) bị loại khi có bộ lọc lương.
+     */
+    private void collectSalaryFilters(Long minSalary, Long maxSalary, List<Postings> filters) {
+        if (minSalary != null) {
+            filters.add(union(salaryHighPostings.tailMap(minSalary, true)));
+        }
+        if (maxSalary != null) {
+            filters.add(union(salaryLowPostings.headMap(maxSalary, true)));
+        }
+    }
+
+    private static Postings union(NavigableMap<Long, Postings> range) {
+        if (range.size() <= 1) {
+            return range.isEmpty() ? Postings.EMPTY : range.firstEntry().getValue();
+        }
+        Postings union = new Postings();
+        range.values().forEach(union::addAll);
+        return union;
+    }
+
+    private IndexedJob addDocument(Job job) {
+        int slot = freeSlots.isEmpty() ? slotDocuments.size() : freeSlots.pop();
+        IndexedJob document = toDocument(job, slot);
+        if (slot == slotDocuments.size()) {
+            slotDocuments.add(document);
+        } else {
+            slotDocuments.set(slot, document);
+        }
+        documents.put(document.id(), document);
+        viewCounts.put(document.id(), job.getViewCount() != null ? job.getViewCount().longValue() : 0L);
+        liveSlots.set(slot);
+        document.keywordTerms().forEach(term -> keywordPostings.computeIfAbsent(term, k -> new Postings()).add(slot));
+        document.locationTerms().forEach(term -> locationPostings.computeIfAbsent(term, k -> new Postings()).add(slot));
+        if (document.employmentType() != null) {
+            typePostings.computeIfAbsent(document.employmentType(), k -> new Postings()).add(slot);
+        }
+        document.categoryIds().forEach(categoryId -> categoryPostings.computeIfAbsent(categoryId, k -> new Postings()).add(slot));
+        if (document.locationKey() != null) {
+            locationFacetPostings.computeIfAbsent(document.locationKey(), k -> new Postings()).add(slot);
+            locationLabels.putIfAbsent(document.locationKey(), job.getLocation().trim());
+        }
+        if (document.deadlineEpochDay() != NO_DEADLINE) {
+            deadlinePostings.computeIfAbsent(document.deadlineEpochDay(), k -> new Postings()).add(slot);
+        }
+        if (document.hasSalary()) {
+            salaryLowPostings.computeIfAbsent(document.salaryLow(), k -> new Postings()).add(slot);
+            salaryHighPostings.computeIfAbsent(document.salaryHigh(), k -> new Postings()).add(slot);
+        }
+        return document;
+    }
+
+    private void removeDocument(Integer jobId, boolean maintainOrder) {
+        IndexedJob existing = documents.remove(jobId);
+        if (existing == null) {
+            return;
+        }
+        int slot = existing.slot();
+        viewCounts.remove(jobId);
+        existing.keywordTerms().forEach(term -> removePosting(keywordPostings, term, slot));
+        existing.locationTerms().forEach(term -> removePosting(locationPostings, term, slot));
+        if (existing.employmentType() != null) {
+            removePosting(typePostings, existing.employmentType(), slot);
+        }
+        existing.categoryIds().forEach(categoryId -> removePosting(categoryPostings, categoryId, slot));
+        if (existing.locationKey() != null) {
+            removePosting(locationFacetPostings, existing.locationKey(), slot);
+            if (!locationFacetPostings.containsKey(existing.locationKey())) {
+                locationLabels.remove(existing.locationKey());
+            }
+        }
+        if (existing.deadlineEpochDay() != NO_DEADLINE) {
+            removePosting(deadlinePostings, existing.deadlineEpochDay(), slot);
+        }
+        if (existing.hasSalary()) {
+            removePosting(salaryLowPostings, existing.salaryLow(), slot);
+            removePosting(salaryHighPostings, existing.salaryHigh(), slot);
+        }
+        slotDocuments.set(slot, null);
+        liveSlots.clear(slot);
+        freeSlots.push(slot);
+
+        if (maintainOrder) {
+            int position = Collections.binarySearch(newestOrder, existing, NEWEST_FIRST);
+            if (position >= 0) {
+                newestOrder.remove(position);
+            }
+        }
+    }
+
+    private <K> void removePosting(Map<K, Postings> postings, K key, int slot) {
+        Postings slots = postings.get(key);
+        if (slots != null) {
+            slots.remove(slot);
+            if (slots.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private IndexedJob toDocument(Job job, int slot) {
+        Set<String> keywordTerms = new HashSet<>();
+        keywordTerms.addAll(tokenize(job.getTitle()));
+        keywordTerms.addAll(tokenize(VietnameseTextAnalyzer.stripHtml(job.getDescription())));
+        keywordTerms.addAll(tokenize(VietnameseTextAnalyzer.stripHtml(job.getJobRequirements())));
+
+        Set<String> locationTerms = new HashSet<>(tokenize(job.getLocation()));
+        if (job.getEmployer() != null) {
+            keywordTerms.addAll(tokenize(job.getEmployer().getCompanyName()));
+            locationTerms.addAll(tokenize(job.getEmployer().getAddress()));
+        }
+
+        Set<Integer> categoryIds = new HashSet<>();
+        if (job.getCategories() != null) {
+            for (Category category : job.getCategories()) {
+                categoryIds.add(category.getId());
+            }
+        }
+
+        long createdAt = KeysetCursor.toEpochMicros(job.getCreatedAt());
+        long deadline = job.getDeadline() != null ? job.getDeadline().toEpochDay() : NO_DEADLINE;
+        String employmentType = StringUtils.hasText(job.getEmploymentType()) ? normalizeKey(job.getEmploymentType()) : null;
+        String locationKey = VietnameseTextAnalyzer.normalizeOrNull(job.getLocation());
+
+        // Tin cũ chưa được SalaryBackfillService xử lý thì phân tích tại chỗ
+        Long salaryMin = job.getSalaryMin();
+        Long salaryMax = job.getSalaryMax();
+        if (job.getSalaryNegotiable() == null) {
+            SalaryParser.ParsedSalary parsed = SalaryParser.parse(job.getSalary());
+            salaryMin = parsed.minMonthlyVnd();
+            salaryMax = parsed.maxMonthlyVnd();
+        }
+        long salaryLow = salaryMin != null ? salaryMin : salaryMax != null ? salaryMax : NO_SALARY;
+        long salaryHigh = salaryMax != null ? salaryMax : salaryMin != null ? salaryMin : NO_SALARY;
+
+        return new IndexedJob(job.getId(), slot, createdAt, deadline, employmentType, locationKey, salaryLow, salaryHigh,
+            Set.copyOf(categoryIds), Set.copyOf(keywordTerms), Set.copyOf(locationTerms));
+    }
+
+    /**
+     * Term đã bỏ dấu, không trùng lặp, giữ thứ tự xuất hiện ("Kế toán" và "ke toan" cho cùng kết quả).
+     */
+    static List<String> tokenize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return List.of();
+        }
+        return new ArrayList<>(new LinkedHashSet<>(VietnameseTextAnalyzer.terms(text)));
+    }
+
+    private static String normalizeKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record SearchResult(List<Integer> jobIds, long total) {
+    }
+
+    /**
+     * Số đếm facet; khóa hình thức đã chuẩn hóa chữ thường, địa điểm sắp theo số việc giảm dần.
+     */
+    public record FacetCounts(Map<Integer, Long> categories, Map<String, Long> employmentTypes,
+                              List<LocationFacet> locations, long total) {
+
+        public long categoryCount(Integer categoryId) {
+            return categories.getOrDefault(categoryId, 0L);
+        }
+
+        public long employmentTypeCount(String employmentType) {
+            return employmentType == null ? 0L : employmentTypes.getOrDefault(normalizeKey(employmentType), 0L);
+        }
+    }
+
+    public record LocationFacet(String key, String label, long count) {
+    }
+
+    /**
+     * Kết quả lọc: danh sách theo thứ tự mới nhất, kèm bitmap khi phải lọc tiếp trong lúc duyệt.
+     */
+    private record Selection(List<IndexedJob> ordered, BitSet matches, long total) {
+
+        boolean accepts(IndexedJob document) {
+            return matches == null || matches.get(document.slot());
+        }
+
+        /**
+         * Vị trí bắt đầu duyệt: đầu/cuối danh sách, hoặc ngay sau con trỏ theo chiều duyệt.
+         */
+        int startIndex(boolean oldestFirst, KeysetCursor cursor) {
+            if (cursor == null) {
+                return oldestFirst ? ordered.size() - 1 : 0;
+            }
+            IndexedJob probe = new IndexedJob(cursor.id(), -1, cursor.value(), NO_DEADLINE, null, null,
+                NO_SALARY, NO_SALARY, Set.of(), Set.of(), Set.of());
+            int position = Collections.binarySearch(ordered, probe, NEWEST_FIRST);
+            if (position >= 0) {
+                return oldestFirst ? position - 1 : position + 1;
+            }
+            int insertion = -position - 1;
+            return oldestFirst ? insertion - 1 : insertion;
+        }
+    }
+
+    private record IndexedJob(
+        int id,
+        int slot,
+        long createdAt,
+        long deadlineEpochDay,
+        String employmentType,
+        String locationKey,
+        long salaryLow,
+        long salaryHigh,
+        Set<Integer> categoryIds,
+        Set<String> keywordTerms,
+        Set<String> locationTerms
+    ) {
+        boolean isExpired(long todayEpochDay) {
+            return deadlineEpochDay < todayEpochDay;
+        }
+
+        boolean hasSalary() {
+            return salaryLow != NO_SALARY;
+        }
+    }
+
+    /**
+     * Posting list theo slot: tập nhỏ giữ dạng mảng int đã sắp xếp (4 byte/slot),
+     * vượt ngưỡng thì chuyển sang BitSet (1 bit/slot trên toàn dải slot).
+     */
+    private static final class Postings {
+
+        private static final int BITMAP_THRESHOLD = 4096;
+        private static final Postings EMPTY = new Postings();
+
+        private int[] small = new int[4];
+        private BitSet bitmap;
+        private int size;
+
+        void add(int slot) {
+            if (bitmap != null) {
+                if (!bitmap.get(slot)) {
+                    bitmap.set(slot);
+                    size++;
+                }
+                return;
+            }
+            int position = Arrays.binarySearch(small, 0, size, slot);
+            if (position >= 0) {
+                return;
+            }
+            if (size == BITMAP_THRESHOLD) {
+                bitmap = new BitSet();
+                for (int i = 0; i < size; i++) {
+                    bitmap.set(small[i]);
+                }
+                bitmap.set(slot);
+                small = null;
+                size++;
+                return;
+            }
+            int insertion = -position - 1;
+            if (size == small.length) {
+                small = Arrays.copyOf(small, Math.min(size * 2, BITMAP_THRESHOLD));
+            }
+            System.arraycopy(small, insertion, small, insertion + 1, size - insertion);
+            small[insertion] = slot;
+            size++;
+        }
+
+        void addAll(Postings other) {
+            other.forEach(this::add);
+        }
+
+        void remove(int slot) {
+            if (bitmap != null) {
+                if (bitmap.get(slot)) {
+                    bitmap.clear(slot);
+                    size--;
+                }
+                return;
+            }
+            int position = Arrays.binarySearch(small, 0, size, slot);
+            if (position >= 0) {
+                System.arraycopy(small, position + 1, small, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int slot) {
+            return bitmap != null ? bitmap.get(slot) : Arrays.binarySearch(small, 0, size, slot) >= 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean isSmall() {
+            return bitmap == null;
+        }
+
+        void forEach(IntConsumer action) {
+            if (bitmap != null) {
+                for (int slot = bitmap.nextSetBit(0); slot >= 0; slot = bitmap.nextSetBit(slot + 1)) {
+                    action.accept(slot);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    action.accept(small[i]);
+                }
+            }
+        }
+
+        void orInto(BitSet target) {
+            if (bitmap != null) {
+                target.or(bitmap);
+            } else {
+                forEach(target::set);
+            }
+        }
+
+        void andInto(BitSet target) {
+            if (bitmap != null) {
+                target.and(bitmap);
+            } else {
+                BitSet slots = new BitSet();
+                orInto(slots);
+                target.and(slots);
+            }
+        }
+
+        /**
+         * Số slot vừa thuộc posting list vừa thuộc {@code scope}; {@code scratch} được dùng lại giữa các lần gọi.
+         */
+        long countIn(BitSet scope, BitSet scratch) {
+            if (bitmap == null) {
+                long count = 0;
+                for (int i = 0; i < size; i++) {
+                    if (scope.get(small[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            scratch.clear();
+            scratch.or(bitmap);
+            scratch.and(scope);
+            return scratch.cardinality();
+        }
+    }
+}
@@ -10,18 +10,26 @@ import com.example.JobFinder.repository.CandidateRepository;
 import com.example.JobFinder.repository.JobRepository;
 import com.example.JobFinder.repository.JobViewRepository;
 import com.example.JobFinder.repository.SavedJobRepository;
+import com.example.JobFinder.util.KeysetCursor;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +41,18 @@ public class JobService {
     private final SavedJobRepository savedJobRepository;
     private final ApplicationRepository applicationRepository;
     private final CandidateRepository candidateRepository;
+    private final JobSearchIndex jobSearchIndex;
+    private final JobViewCounter jobViewCounter;
+    private final JobViewDeduplicator jobViewDeduplicator;
+    private final ViewerSketchService viewerSketchService;
+    private final BulkNotificationService bulkNotificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private static final int MAX_CACHED_COUNTS = 1000;
+    private final Map<String, CachedCount> listingCounts = new ConcurrentHashMap<>();
+    
+    @Value("${jobfinder.listing.count-cache-seconds:60}")
+    private long countCacheSeconds;
     
     /**
      * Get paginated published jobs with filters
@@ -42,16 +62,40 @@ public class JobService {
             String keyword,
             String location,
             String employmentType,
-            Integer categoryId,
+            List<Integer> categoryIds,
+            Long minSalary,
+            Long maxSalary,
             String sortBy,
             int page,
             int perPage) {
         
+        // Ưu tiên chỉ mục trong bộ nhớ; chỉ nạp chi tiết cho các job thuộc trang hiện tại
+        Optional<JobSearchIndex.SearchResult> indexed = jobSearchIndex.search(
+            keyword, location, employmentType, categoryIds, minSalary, maxSalary, sortBy, page, perPage
+        );
+        if (indexed.isPresent()) {
+            JobSearchIndex.SearchResult searchResult = indexed.get();
+            List<Map<String, Object>> jobs = loadJobsInOrder(searchResult.jobIds()).stream()
+                    .map(this::jobToMap)
+                    .collect(Collectors.toList());
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("jobs", jobs);
+            result.put("total", searchResult.total());
+            result.put("totalPages", (int) Math.ceil((double) searchResult.total() / perPage));
+            result.put("currentPage", page);
+            result.put("perPage", perPage);
+            
+            return result;
+        }
+        
+        // Chỉ mục đang dựng (hoặc bị tắt): tạm dùng truy vấn tiền tố trên các cột đã chuẩn hóa
         Sort sort = getSort(sortBy);
         Pageable pageable = PageRequest.of(page - 1, perPage, sort);
         
         Page<Job> jobPage = jobRepository.findPublishedJobsWithFilters(
-            keyword, location, employmentType, categoryId, pageable
+            VietnameseTextAnalyzer.prefixPattern(keyword), VietnameseTextAnalyzer.prefixPattern(location),
+            employmentType, hasCategories(categoryIds), categoryParam(categoryIds), minSalary, maxSalary, pageable
         );
         
         List<Map<String, Object>> jobs = jobPage.getContent().stream()
@@ -68,6 +112,107 @@ public class JobService {
         return result;
     }
     
+    /**
+     * Whether a sort has a keyset (createdAt, id); salary/views only support offset paging.
+     */
+    public static boolean supportsCursor(String sortBy) {
+        return sortBy == null || "newest".equalsIgnoreCase(sortBy) || "oldest".equalsIgnoreCase(sortBy);
+    }
+    
+    /**
+     * Get published jobs page after an opaque keyset cursor (createdAt, id).
+     * Only newest/oldest are keyset-able (see {@link #supportsCursor}); other sorts are served as newest,
+     * and the applied sort is returned under "sort" so callers never label the list with the requested one.
+     * The total is optional and served from a short-lived cache when requested.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPublishedJobsByCursor(
+            String keyword,
+            String location,
+            String employmentType,
+            List<Integer> categoryIds,
+            Long minSalary,
+            Long maxSalary,
+            String sortBy,
+            String cursor,
+            int perPage,
+            boolean includeTotal) {
+        
+        String sort = "oldest".equalsIgnoreCase(sortBy) ? "oldest" : "newest";
+        KeysetCursor after = KeysetCursor.decode(cursor, sort).orElse(null);
+        
+        List<Integer> jobIds;
+        Long total = null;
+        Optional<JobSearchIndex.SearchResult> indexed = jobSearchIndex.searchAfter(
+            keyword, location, employmentType, categoryIds, minSalary, maxSalary, sort, after, perPage + 1
+        );
+        if (indexed.isPresent()) {
+            jobIds = indexed.get().jobIds();
+            total = includeTotal ? indexed.get().total() : null;
+        } else {
+            String keywordPrefix = VietnameseTextAnalyzer.prefixPattern(keyword);
+            String locationPrefix = VietnameseTextAnalyzer.prefixPattern(location);
+            LocalDateTime cursorTime = after != null ? after.createdAt() : null;
+            Integer cursorId = after != null ? after.id() : null;
+            Pageable limit = PageRequest.of(0, perPage + 1);
+            boolean anyCategory = hasCategories(categoryIds);
+            Collection<Integer> categoryParam = categoryParam(categoryIds);
+            
+            jobIds = "oldest".equals(sort)
+                ? jobRepository.findPublishedIdsAfterCursor(keywordPrefix, locationPrefix, employmentType, anyCategory, categoryParam, minSalary, maxSalary, cursorTime, cursorId, limit)
+                : jobRepository.findPublishedIdsBeforeCursor(keywordPrefix, locationPrefix, employmentType, anyCategory, categoryParam, minSalary, maxSalary, cursorTime, cursorId, limit);
+            if (includeTotal) {
+                String countKey = String.join("|", "jobs", keywordPrefix, locationPrefix,
+                    String.valueOf(employmentType), String.valueOf(new TreeSet<>(categoryParam)),
+                    String.valueOf(minSalary), String.valueOf(maxSalary));
+                total = cachedCount(countKey, () -> jobRepository.countPublishedJobsWithFilters(
+                    keywordPrefix, locationPrefix, employmentType, anyCategory, categoryParam, minSalary, maxSalary));
+            }
+        }
+        
+        boolean hasNext = jobIds.size() > perPage;
+        List<Job> jobs = loadJobsInOrder(hasNext ? jobIds.subList(0, perPage) : jobIds);
+        
+        String nextCursor = null;
+        if (hasNext && !jobs.isEmpty()) {
+            Job last = jobs.get(jobs.size() - 1);
+            nextCursor = KeysetCursor.ofCreatedAt(sort, last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("jobs", jobs.stream().map(this::jobToMap).collect(Collectors.toList()));
+        result.put("total", total);
+        result.put("hasNext", hasNext);
+        result.put("nextCursor", nextCursor);
+        result.put("perPage", perPage);
+        result.put("sort", sort);
+        
+        return result;
+    }
+    
+    /**
+     * Live facet counts (category / employment type / location) for the current listing query.
+     * Served from the in-memory index only; empty while it is (re)building so the sidebar simply hides the numbers.
+     */
+    public Optional<JobSearchIndex.FacetCounts> getJobFacets(
+            String keyword,
+            String location,
+            String employmentType,
+            List<Integer> categoryIds,
+            Long minSalary,
+            Long maxSalary) {
+        return jobSearchIndex.facets(keyword, location, employmentType, categoryIds, minSalary, maxSalary);
+    }
+    
+    private static boolean hasCategories(List<Integer> categoryIds) {
+        return categoryIds != null && !categoryIds.isEmpty();
+    }
+    
+    // JPQL "IN :list" cannot take an empty list; 0 is never a category id
+    private static Collection<Integer> categoryParam(List<Integer> categoryIds) {
+        return hasCategories(categoryIds) ? categoryIds : List.of(0);
+    }
+    
     /**
      * Get hot jobs (sorted by view count)
      */
@@ -91,6 +236,75 @@ public class JobService {
         return result;
     }
     
+    /**
+     * Get hot jobs page after an opaque keyset cursor (score, id)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getHotJobsByCursor(String cursor, int perPage, boolean includeTotal) {
+        KeysetCursor after = KeysetCursor.decode(cursor, "hot").orElse(null);
+        
+        List<Object[]> rows = jobRepository.findHotJobIdsBeforeCursor(
+            after != null ? after.value() : null,
+            after != null ? after.id() : null,
+            PageRequest.of(0, perPage + 1)
+        );
+        
+        boolean hasNext = rows.size() > perPage;
+        List<Object[]> pageRows = hasNext ? rows.subList(0, perPage) : rows;
+        List<Integer> jobIds = pageRows.stream()
+                .map(r -> ((Number) r[0]).intValue())
+                .toList();
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = KeysetCursor.ofScore("hot", ((Number) last[1]).longValue(), ((Number) last[0]).intValue()).encode();
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("jobs", loadJobsInOrder(jobIds).stream().map(this::jobToMap).collect(Collectors.toList()));
+        result.put("total", includeTotal ? cachedCount("hot", jobRepository::countActivePublished) : null);
+        result.put("hasNext", hasNext);
+        result.put("nextCursor", nextCursor);
+        result.put("perPage", perPage);
+        
+        return result;
+    }
+    
+    /**
+     * Change a job's status; applicants still in progress are notified in the same transaction when it closes.
+     * Errors propagate out of this transaction so callers can show them without committing a rollback-only one.
+     */
+    @Transactional
+    public void updateStatus(Integer jobId, String status) {
+        Job job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy tin tuyển dụng"));
+        if (!List.of("draft", "published", "closed").contains(status)) {
+            throw new IllegalArgumentException("Trạng thái không hợp lệ");
+        }
+        
+        boolean closing = "closed".equals(status) && !"closed".equals(job.getStatus());
+        job.setStatus(status);
+        jobRepository.save(job);
+        eventPublisher.publishEvent(new JobChangedEvent(jobId));
+        if (closing) {
+            bulkNotificationService.notifyJobApplicants(jobId, BulkNotificationService.jobClosed(job));
+        }
+    }
+    
+    /**
+     * Delete a job after notifying its pending applicants (applications are removed by ON DELETE CASCADE),
+     * all in one transaction; errors propagate to the caller.
+     */
+    @Transactional
+    public void deleteJob(Integer jobId) {
+        Job job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy tin tuyển dụng"));
+        bulkNotificationService.notifyJobApplicants(jobId, BulkNotificationService.jobRemoved(job));
+        jobRepository.delete(job);
+        eventPublisher.publishEvent(new JobChangedEvent(jobId));
+    }
+    
     /**
      * Get job detail and record view
      */
@@ -104,16 +318,16 @@ public class JobService {
         
         Job job = jobOpt.get();
         
-        // Record view (check if not viewed recently to avoid duplicates)
+        // Record view (skip IPs that already viewed this job within the dedupe window)
         if (viewerIp != null && !viewerIp.isEmpty()) {
-            LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-            long recentViews = jobViewRepository.countRecentViewByJobIdAndIp(jobId, viewerIp, oneHourAgo);
-            
-            if (recentViews == 0) {
+            Integer employerId = job.getEmployer() != null ? job.getEmployer().getId() : null;
+            viewerSketchService.record(jobId, employerId, viewerIp, LocalDate.now());
+            if (jobViewDeduplicator.isFirstView(jobId, viewerIp)) {
                 JobView jobView = new JobView();
                 jobView.setJob(job);
                 jobView.setViewerIp(viewerIp);
                 jobViewRepository.save(jobView);
+                jobViewCounter.record(jobId);
             }
         }
         
@@ -197,7 +411,8 @@ public class JobService {
         }
 
         Pageable pageable = PageRequest.of(0, limit);
-        List<Object[]> rows = jobRepository.findRecommendedJobIds(candidateId, candidateOpt.get().getLocation(), pageable);
+        String location = VietnameseTextAnalyzer.normalizeOrNull(candidateOpt.get().getLocation());
+        List<Object[]> rows = jobRepository.findRecommendedJobIds(candidateId, location, pageable);
 
         if (rows.isEmpty()) {
             return getTopViewedJobs(limit);
@@ -253,6 +468,7 @@ public class JobService {
         if (existing.isPresent()) {
             // Unsave
             savedJobRepository.delete(existing.get());
+            eventPublisher.publishEvent(HeaderContextChangedEvent.forCandidate(candidateId));
             return false;
         } else {
             // Save
@@ -262,6 +478,7 @@ public class JobService {
             savedJob.setJob(new Job());
             savedJob.getJob().setId(jobId);
             savedJobRepository.save(savedJob);
+            eventPublisher.publishEvent(HeaderContextChangedEvent.forCandidate(candidateId));
             return true;
         }
     }
@@ -345,12 +562,14 @@ public class JobService {
         map.put("requirements", job.getJobRequirements()); // Alias for template
         map.put("location", job.getLocation() != null ? job.getLocation() : "Toàn quốc");
         map.put("salary", job.getSalary() != null ? job.getSalary() : "Thỏa thuận");
+        map.put("salaryMin", job.getSalaryMin());
+        map.put("salaryMax", job.getSalaryMax());
         map.put("employmentType", job.getEmploymentType() != null ? job.getEmploymentType() : "Full-time");
         map.put("bannerImage", job.getBannerImage());
         map.put("status", job.getStatus());
         map.put("quantity", job.getQuantity());
         map.put("deadline", job.getDeadline());
-        map.put("viewCount", jobViewRepository.countByJobId(job.getId()));
+        map.put("viewCount", jobViewCounter.viewCount(job));
         map.put("createdAt", job.getCreatedAt());
         map.put("updatedAt", job.getUpdatedAt());
         
@@ -416,6 +635,41 @@ public class JobService {
         return map;
     }
     
+    /**
+     * Load jobs by IDs keeping the given order
+     */
+    private List<Job> loadJobsInOrder(List<Integer> jobIds) {
+        if (jobIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Job> jobMap = jobRepository.findByIdInWithDetails(jobIds).stream()
+                .collect(Collectors.toMap(Job::getId, j -> j));
+        return jobIds.stream()
+                .map(jobMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Serve listing totals from a short-lived cache so cursor pages don't COUNT on every request
+     */
+    private long cachedCount(String key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = listingCounts.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+        if (listingCounts.size() >= MAX_CACHED_COUNTS) {
+            listingCounts.clear();
+        }
+        long value = counter.getAsLong();
+        listingCounts.put(key, new CachedCount(value, now + countCacheSeconds * 1000));
+        return value;
+    }
+    
+    private record CachedCount(long value, long expiresAt) {
+    }
+    
     /**
      * Get sort object based on sort string
      */
@@ -427,7 +681,11 @@ public class JobService {
         return switch (sortBy.toLowerCase()) {
             case "oldest" -> Sort.by(Sort.Direction.ASC, "createdAt");
             case "views" -> Sort.by(Sort.Direction.DESC, "viewCount");
-            case "salary" -> Sort.by(Sort.Direction.DESC, "salary");
+            // Numeric parsed salary (monthly VND), same order as JobSearchIndex: an open-ended "Từ 20 triệu"
+            // ranks by its floor instead of sinking with the NULL maximum; negotiable (both NULL) last on DESC
+            case "salary" -> JpaSort.unsafe(Sort.Direction.DESC,
+                    "COALESCE(j.salaryMax, j.salaryMin)", "COALESCE(j.salaryMin, j.salaryMax)")
+                .and(Sort.by(Sort.Direction.DESC, "createdAt"));
             default -> Sort.by(Sort.Direction.DESC, "createdAt"); // newest
         };
     }
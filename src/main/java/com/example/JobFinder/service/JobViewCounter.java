@@ -0,0 +1,189 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.model.Job;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bộ đếm lượt xem ghi trễ (write-behind) cho cột jobs.view_count.
+ *
+ * Mỗi lượt xem chỉ tăng một LongAdder trong bộ nhớ; định kỳ các số dư được cộng vào DB
+ * bằng một lô "UPDATE jobs SET view_count = view_count + ?". Bảng đếm được xoay theo thế hệ:
+ * lần flush chỉ ghi thế hệ đã nghỉ từ chu kỳ trước, nên không mất lượt tăng đang dở dang.
+ * Đối soát định kỳ đặt lại view_count theo job_view_daily cộng các dòng job_views chưa gộp.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobViewCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobViewRollupService jobViewRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${jobfinder.views.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    private volatile Map<Integer, LongAdder> current = new ConcurrentHashMap<>();
+    private volatile Map<Integer, LongAdder> retired = new ConcurrentHashMap<>();
+    private volatile Map<Integer, LongAdder> flushing = Map.of();
+    private final Object flushLock = new Object();
+
+    /**
+     * Ghi nhận một lượt xem (gọi cùng lúc với việc lưu dòng job_views).
+     */
+    public void record(Integer jobId) {
+        if (jobId == null) {
+            return;
+        }
+        current.computeIfAbsent(jobId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Số lượt xem đã ghi nhận nhưng chưa flush xuống DB.
+     */
+    public long pendingViews(Integer jobId) {
+        if (jobId == null) {
+            return 0L;
+        }
+        return sum(current.get(jobId)) + sum(retired.get(jobId)) + sum(flushing.get(jobId));
+    }
+
+    /**
+     * Lượt xem hiển thị: cột view_count đã nạp cộng phần chưa flush.
+     */
+    public long viewCount(Job job) {
+        long stored = job.getViewCount() != null ? job.getViewCount() : 0L;
+        return stored + pendingViews(job.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${jobfinder.views.flush-ms:5000}", initialDelayString = "${jobfinder.views.flush-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Integer, LongAdder> toFlush = retired;
+            retired = current;
+            current = new ConcurrentHashMap<>();
+            write(toFlush);
+        }
+    }
+
+    /**
+     * Ghi hết cả hai thế hệ (dùng khi tắt ứng dụng và trước khi đối soát).
+     */
+    @PreDestroy
+    public void flushAll() {
+        synchronized (flushLock) {
+            Map<Integer, LongAdder> toFlush = retired;
+            Map<Integer, LongAdder> active = current;
+            retired = new ConcurrentHashMap<>();
+            current = new ConcurrentHashMap<>();
+            write(toFlush);
+            write(active);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+        CompletableFuture.runAsync(this::reconcile)
+            .exceptionally(ex -> {
+                log.warn("Không thể đối soát lượt xem: {}", ex.getMessage());
+                return null;
+            });
+    }
+
+    /**
+     * Đặt lại view_count theo nguồn gốc (job_view_daily + dòng job_views sau mốc gộp), sửa sai lệch
+     * do flush lỗi hoặc tắt đột ngột. Lượt xem đến đúng lúc đang đối soát có thể bị tính hai lần;
+     * lần đối soát sau sẽ sửa lại.
+     */
+    @Scheduled(cron = "${jobfinder.views.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        synchronized (flushLock) {
+            flushAll();
+            long started = System.currentTimeMillis();
+            Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update("""
+                UPDATE jobs j
+                LEFT JOIN (
+                    SELECT job_id, SUM(views) AS views
+                    FROM job_view_daily
+                    GROUP BY job_id
+                ) d ON d.job_id = j.id
+                LEFT JOIN (
+                    SELECT job_id, COUNT(*) AS views, MAX(viewed_at) AS last_viewed
+                    FROM job_views
+                    WHERE id > ?
+                    GROUP BY job_id
+                ) r ON r.job_id = j.id
+                SET j.view_count = COALESCE(d.views, 0) + COALESCE(r.views, 0),
+                    j.last_viewed_at = COALESCE(r.last_viewed, j.last_viewed_at)
+                WHERE j.view_count <> COALESCE(d.views, 0) + COALESCE(r.views, 0)
+                   OR (r.last_viewed IS NOT NULL AND NOT (j.last_viewed_at <=> r.last_viewed))
+                """, jobViewRollupService.lockWatermark()));
+            log.info("Đã đối soát lượt xem: {} tin được cập nhật trong {} ms",
+                updated, System.currentTimeMillis() - started);
+        }
+    }
+
+    private void write(Map<Integer, LongAdder> counters) {
+        if (counters.isEmpty()) {
+            return;
+        }
+        flushing = counters;
+        try {
+            writeBatch(counters);
+        } finally {
+            flushing = Map.of();
+        }
+    }
+
+    private void writeBatch(Map<Integer, LongAdder> counters) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(counters.size());
+        counters.forEach((jobId, adder) -> {
+            long delta = adder.sum();
+            if (delta > 0) {
+                batch.add(new Object[] {delta, now, jobId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                "UPDATE jobs SET view_count = view_count + ?, last_viewed_at = ? WHERE id = ?", batch);
+        } catch (RuntimeException ex) {
+            // Trả số dư về thế hệ hiện tại để lần flush sau ghi lại
+            log.warn("Không thể ghi {} bộ đếm lượt xem, sẽ thử lại: {}", batch.size(), ex.getMessage());
+            batch.forEach(row -> current.computeIfAbsent((Integer) row[2], id -> new LongAdder()).add((Long) row[0]));
+            return;
+        }
+        Map<Integer, Long> deltas = new HashMap<>(batch.size() * 2);
+        batch.forEach(row -> deltas.put((Integer) row[2], (Long) row[0]));
+        eventPublisher.publishEvent(new JobViewsFlushedEvent(deltas));
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder != null ? adder.sum() : 0L;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.util.RotatingBloomFilter;
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Khử trùng lượt xem theo (tin, IP) trong cửa sổ gần đây mà không truy vấn job_views.
+ *
+ * Dùng {@link RotatingBloomFilter} chia lát 10 phút: quyết định trong thời gian hằng, bộ nhớ cố định.
+ * Đổi lại có thể bỏ sót một tỷ lệ nhỏ lượt xem mới (dương tính giả) và quên trạng thái khi khởi động lại.
+ */
+@Service
+@Slf4j
+public class JobViewDeduplicator {
+
+    @Value("${jobfinder.views.dedupe.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${jobfinder.views.dedupe.slice-minutes:10}")
+    private long sliceMinutes;
+
+    @Value("${jobfinder.views.dedupe.expected-per-slice:200000}")
+    private int expectedPerSlice;
+
+    @Value("${jobfinder.views.dedupe.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private RotatingBloomFilter filter;
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        filter = new RotatingBloomFilter(windowMinutes * 60_000L, sliceMinutes * 60_000L,
+            expectedPerSlice, falsePositiveRate);
+        log.info("Bộ khử trùng lượt xem: {} lát x {} phút, {} KB",
+            filter.sliceCount(), sliceMinutes, filter.memoryBytes() / 1024);
+    }
+
+    /**
+     * true nếu đây là lượt xem đầu tiên của IP với tin trong cửa sổ (cần ghi nhận).
+     */
+    public boolean isFirstView(Integer jobId, String viewerIp) {
+        checks.increment();
+        boolean first = filter.add(jobId + "|" + viewerIp, System.currentTimeMillis());
+        if (!first) {
+            duplicates.increment();
+        }
+        return first;
+    }
+
+    /**
+     * Số liệu theo dõi: tỷ lệ lấp đầy bộ lọc và tỷ lệ lượt xem bị loại vì trùng.
+     */
+    public Map<String, Object> metrics() {
+        long total = checks.sum();
+        long hits = duplicates.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("checks", total);
+        metrics.put("duplicates", hits);
+        metrics.put("dedupeHitRate", total == 0 ? 0.0 : (double) hits / total);
+        metrics.put("fillRatio", filter.fillRatio(System.currentTimeMillis()));
+        metrics.put("slices", filter.sliceCount());
+        metrics.put("memoryBytes", filter.memoryBytes());
+        metrics.put("targetFalsePositiveRate", falsePositiveRate);
+        return metrics;
+    }
+}
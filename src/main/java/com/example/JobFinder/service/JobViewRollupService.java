@@ -0,0 +1,145 @@
+package com.example.JobFinder.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gộp dòng thô job_views vào job_view_hourly/job_view_daily và dọn dòng thô đã gộp.
+ *
+ * Mốc nước (job_view_rollup_state.last_view_id) là id job_views lớn nhất đã gộp. Mỗi lô cộng dồn
+ * khoảng id (mốc, hi] vào hai bảng tổng hợp rồi dời mốc trong cùng một giao dịch, khóa dòng mốc
+ * bằng FOR UPDATE: bị ngắt giữa chừng thì lô đó rollback nguyên vẹn, chạy lại không cộng trùng.
+ * Chỉ gộp dòng cũ hơn {@code lag-seconds} để các giao dịch chèn id nhỏ hơn kịp commit.
+ * Số lượt xem của một tin = tổng job_view_daily + số dòng thô có id lớn hơn mốc.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobViewRollupService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jobfinder.views.rollup.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${jobfinder.views.rollup.lag-seconds:60}")
+    private long lagSeconds;
+
+    @Value("${jobfinder.views.retention.raw-days:30}")
+    private int rawRetentionDays;
+
+    @Value("${jobfinder.views.retention.hourly-days:90}")
+    private int hourlyRetentionDays;
+
+    @Value("${jobfinder.views.retention.max-batches:20}")
+    private int maxCompactionBatches;
+
+    @Scheduled(fixedDelayString = "${jobfinder.views.rollup.interval-ms:300000}", initialDelayString = "${jobfinder.views.rollup.interval-ms:300000}")
+    public void scheduledRollup() {
+        try {
+            rollup();
+        } catch (RuntimeException ex) {
+            log.warn("Không thể gộp lượt xem: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Gộp toàn bộ dòng thô đủ cũ sau mốc; trả về số dòng đã gộp.
+     */
+    public int rollup() {
+        int total = 0;
+        while (true) {
+            Integer rolled = transactionTemplate.execute(status -> rollupBatch());
+            if (rolled == null || rolled == 0) {
+                break;
+            }
+            total += rolled;
+        }
+        if (total > 0) {
+            log.info("Đã gộp {} lượt xem vào bảng theo giờ/ngày", total);
+        }
+        return total;
+    }
+
+    private int rollupBatch() {
+        long watermark = lockWatermark();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusSeconds(lagSeconds));
+        Long high = jdbcTemplate.queryForObject("""
+                SELECT MAX(t.id) FROM (
+                    SELECT id FROM job_views WHERE id > ? AND viewed_at < ? ORDER BY id LIMIT ?
+                ) t
+                """, Long.class, watermark, cutoff, batchSize);
+        if (high == null) {
+            return 0;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO job_view_hourly (job_id, hour, views)
+                SELECT job_id, DATE_FORMAT(viewed_at, '%Y-%m-%d %H:00:00'), COUNT(*)
+                FROM job_views
+                WHERE id > ? AND id <= ?
+                GROUP BY job_id, DATE_FORMAT(viewed_at, '%Y-%m-%d %H:00:00')
+                ON DUPLICATE KEY UPDATE views = views + VALUES(views)
+                """, watermark, high);
+        jdbcTemplate.update("""
+                INSERT INTO job_view_daily (job_id, day, views)
+                SELECT job_id, DATE(viewed_at), COUNT(*)
+                FROM job_views
+                WHERE id > ? AND id <= ?
+                GROUP BY job_id, DATE(viewed_at)
+                ON DUPLICATE KEY UPDATE views = views + VALUES(views)
+                """, watermark, high);
+        jdbcTemplate.update("UPDATE job_view_rollup_state SET last_view_id = ?, updated_at = CURRENT_TIMESTAMP WHERE id = 1",
+            high);
+        return (int) (high - watermark);
+    }
+
+    /**
+     * Khóa dòng mốc tới hết giao dịch hiện tại và trả về giá trị mốc; dùng chung với đối soát
+     * lượt xem để việc gộp không dời mốc giữa lúc đang đếm.
+     */
+    public long lockWatermark() {
+        Long watermark = jdbcTemplate.queryForObject(
+            "SELECT last_view_id FROM job_view_rollup_state WHERE id = 1 FOR UPDATE", Long.class);
+        return watermark != null ? watermark : 0L;
+    }
+
+    /**
+     * Xóa dòng thô đã gộp và quá hạn giữ, cùng dữ liệu theo giờ quá hạn; mỗi lần chạy xóa tối đa
+     * {@code max-batches} lô để không giữ khóa lâu, phần còn lại để lần sau.
+     */
+    @Scheduled(cron = "${jobfinder.views.retention.cron:0 15 4 * * *}")
+    public void compact() {
+        rollup();
+        Long watermark = jdbcTemplate.queryForObject(
+            "SELECT last_view_id FROM job_view_rollup_state WHERE id = 1", Long.class);
+        Timestamp rawCutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(rawRetentionDays));
+        Timestamp hourlyCutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(hourlyRetentionDays));
+        int raw = deleteInBatches("DELETE FROM job_views WHERE id <= ? AND viewed_at < ? ORDER BY id LIMIT ?",
+            watermark != null ? watermark : 0L, rawCutoff);
+        int hourly = deleteInBatches("DELETE FROM job_view_hourly WHERE hour < ? LIMIT ?", hourlyCutoff);
+        log.info("Đã dọn {} lượt xem thô và {} dòng theo giờ", raw, hourly);
+    }
+
+    private int deleteInBatches(String sql, Object... args) {
+        Object[] params = new Object[args.length + 1];
+        System.arraycopy(args, 0, params, 0, args.length);
+        params[args.length] = batchSize;
+        int deleted = 0;
+        for (int i = 0; i < maxCompactionBatches; i++) {
+            int removed = jdbcTemplate.update(sql, params);
+            deleted += removed;
+            if (removed < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
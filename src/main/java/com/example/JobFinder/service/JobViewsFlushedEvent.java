@@ -0,0 +1,10 @@
+package com.example.JobFinder.service;
+
+import java.util.Map;
+
+/**
+ * Phát ra sau khi JobViewCounter ghi xong một lô lượt xem vào jobs.view_count (job id → số lượt vừa cộng).
+ * Chỉ mục tìm kiếm dùng để giữ thứ tự "nhiều lượt xem" khớp với DB mà không phải lập chỉ mục lại.
+ */
+public record JobViewsFlushedEvent(Map<Integer, Long> deltas) {
+}
@@ -0,0 +1,114 @@
+package com.example.JobFinder.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Dữ liệu dùng chung của layout (số liệu ở footer, ngành nổi bật trên menu), giữ trong bộ nhớ với TTL.
+ *
+ * Khi hết hạn hoặc bị đánh dấu cũ (tin tuyển dụng, nhà tuyển dụng, hồ sơ ứng tuyển thay đổi),
+ * chỉ một request tính lại: các request khác trả về bản cũ nếu có, hoặc chờ chung kết quả của lần tính đó
+ * thay vì cùng chạy truy vấn.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LayoutDataCache {
+
+    public static final int NAV_CATEGORY_LIMIT = 6;
+
+    private final HomeService homeService;
+
+    @Value("${jobfinder.layout.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<CompletableFuture<LayoutData>> loading = new AtomicReference<>();
+    private volatile LayoutData current;
+
+    public record LayoutData(
+        Map<String, Object> statistics,
+        List<Map<String, Object>> navCategories,
+        long loadedAtMillis,
+        long version
+    ) {
+        static final LayoutData EMPTY = new LayoutData(Map.of(), List.of(), 0L, -1L);
+    }
+
+    public LayoutData get() {
+        LayoutData data = current;
+        if (data != null && data.version() == version.get()
+                && System.currentTimeMillis() - data.loadedAtMillis() < ttlMs) {
+            return data;
+        }
+
+        CompletableFuture<LayoutData> mine = new CompletableFuture<>();
+        CompletableFuture<LayoutData> inFlight = loading.compareAndExchange(null, mine);
+        if (inFlight == null) {
+            return load(mine, data);
+        }
+        if (data != null) {
+            return data;
+        }
+        try {
+            return inFlight.join();
+        } catch (RuntimeException ex) {
+            return LayoutData.EMPTY;
+        }
+    }
+
+    /**
+     * Đánh dấu dữ liệu hiện tại là cũ; request kế tiếp sẽ tính lại.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployerChanged(EmployerChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onApplicationStatusChanged(ApplicationStatusChangedEvent event) {
+        // Chỉ tạo mới/xóa làm đổi tổng số hồ sơ; đổi trạng thái không ảnh hưởng layout
+        if (event.previousStatus() == null || event.status() == null) {
+            invalidate();
+        }
+    }
+
+    private LayoutData load(CompletableFuture<LayoutData> mine, LayoutData stale) {
+        // Đọc version trước khi truy vấn: thay đổi xảy ra trong lúc tính sẽ khiến lần sau tính lại
+        long startVersion = version.get();
+        try {
+            LayoutData fresh = new LayoutData(
+                Map.copyOf(homeService.getStatistics()),
+                List.copyOf(homeService.getTopCategories(NAV_CATEGORY_LIMIT)),
+                System.currentTimeMillis(),
+                startVersion
+            );
+            current = fresh;
+            mine.complete(fresh);
+            return fresh;
+        } catch (RuntimeException ex) {
+            log.warn("Không thể tải dữ liệu layout: {}", ex.getMessage());
+            mine.completeExceptionally(ex);
+            return stale != null ? stale : LayoutData.EMPTY;
+        } finally {
+            loading.set(null);
+        }
+    }
+}
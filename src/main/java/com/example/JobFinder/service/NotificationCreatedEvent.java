@@ -0,0 +1,9 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.service.NotificationService.NotificationView;
+
+/**
+ * Phát ra sau khi tạo thông báo mới cho một người dùng, kèm bản hiển thị để đẩy thẳng xuống trình duyệt.
+ */
+public record NotificationCreatedEvent(Integer userId, NotificationView notification) {
+}
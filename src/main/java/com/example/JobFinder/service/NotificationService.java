@@ -12,6 +12,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +24,7 @@ public class NotificationService {
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private final NotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void notifyApplicationViewed(Application application) {
@@ -43,6 +45,7 @@ public class NotificationService {
             .build();
 
         notificationRepository.save(notification);
+        publishCreated(candidateUser.getId(), notification);
     }
 
     @Transactional
@@ -63,6 +66,7 @@ public class NotificationService {
             .build();
 
         notificationRepository.save(notification);
+        publishCreated(candidateUser.getId(), notification);
     }
 
     @Transactional(readOnly = true)
@@ -70,7 +74,7 @@ public class NotificationService {
         if (userId == null) {
             return 0;
         }
-        return notificationRepository.countByUserIdAndReadFalse(userId);
+        return notificationRepository.countUnread(userId);
     }
 
     @Transactional(readOnly = true)
@@ -82,27 +86,63 @@ public class NotificationService {
             userId,
             PageRequest.of(0, Math.max(limit, 1))
         );
+        if (notifications.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int lastReadId = notificationRepository.findLastReadId(userId);
         return notifications.stream()
-            .map(this::toView)
+            .map(notification -> toView(notification, lastReadId))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Đánh dấu đã đọc mọi thông báo hiện có bằng cách dời mốc đã đọc của người dùng (một dòng upsert),
+     * không cập nhật từng thông báo.
+     */
     @Transactional
     public void markAllAsRead(Integer userId) {
         if (userId == null) {
             return;
         }
-        notificationRepository.markAllAsRead(userId);
+        notificationRepository.advanceReadWatermark(userId);
+        eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(userId));
     }
 
-    private NotificationView toView(Notification notification) {
+    /**
+     * Đánh dấu đã đọc một thông báo cụ thể của người dùng; trả về false nếu không có hoặc đã đọc.
+     */
+    @Transactional
+    public boolean markAsRead(Integer userId, Integer notificationId) {
+        if (userId == null || notificationId == null) {
+            return false;
+        }
+        boolean updated = notificationRepository.markAsRead(userId, notificationId) > 0;
+        if (updated) {
+            eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(userId));
+        }
+        return updated;
+    }
+
+    private void publishCreated(Integer userId, Notification notification) {
+        eventPublisher.publishEvent(HeaderContextChangedEvent.forUser(userId));
+        // created_at do DB gán khi insert nên entity vừa lưu chưa có
+        if (notification.getCreatedAt() == null) {
+            notification.setCreatedAt(LocalDateTime.now());
+        }
+        eventPublisher.publishEvent(new NotificationCreatedEvent(userId, toView(notification, 0)));
+    }
+
+    NotificationView toView(Notification notification, int lastReadId) {
         String message = StringUtils.hasText(notification.getMessage()) ? notification.getMessage() : "";
         String title = StringUtils.hasText(notification.getTitle()) ? notification.getTitle() : "Thông báo";
         String icon = StringUtils.hasText(notification.getIconPath()) ? notification.getIconPath() : "fa-bell";
         String relativeTime = formatRelativeTime(notification.getCreatedAt());
 
-        return new NotificationView(title, message, relativeTime, notification.isRead(), icon,
-            notification.getCreatedAt() != null ? notification.getCreatedAt().format(DATE_FORMAT) : "");
+        boolean read = notification.isRead() || (notification.getId() != null && notification.getId() <= lastReadId);
+
+        return new NotificationView(title, message, relativeTime, read, icon,
+            notification.getCreatedAt() != null ? notification.getCreatedAt().format(DATE_FORMAT) : "",
+            notification.getId());
     }
 
     private String formatRelativeTime(LocalDateTime createdAt) {
@@ -131,7 +171,8 @@ public class NotificationService {
         String relativeTime,
         boolean read,
         String icon,
-        String exactTime
+        String exactTime,
+        Integer id
     ) {
     }
 
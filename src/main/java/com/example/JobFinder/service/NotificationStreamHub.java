@@ -0,0 +1,242 @@
+package com.example.JobFinder.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Đẩy thông báo mới xuống trình duyệt qua Server-Sent Events.
+ *
+ * Kết nối chờ là request async của servlet nên không giữ luồng nào; chỉ khi có dữ liệu mới có một
+ * virtual thread ghi hàng đợi của kết nối đó ra socket. Mỗi kết nối có hàng đợi giới hạn {@code buffer-size}:
+ * client đọc chậm để đầy hàng đợi thì bị đóng, EventSource tự kết nối lại và tải lại trạng thái qua /poll.
+ * Heartbeat định kỳ giữ kết nối qua proxy và phát hiện client đã rời đi.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationStreamHub {
+
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jobfinder.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${jobfinder.notifications.stream.buffer-size:16}")
+    private int bufferSize;
+
+    @Value("${jobfinder.notifications.stream.max-per-user:8}")
+    private int maxPerUser;
+
+    @Value("${jobfinder.notifications.stream.retry-ms:5000}")
+    private long retryMs;
+
+    private final Map<Integer, Deque<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private ExecutorService executor;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder pushed = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-stream-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> connection.emitter.complete()));
+        executor.shutdown();
+    }
+
+    /**
+     * Mở kết nối SSE cho người dùng; quá {@code max-per-user} kết nối thì đóng kết nối cũ nhất.
+     */
+    public SseEmitter subscribe(Integer userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter, new ArrayBlockingQueue<>(Math.max(1, bufferSize)));
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(ex -> remove(connection));
+
+        // Thêm trong compute để không lọt vào danh sách vừa bị remove() gỡ khỏi map
+        Deque<Connection> connections = connectionsByUser.compute(userId, (id, existing) -> {
+            Deque<Connection> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(connection);
+            return deque;
+        });
+        connectionCount.incrementAndGet();
+        opened.increment();
+        while (connections.size() > Math.max(1, maxPerUser)) {
+            Connection oldest = connections.pollFirst();
+            if (oldest != null && oldest.closed.compareAndSet(false, true)) {
+                connectionCount.decrementAndGet();
+                oldest.emitter.complete();
+            }
+        }
+        enqueue(connection, SseEmitter.event().reconnectTime(retryMs).comment("connected").build());
+        return emitter;
+    }
+
+    public boolean hasSubscribers(Integer userId) {
+        Deque<Connection> connections = connectionsByUser.get(userId);
+        return connections != null && !connections.isEmpty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        // Sau commit; chỉ đếm lại số chưa đọc khi người nhận đang mở trang, và làm ngoài luồng request
+        if (event.userId() == null || !hasSubscribers(event.userId())) {
+            return;
+        }
+        try {
+            executor.execute(() -> push(event));
+        } catch (RejectedExecutionException ex) {
+            log.debug("Bỏ qua đẩy thông báo khi đang tắt: {}", ex.getMessage());
+        }
+    }
+
+    void push(NotificationCreatedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("unread", notificationService.countUnread(event.userId()));
+        payload.put("item", event.notification());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            log.warn("Không thể tạo nội dung SSE cho thông báo: {}", ex.getMessage());
+            return;
+        }
+        Set<DataWithMediaType> data = SseEmitter.event().name("notification").data(json, MediaType.APPLICATION_JSON).build();
+        Deque<Connection> connections = connectionsByUser.get(event.userId());
+        if (connections != null) {
+            connections.forEach(connection -> enqueue(connection, data));
+            pushed.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jobfinder.notifications.stream.heartbeat-ms:25000}",
+        initialDelayString = "${jobfinder.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (connectionCount.get() == 0) {
+            return;
+        }
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        connectionsByUser.values().forEach(connections -> connections.forEach(connection -> enqueue(connection, ping)));
+        heartbeats.increment();
+    }
+
+    private void enqueue(Connection connection, Set<DataWithMediaType> data) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.queue.offer(data)) {
+            overflowed.increment();
+            close(connection);
+            return;
+        }
+        schedule(connection);
+    }
+
+    private void schedule(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(connection));
+            } catch (RejectedExecutionException ex) {
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Set<DataWithMediaType> data;
+            while (!connection.closed.get() && (data = connection.queue.poll()) != null) {
+                connection.emitter.send(data);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client đã đóng kết nối hoặc emitter đã hoàn tất
+            close(connection);
+        } finally {
+            connection.draining.set(false);
+        }
+        // Dữ liệu vào sau lần poll cuối nhưng trước khi bỏ cờ draining
+        if (!connection.closed.get() && !connection.queue.isEmpty()) {
+            schedule(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        if (remove(connection)) {
+            connection.emitter.complete();
+        }
+    }
+
+    private boolean remove(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        connection.queue.clear();
+        connectionCount.decrementAndGet();
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        return true;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("connections", connectionCount.get());
+        metrics.put("users", connectionsByUser.size());
+        metrics.put("opened", opened.sum());
+        metrics.put("pushed", pushed.sum());
+        metrics.put("overflowed", overflowed.sum());
+        metrics.put("heartbeats", heartbeats.sum());
+        metrics.put("bufferSize", bufferSize);
+        return metrics;
+    }
+
+    private static final class Connection {
+
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Connection(Integer userId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.util.SalaryParser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Phân tích cột salary tự do của các tin cũ thành salary_min/max/currency/negotiable.
+ * Tin mới được Job.refreshSalary() tính khi lưu; ở đây chỉ quét các dòng chưa phân tích
+ * (salary_negotiable IS NULL) theo khóa id từng lô, nên chạy lại nhiều lần vẫn an toàn.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalaryBackfillService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jobfinder.salary.backfill.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::backfill)
+            .exceptionally(ex -> {
+                log.warn("Không thể chuẩn hóa lương cho tin cũ: {}", ex.getMessage());
+                return null;
+            });
+    }
+
+    public int backfill() {
+        int updated = 0;
+        int lastId = 0;
+        while (true) {
+            List<Object[]> batch = new ArrayList<>();
+            List<Integer> ids = jdbcTemplate.query(
+                "SELECT id, salary FROM jobs WHERE salary_negotiable IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    SalaryParser.ParsedSalary parsed = SalaryParser.parse(rs.getString("salary"));
+                    batch.add(new Object[] {
+                        parsed.minMonthlyVnd(),
+                        parsed.maxMonthlyVnd(),
+                        parsed.currency(),
+                        parsed.negotiable(),
+                        rs.getInt("id")
+                    });
+                    return rs.getInt("id");
+                },
+                lastId, BATCH_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(
+                "UPDATE jobs SET salary_min = ?, salary_max = ?, salary_currency = ?, salary_negotiable = ? WHERE id = ?",
+                batch);
+            updated += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        if (updated > 0) {
+            log.info("Đã chuẩn hóa lương cho {} tin tuyển dụng", updated);
+        }
+        return updated;
+    }
+}
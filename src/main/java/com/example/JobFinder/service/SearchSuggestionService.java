@@ -0,0 +1,133 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.util.SuggestionTrie;
+import com.example.JobFinder.util.SuggestionTrie.Suggestion;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Gợi ý ô tìm kiếm từ tiêu đề việc làm, tên công ty và tên ngành đang có tin đăng.
+ *
+ * Trie được dựng lại ở luồng nền rồi hoán đổi qua một tham chiếu volatile, nên lookup
+ * không khóa và không chạm DB. Tin đăng thay đổi chỉ đánh dấu "bẩn"; lần quét kế tiếp
+ * mới dựng lại, để nhiều thay đổi liên tiếp chỉ tốn một lần truy vấn tổng hợp.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchSuggestionService {
+
+    // Loại mục do JobRepository.findSuggestionWeights trả về: title, company, category
+    public static final String KIND_TITLE = "title";
+
+    private static final int TOP_K = 20;
+    private static final int TOP_TITLES = 20;
+    private static final int APPLICATION_WEIGHT = 5;
+
+    private final JobRepository jobRepository;
+
+    @Value("${jobfinder.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobfinder.suggest.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+    private volatile List<String> topTitles = List.of();
+    private volatile long builtAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuild)
+            .exceptionally(ex -> {
+                log.warn("Không thể dựng trie gợi ý tìm kiếm: {}", ex.getMessage());
+                return null;
+            });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        dirty.set(true);
+    }
+
+    /**
+     * Dựng lại khi có tin thay đổi, hoặc định kỳ để trọng số (lượt xem, ứng tuyển) không quá cũ.
+     */
+    @Scheduled(fixedDelayString = "${jobfinder.suggest.refresh-ms:60000}", initialDelayString = "${jobfinder.suggest.refresh-ms:60000}")
+    public void refreshIfStale() {
+        if (!enabled) {
+            return;
+        }
+        boolean expired = System.currentTimeMillis() - builtAt > maxAgeMinutes * 60_000L;
+        if (dirty.get() || expired) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        dirty.set(false);
+        long started = System.currentTimeMillis();
+        try {
+            SuggestionTrie.Builder builder = SuggestionTrie.builder(TOP_K);
+            List<Suggestion> titles = new ArrayList<>();
+            for (Object[] row : jobRepository.findSuggestionWeights()) {
+                String kind = (String) row[0];
+                String label = (String) row[1];
+                long weight = toLong(row[2]) + toLong(row[3]) + APPLICATION_WEIGHT * toLong(row[4]);
+                builder.add(label, kind, weight);
+                if (KIND_TITLE.equals(kind)) {
+                    titles.add(new Suggestion(label.trim(), kind, weight));
+                }
+            }
+            titles.sort(Comparator.comparingLong(Suggestion::weight).reversed());
+            SuggestionTrie built = builder.build();
+            trie = built;
+            topTitles = SuggestionTrie.distinctByText(titles, TOP_TITLES).stream().map(Suggestion::text).toList();
+            builtAt = System.currentTimeMillis();
+            log.info("Đã dựng trie gợi ý: {} mục, {} nút trong {} ms",
+                built.size(), built.nodeCount(), builtAt - started);
+        } catch (RuntimeException ex) {
+            // Giữ trie cũ, thử lại ở lần quét sau
+            dirty.set(true);
+            throw ex;
+        }
+    }
+
+    /**
+     * Gợi ý cho tiền tố đang gõ (không phân biệt dấu), trùng chữ hiển thị thì chỉ giữ một.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return SuggestionTrie.distinctByText(trie.lookup(prefix, TOP_K), limit);
+    }
+
+    /**
+     * Các tiêu đề việc làm được quan tâm nhiều nhất (từ khóa nổi bật ở trang chủ).
+     */
+    public List<String> topTitles(int limit) {
+        List<String> titles = topTitles;
+        return titles.subList(0, Math.min(Math.max(limit, 0), titles.size()));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
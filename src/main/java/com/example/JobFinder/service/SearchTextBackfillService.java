@@ -0,0 +1,136 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Điền các cột tìm kiếm đã bỏ dấu cho dữ liệu cũ (bản ghi mới được entity tự tính khi lưu).
+ * Quét theo khóa id từng lô, chỉ đụng tới các dòng còn NULL nên chạy lại nhiều lần vẫn an toàn.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchTextBackfillService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jobfinder.search.backfill.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::backfill)
+            .exceptionally(ex -> {
+                log.warn("Không thể điền cột tìm kiếm: {}", ex.getMessage());
+                return null;
+            });
+    }
+
+    public void backfill() {
+        int jobs = backfillJobs();
+        int employers = backfillEmployers();
+        int users = backfillUsers();
+        if (jobs + employers + users > 0) {
+            log.info("Đã điền cột tìm kiếm: {} jobs, {} employers, {} users", jobs, employers, users);
+        }
+    }
+
+    private int backfillJobs() {
+        int updated = 0;
+        int lastId = 0;
+        while (true) {
+            List<Object[]> batch = new ArrayList<>();
+            List<Integer> ids = jdbcTemplate.query(
+                "SELECT id, title, description, job_requirements, location FROM jobs " +
+                    "WHERE search_text IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    String title = rs.getString("title");
+                    String location = rs.getString("location");
+                    batch.add(new Object[] {
+                        VietnameseTextAnalyzer.normalizeAll(title,
+                            VietnameseTextAnalyzer.stripHtml(rs.getString("description")),
+                            VietnameseTextAnalyzer.stripHtml(rs.getString("job_requirements"))),
+                        VietnameseTextAnalyzer.normalize(title),
+                        VietnameseTextAnalyzer.normalize(location),
+                        rs.getInt("id")
+                    });
+                    return rs.getInt("id");
+                },
+                lastId, BATCH_SIZE);
+            if (ids.isEmpty()) {
+                return updated;
+            }
+            jdbcTemplate.batchUpdate(
+                "UPDATE jobs SET search_text = ?, title_normalized = ?, location_normalized = ? WHERE id = ?",
+                batch);
+            updated += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private int backfillEmployers() {
+        int updated = 0;
+        int lastId = 0;
+        while (true) {
+            List<Object[]> batch = new ArrayList<>();
+            List<Integer> ids = jdbcTemplate.query(
+                "SELECT id, company_name, address FROM employers " +
+                    "WHERE company_name_normalized IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    batch.add(new Object[] {
+                        VietnameseTextAnalyzer.normalize(rs.getString("company_name")),
+                        VietnameseTextAnalyzer.normalize(rs.getString("address")),
+                        rs.getInt("id")
+                    });
+                    return rs.getInt("id");
+                },
+                lastId, BATCH_SIZE);
+            if (ids.isEmpty()) {
+                return updated;
+            }
+            jdbcTemplate.batchUpdate(
+                "UPDATE employers SET company_name_normalized = ?, address_normalized = ? WHERE id = ?",
+                batch);
+            updated += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private int backfillUsers() {
+        int updated = 0;
+        int lastId = 0;
+        while (true) {
+            List<Object[]> batch = new ArrayList<>();
+            List<Integer> ids = jdbcTemplate.query(
+                "SELECT id, name, email FROM users WHERE search_text IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    batch.add(new Object[] {
+                        VietnameseTextAnalyzer.normalizeAll(rs.getString("name"), rs.getString("email")),
+                        rs.getInt("id")
+                    });
+                    return rs.getInt("id");
+                },
+                lastId, BATCH_SIZE);
+            if (ids.isEmpty()) {
+                return updated;
+            }
+            jdbcTemplate.batchUpdate("UPDATE users SET search_text = ? WHERE id = ?", batch);
+            updated += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+}
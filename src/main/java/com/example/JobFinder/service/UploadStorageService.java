@@ -0,0 +1,378 @@
+package com.example.JobFinder.service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Lưu tệp tải lên theo nội dung: {@code uploads/<loại>/<sha256>.<đuôi>}.
+ *
+ * Tệp được đọc qua channel vào tệp tạm cùng thư mục, vừa ghi vừa băm SHA-256; kích thước và định dạng
+ * (theo chữ ký đầu tệp, không theo Content-Type của trình duyệt) được kiểm tra ngay trong lúc đọc.
+ * Xong thì đổi tên nguyên tử sang đường dẫn theo hash; nội dung đã có thì bỏ tệp tạm.
+ * Bảng upload_blobs đếm số tham chiếu; hết tham chiếu thì tệp bị xóa sau khi giao dịch commit,
+ * và tệp mới đặt bị xóa lại nếu giao dịch tạo dòng của nó rollback.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadStorageService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_BYTES = 12;
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Thư mục chứa "uploads/"; tương đối với thư mục chạy như WebMvcConfig
+    private Path baseDir = Paths.get("");
+    private TransactionTemplate requiresNew;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+
+    public enum FileType {
+        PDF("application/pdf", ".pdf"),
+        DOC("application/msword", ".doc"),
+        DOCX("application/vnd.openxmlformats-officedocument.wordprocessingml.document", ".docx"),
+        JPEG("image/jpeg", ".jpg"),
+        PNG("image/png", ".png"),
+        GIF("image/gif", ".gif"),
+        WEBP("image/webp", ".webp");
+
+        private final String contentType;
+        private final String extension;
+
+        FileType(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    public enum UploadKind {
+        CV("uploads/cv/", 5 * 1024 * 1024, Set.of(FileType.PDF, FileType.DOC, FileType.DOCX),
+            "Vui lòng chọn tệp CV", "Kích thước tệp CV vượt quá 5MB", "Chỉ chấp nhận định dạng PDF, DOC hoặc DOCX"),
+        AVATAR("uploads/avatars/", 2 * 1024 * 1024, Set.of(FileType.JPEG, FileType.PNG, FileType.GIF, FileType.WEBP),
+            "Vui lòng chọn ảnh", "Kích thước ảnh vượt quá 2MB", "Chỉ chấp nhận định dạng JPG, PNG, GIF hoặc WEBP"),
+        LOGO("uploads/logos/", 3 * 1024 * 1024, Set.of(FileType.JPEG, FileType.PNG, FileType.GIF, FileType.WEBP),
+            "Vui lòng chọn ảnh", "Kích thước file không được vượt quá 3MB", "File phải là ảnh PNG, JPG, GIF hoặc WEBP");
+
+        private final String directory;
+        private final long maxBytes;
+        private final Set<FileType> allowedTypes;
+        private final String emptyMessage;
+        private final String sizeMessage;
+        private final String typeMessage;
+
+        UploadKind(String directory, long maxBytes, Set<FileType> allowedTypes,
+                   String emptyMessage, String sizeMessage, String typeMessage) {
+            this.directory = directory;
+            this.maxBytes = maxBytes;
+            this.allowedTypes = allowedTypes;
+            this.emptyMessage = emptyMessage;
+            this.sizeMessage = sizeMessage;
+            this.typeMessage = typeMessage;
+        }
+    }
+
+    record StreamedUpload(String sha256, long size, FileType type) {
+    }
+
+    @PostConstruct
+    void init() {
+        requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Lưu tệp và tăng số tham chiếu; trả về đường dẫn dạng {@code uploads/<loại>/<sha256>.<đuôi>}.
+     *
+     * @throws IllegalArgumentException tệp rỗng, quá lớn hoặc sai định dạng; ném ra trước mọi thao tác ghi DB nên
+     *         không đánh dấu rollback giao dịch của nơi gọi (handler có thể bắt lỗi rồi vẫn commit)
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public String store(MultipartFile file, UploadKind kind) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException(kind.emptyMessage);
+        }
+        Path directory = baseDir.resolve(kind.directory);
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            StreamedUpload upload;
+            try {
+                upload = streamToTemp(file, kind, temp);
+            } catch (IllegalArgumentException ex) {
+                rejected.increment();
+                throw ex;
+            }
+            String path = kind.directory + upload.sha256() + upload.type().extension();
+            // Khóa dòng trước khi đụng tới tệp: collect() của cùng nội dung phải chờ giao dịch này xong
+            int affected = jdbcTemplate.update("""
+                    INSERT INTO upload_blobs (path, sha256, size_bytes, content_type, ref_count)
+                    VALUES (?, ?, ?, ?, 1)
+                    ON DUPLICATE KEY UPDATE ref_count = ref_count + 1
+                    """,
+                path, upload.sha256(), upload.size(), upload.type().contentType());
+            if (affected == 1) {
+                // Dòng mới (2 = đã có): nếu giao dịch của nơi gọi rollback thì tệp vừa đặt không còn dòng nào trỏ tới
+                afterRollback(() -> collect(path));
+            }
+            Path target = baseDir.resolve(path);
+            if (Files.exists(target)) {
+                deduplicated.increment();
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                stored.increment();
+            }
+            return path;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Bỏ một tham chiếu tới tệp đã lưu; tệp bị xóa sau commit khi không còn ai dùng.
+     * Tệp tải lên trước khi có bảng upload_blobs (tên không theo hash) thì xóa thẳng như trước.
+     */
+    @Transactional
+    public void release(String storedPath) {
+        String path = normalize(storedPath);
+        if (path == null) {
+            return;
+        }
+        String filename = path.substring(path.lastIndexOf('/') + 1);
+        if (!CONTENT_ADDRESSED_NAME.matcher(filename).matches()) {
+            afterCommit(() -> deleteQuietly(path));
+            return;
+        }
+        int updated = jdbcTemplate.update(
+            "UPDATE upload_blobs SET ref_count = ref_count - 1 WHERE path = ? AND ref_count > 0", path);
+        if (updated > 0) {
+            released.increment();
+            afterCommit(() -> collect(path));
+        }
+    }
+
+    StreamedUpload streamToTemp(MultipartFile file, UploadKind kind, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] header = new byte[HEADER_BYTES];
+        int headerLength = 0;
+        long size = 0;
+        FileType type = null;
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > kind.maxBytes) {
+                    throw new IllegalArgumentException(kind.sizeMessage);
+                }
+                if (headerLength < HEADER_BYTES) {
+                    int take = Math.min(HEADER_BYTES - headerLength, buffer.remaining());
+                    buffer.duplicate().get(header, headerLength, take);
+                    headerLength += take;
+                }
+                if (type == null && headerLength == HEADER_BYTES) {
+                    // Kiểm tra định dạng ngay khi có đủ phần đầu, không đọc hết tệp sai định dạng
+                    type = checkType(header, headerLength, file.getOriginalFilename(), kind);
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException(kind.emptyMessage);
+        }
+        if (type == null) {
+            type = checkType(header, headerLength, file.getOriginalFilename(), kind);
+        }
+        return new StreamedUpload(HexFormat.of().formatHex(digest.digest()), size, type);
+    }
+
+    private static FileType checkType(byte[] header, int length, String originalFilename, UploadKind kind) {
+        FileType type = detect(Arrays.copyOf(header, length), originalFilename);
+        if (type == null || !kind.allowedTypes.contains(type)) {
+            throw new IllegalArgumentException(kind.typeMessage);
+        }
+        return type;
+    }
+
+    /**
+     * Nhận dạng định dạng theo chữ ký đầu tệp. DOC/DOCX dùng chung khung OLE2/ZIP với Excel, PowerPoint...
+     * nên cần thêm đuôi tên tệp gốc khớp.
+     */
+    static FileType detect(byte[] header, String originalFilename) {
+        String extension = originalFilename != null && originalFilename.contains(".")
+            ? originalFilename.substring(originalFilename.lastIndexOf('.')).toLowerCase(Locale.ROOT)
+            : "";
+        if (startsWith(header, "%PDF-".getBytes(StandardCharsets.US_ASCII))) {
+            return FileType.PDF;
+        }
+        if (startsWith(header, new byte[] {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1})) {
+            return ".doc".equals(extension) ? FileType.DOC : null;
+        }
+        if (startsWith(header, new byte[] {'P', 'K', 0x03, 0x04})) {
+            return ".docx".equals(extension) ? FileType.DOCX : null;
+        }
+        if (startsWith(header, new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})) {
+            return FileType.JPEG;
+        }
+        if (startsWith(header, new byte[] {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A})) {
+            return FileType.PNG;
+        }
+        if (startsWith(header, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                || startsWith(header, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+            return FileType.GIF;
+        }
+        if (header.length >= 12 && startsWith(header, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                && Arrays.equals(header, 8, 12, "WEBP".getBytes(StandardCharsets.US_ASCII), 0, 4)) {
+            return FileType.WEBP;
+        }
+        return null;
+    }
+
+    /**
+     * Xóa tệp khi không còn tham chiếu: dòng về 0 (xóa cả dòng) hoặc không có dòng (tệp mồ côi sau rollback).
+     * FOR UPDATE cũng khóa khoảng khóa khi dòng chưa có, nên store() cùng nội dung chờ tới khi xóa xong.
+     */
+    private void collect(String path) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                List<Integer> refs = jdbcTemplate.queryForList(
+                    "SELECT ref_count FROM upload_blobs WHERE path = ? FOR UPDATE", Integer.class, path);
+                if (!refs.isEmpty() && refs.get(0) > 0) {
+                    return;
+                }
+                if (!refs.isEmpty()) {
+                    jdbcTemplate.update("DELETE FROM upload_blobs WHERE path = ?", path);
+                }
+                // Vẫn giữ khóa dòng: store() cùng nội dung chờ tới khi commit rồi tạo lại tệp
+                deleteQuietly(path);
+                collected.increment();
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Không thể dọn tệp tải lên {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private void deleteQuietly(String path) {
+        try {
+            Files.deleteIfExists(baseDir.resolve(path));
+        } catch (IOException ex) {
+            log.warn("Không thể xóa tệp {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Đường dẫn lưu trong DB ("uploads/...", "/uploads/...") về dạng tương đối; null nếu nằm ngoài uploads/.
+     */
+    static String normalize(String storedPath) {
+        if (storedPath == null || storedPath.isBlank()) {
+            return null;
+        }
+        String path = storedPath.trim().replace('\\', '/');
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (!path.startsWith("uploads/") || path.contains("..")) {
+            return null;
+        }
+        return path;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("stored", stored.sum());
+        metrics.put("deduplicated", deduplicated.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("released", released.sum());
+        metrics.put("collected", collected.sum());
+        return metrics;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length && Arrays.equals(data, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +32,7 @@ public class UserService {
     private final CandidateRepository candidateRepository;
     private final EmployerRepository employerRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Role> findSelfRegisterRoles() {
@@ -96,6 +98,7 @@ public class UserService {
             employer.setUser(user);
             employer.setCompanyName(user.getName() != null ? user.getName() : user.getEmail());
             employerRepository.save(employer);
+            eventPublisher.publishEvent(new EmployerChangedEvent(employer.getId()));
         }
     }
 }
@@ -0,0 +1,264 @@
+package com.example.JobFinder.service;
+
+import com.example.JobFinder.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Số người xem không trùng (theo IP) ước lượng bằng HyperLogLog.
+ *
+ * Lượt xem được gom vào sketch trong bộ nhớ theo (tin, ngày), (nhà tuyển dụng, ngày) và tổng của
+ * nhà tuyển dụng; định kỳ gộp (max từng thanh ghi) vào blob đã lưu trong job_view_sketches,
+ * employer_view_sketches và employer_viewer_totals. Phép gộp lũy đẳng nên ghi lại một sketch
+ * không làm sai số liệu. Tổng của nhà tuyển dụng lưu sẵn ước lượng nên trang hồ sơ đọc một dòng;
+ * khoảng ngày gộp tối đa một sketch mỗi ngày. Sai số chuẩn khoảng 1.6% (xem {@link HyperLogLog}).
+ * Giả định chỉ một instance ghi sketch cùng lúc.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewerSketchService {
+
+    private static final int BACKFILL_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jobfinder.views.sketch.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    // Hai thế hệ như JobViewCounter: lượt ghi muộn vào thế hệ vừa nghỉ vẫn được lưu ở lần flush sau
+    private volatile Pending current = new Pending();
+    private volatile Pending retired = new Pending();
+    private final Object flushLock = new Object();
+
+    private record JobDay(int jobId, LocalDate day) {
+    }
+
+    private record EmployerDay(int employerId, LocalDate day) {
+    }
+
+    private static final class Pending {
+        final Map<JobDay, HyperLogLog> jobDays = new ConcurrentHashMap<>();
+        final Map<EmployerDay, HyperLogLog> employerDays = new ConcurrentHashMap<>();
+        final Map<Integer, HyperLogLog> employerTotals = new ConcurrentHashMap<>();
+
+        boolean isEmpty() {
+            return jobDays.isEmpty() && employerDays.isEmpty() && employerTotals.isEmpty();
+        }
+    }
+
+    /**
+     * Ghi nhận một người xem (IP) của tin thuộc nhà tuyển dụng vào ngày cho trước.
+     */
+    public void record(Integer jobId, Integer employerId, String viewerIp, LocalDate day) {
+        if (jobId == null || viewerIp == null || viewerIp.isEmpty()) {
+            return;
+        }
+        Pending target = current;
+        offer(target.jobDays, new JobDay(jobId, day), viewerIp);
+        if (employerId != null) {
+            offer(target.employerDays, new EmployerDay(employerId, day), viewerIp);
+            offer(target.employerTotals, employerId, viewerIp);
+        }
+    }
+
+    /**
+     * Ước lượng số người xem không trùng của nhà tuyển dụng từ trước đến nay (đọc một dòng).
+     */
+    public long employerUniqueViewers(Integer employerId) {
+        List<Long> rows = jdbcTemplate.queryForList(
+            "SELECT unique_viewers FROM employer_viewer_totals WHERE employer_id = ?", Long.class, employerId);
+        return rows.isEmpty() || rows.get(0) == null ? 0L : rows.get(0);
+    }
+
+    /**
+     * Người xem không trùng của nhà tuyển dụng trong khoảng ngày [from, to].
+     */
+    public long employerUniqueViewers(Integer employerId, LocalDate from, LocalDate to) {
+        return mergeRange("SELECT sketch FROM employer_view_sketches WHERE employer_id = ? AND day BETWEEN ? AND ?",
+            employerId, from, to);
+    }
+
+    /**
+     * Người xem không trùng của một tin trong khoảng ngày [from, to].
+     */
+    public long jobUniqueViewers(Integer jobId, LocalDate from, LocalDate to) {
+        return mergeRange("SELECT sketch FROM job_view_sketches WHERE job_id = ? AND day BETWEEN ? AND ?",
+            jobId, from, to);
+    }
+
+    @Scheduled(fixedDelayString = "${jobfinder.views.sketch.flush-ms:60000}", initialDelayString = "${jobfinder.views.sketch.flush-ms:60000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Pending toFlush = retired;
+            retired = current;
+            current = new Pending();
+            writeOrRequeue(toFlush);
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        synchronized (flushLock) {
+            Pending toFlush = retired;
+            Pending active = current;
+            retired = new Pending();
+            current = new Pending();
+            writeOrRequeue(toFlush);
+            writeOrRequeue(active);
+        }
+    }
+
+    private void writeOrRequeue(Pending batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+        } catch (RuntimeException ex) {
+            // Gộp lại vào thế hệ hiện tại; gộp lũy đẳng nên phần đã ghi được không bị tính hai lần
+            log.warn("Không thể lưu sketch người xem, sẽ thử lại: {}", ex.getMessage());
+            Pending target = current;
+            batch.jobDays.forEach((key, sketch) -> mergeInto(target.jobDays, key, sketch));
+            batch.employerDays.forEach((key, sketch) -> mergeInto(target.employerDays, key, sketch));
+            batch.employerTotals.forEach((key, sketch) -> mergeInto(target.employerTotals, key, sketch));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillEnabled) {
+            return;
+        }
+        CompletableFuture.runAsync(this::backfill)
+            .exceptionally(ex -> {
+                log.warn("Không thể dựng sketch người xem từ job_views: {}", ex.getMessage());
+                return null;
+            });
+    }
+
+    /**
+     * Dựng sketch từ job_views khi chưa có tổng nào (lần chạy đầu). Sketch theo ngày được lưu sau mỗi lô,
+     * tổng của nhà tuyển dụng lưu sau cùng: bị ngắt giữa chừng thì lần khởi động sau chạy lại từ đầu,
+     * và vì gộp lũy đẳng nên các ngày đã lưu không bị tính hai lần.
+     */
+    public int backfill() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employer_viewer_totals", Integer.class);
+        if (existing != null && existing > 0) {
+            return 0;
+        }
+        int scanned = 0;
+        int lastId = 0;
+        Pending totals = new Pending();
+        while (true) {
+            Pending batch = new Pending();
+            List<Integer> ids = jdbcTemplate.query("""
+                    SELECT v.id, v.job_id, j.employer_id, v.viewer_ip, v.viewed_at
+                    FROM job_views v
+                    JOIN jobs j ON j.id = v.job_id
+                    WHERE v.id > ? AND v.viewer_ip IS NOT NULL AND v.viewed_at IS NOT NULL
+                    ORDER BY v.id
+                    LIMIT ?
+                    """,
+                (rs, rowNum) -> {
+                    int jobId = rs.getInt("job_id");
+                    int employerId = rs.getInt("employer_id");
+                    String ip = rs.getString("viewer_ip");
+                    LocalDate day = rs.getTimestamp("viewed_at").toLocalDateTime().toLocalDate();
+                    offer(batch.jobDays, new JobDay(jobId, day), ip);
+                    offer(batch.employerDays, new EmployerDay(employerId, day), ip);
+                    offer(totals.employerTotals, employerId, ip);
+                    return rs.getInt("id");
+                },
+                lastId, BACKFILL_BATCH_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            synchronized (flushLock) {
+                write(batch);
+            }
+            scanned += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        synchronized (flushLock) {
+            write(totals);
+        }
+        if (scanned > 0) {
+            log.info("Đã dựng sketch người xem từ {} lượt xem", scanned);
+        }
+        return scanned;
+    }
+
+    private void write(Pending batch) {
+        batch.jobDays.forEach((key, sketch) -> upsert(
+            "SELECT sketch FROM job_view_sketches WHERE job_id = ? AND day = ?",
+            "INSERT INTO job_view_sketches (job_id, day, sketch) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE sketch = VALUES(sketch)",
+            sketch, key.jobId(), Date.valueOf(key.day())));
+        batch.employerDays.forEach((key, sketch) -> upsert(
+            "SELECT sketch FROM employer_view_sketches WHERE employer_id = ? AND day = ?",
+            "INSERT INTO employer_view_sketches (employer_id, day, sketch) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE sketch = VALUES(sketch)",
+            sketch, key.employerId(), Date.valueOf(key.day())));
+        batch.employerTotals.forEach((employerId, sketch) -> {
+            HyperLogLog merged = mergeStored(
+                "SELECT sketch FROM employer_viewer_totals WHERE employer_id = ?", sketch, employerId);
+            jdbcTemplate.update(
+                "INSERT INTO employer_viewer_totals (employer_id, sketch, unique_viewers, updated_at) "
+                    + "VALUES (?, ?, ?, CURRENT_TIMESTAMP) "
+                    + "ON DUPLICATE KEY UPDATE sketch = VALUES(sketch), unique_viewers = VALUES(unique_viewers), "
+                    + "updated_at = VALUES(updated_at)",
+                employerId, merged.toBytes(), merged.estimate());
+        });
+    }
+
+    private void upsert(String selectSql, String upsertSql, HyperLogLog sketch, Object ownerId, Date day) {
+        HyperLogLog merged = mergeStored(selectSql, sketch, ownerId, day);
+        jdbcTemplate.update(upsertSql, ownerId, day, merged.toBytes());
+    }
+
+    private HyperLogLog mergeStored(String selectSql, HyperLogLog sketch, Object... args) {
+        List<byte[]> stored = jdbcTemplate.queryForList(selectSql, byte[].class, args);
+        HyperLogLog merged = new HyperLogLog().merge(sketch);
+        if (!stored.isEmpty() && stored.get(0) != null) {
+            merged.merge(HyperLogLog.fromBytes(stored.get(0)));
+        }
+        return merged;
+    }
+
+    private long mergeRange(String sql, Integer ownerId, LocalDate from, LocalDate to) {
+        if (ownerId == null) {
+            return 0L;
+        }
+        HyperLogLog merged = new HyperLogLog();
+        jdbcTemplate.query(sql, rs -> {
+            merged.merge(HyperLogLog.fromBytes(rs.getBytes("sketch")));
+        }, ownerId, Date.valueOf(from), Date.valueOf(to));
+        return merged.estimate();
+    }
+
+    private static <K> void offer(Map<K, HyperLogLog> sketches, K key, String viewerIp) {
+        sketches.compute(key, (k, sketch) -> {
+            HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+            target.offer(viewerIp);
+            return target;
+        });
+    }
+
+    private static <K> void mergeInto(Map<K, HyperLogLog> sketches, K key, HyperLogLog sketch) {
+        sketches.compute(key, (k, existing) -> existing != null ? existing.merge(sketch) : sketch);
+    }
+}
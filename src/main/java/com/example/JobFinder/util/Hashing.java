@@ -0,0 +1,29 @@
+package com.example.JobFinder.util;
+
+/**
+ * Băm 64 bit không mã hóa cho các cấu trúc xác suất (Bloom filter, HyperLogLog).
+ * FNV-1a trên các ký tự rồi trộn bằng bước cuối của MurmurHash3 để các bit phân bố đều.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    public static long hash64(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix64(h);
+    }
+
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
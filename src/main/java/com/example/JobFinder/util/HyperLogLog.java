@@ -0,0 +1,162 @@
+package com.example.JobFinder.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Sketch HyperLogLog ước lượng số phần tử phân biệt (ví dụ số người xem không trùng).
+ *
+ * Với độ chính xác {@code p} có m = 2^p thanh ghi; sai số chuẩn tương đối là 1.04 / sqrt(m),
+ * mặc định p = {@value #DEFAULT_PRECISION} cho khoảng 1.6% (99.7% ước lượng nằm trong ±4.9%).
+ * Dưới khoảng 2.5m phần tử dùng linear counting nên số nhỏ gần như chính xác.
+ * Hai sketch cùng p gộp bằng cách lấy max từng thanh ghi; gộp nhiều lần cùng một sketch không đổi kết quả.
+ * Không thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final byte FORMAT_DENSE = 0;
+    private static final byte FORMAT_SPARSE = 1;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Độ chính xác HyperLogLog phải trong [4, 16]");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void offer(String value) {
+        if (value != null) {
+            offerHash(Hashing.hash64(value));
+        }
+    }
+
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Số bit 0 đứng đầu của phần còn lại, cộng 1; bit chặn giữ hạng tối đa 64 - p + 1
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Không thể gộp HyperLogLog khác độ chính xác");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double raw = alpha(m) * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Mã hóa nhị phân gọn: dạng thưa (chỉ số + giá trị của thanh ghi khác 0) khi ít phần tử,
+     * dạng đặc (m byte) khi thưa không còn nhỏ hơn.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+        if (4 + nonZero * 3 < 2 + registers.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 + nonZero * 3);
+            buffer.put(FORMAT_SPARSE).put((byte) precision).putShort((short) nonZero);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+        byte[] bytes = new byte[2 + registers.length];
+        bytes[0] = FORMAT_DENSE;
+        bytes[1] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 2, registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) {
+            throw new IllegalArgumentException("Dữ liệu HyperLogLog không hợp lệ");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[1]);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        if (bytes[0] == FORMAT_SPARSE) {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            for (int i = 0; i < count; i++) {
+                sketch.registers[Short.toUnsignedInt(buffer.getShort())] = buffer.get();
+            }
+        } else if (bytes[0] == FORMAT_DENSE && bytes.length == 2 + sketch.registers.length) {
+            buffer.get(sketch.registers);
+        } else {
+            throw new IllegalArgumentException("Dữ liệu HyperLogLog không hợp lệ");
+        }
+        return sketch;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HyperLogLog sketch
+            && sketch.precision == precision
+            && Arrays.equals(sketch.registers, registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
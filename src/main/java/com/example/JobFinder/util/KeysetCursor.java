@@ -0,0 +1,65 @@
+package com.example.JobFinder.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+import org.springframework.util.StringUtils;
+
+/**
+ * Con trỏ phân trang keyset dạng chuỗi mờ (base64url) cho tham số {@code cursor}.
+ * Lưu khóa sắp xếp của phần tử cuối trang trước: (createdAt, id) hoặc (score, id).
+ *
+ * @param sort  kiểu sắp xếp đã sinh ra con trỏ ("newest", "oldest", "hot"); con trỏ khác kiểu bị bỏ qua
+ * @param value createdAt tính bằng micro giây (UTC) hoặc điểm (lượt xem) với danh sách hot
+ * @param id    id của phần tử cuối, dùng để phá hòa
+ */
+public record KeysetCursor(String sort, long value, int id) {
+
+    private static final String VERSION = "1";
+
+    public static KeysetCursor ofCreatedAt(String sort, LocalDateTime createdAt, int id) {
+        return new KeysetCursor(sort, toEpochMicros(createdAt), id);
+    }
+
+    public static KeysetCursor ofScore(String sort, long score, int id) {
+        return new KeysetCursor(sort, score, id);
+    }
+
+    /**
+     * Giải mã con trỏ; chuỗi hỏng hoặc khác kiểu sắp xếp trả về rỗng (coi như trang đầu).
+     */
+    public static Optional<KeysetCursor> decode(String token, String expectedSort) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || !parts[1].equals(expectedSort)) {
+                return Optional.empty();
+            }
+            return Optional.of(new KeysetCursor(parts[1], Long.parseLong(parts[2]), Integer.parseInt(parts[3])));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + sort + ":" + value + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000L),
+            (int) Math.floorMod(value, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    public static long toEpochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0L;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1000;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.JobFinder.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bộ lọc Bloom chia theo lát thời gian để khử trùng "đã thấy khóa này trong cửa sổ gần đây chưa".
+ *
+ * Mỗi lát (ví dụ 10 phút) là một Bloom filter riêng kích thước cố định; vòng gồm đủ lát để phủ
+ * cửa sổ cộng lát hiện tại, lát quá hạn được xóa và tái dùng nên bộ nhớ không tăng theo thời gian.
+ * Khóa coi là đã thấy nếu có trong bất kỳ lát còn hiệu lực nào, tức cửa sổ thực tế nằm giữa
+ * {@code window} và {@code window + slice}. Có thể báo nhầm "đã thấy" với xác suất xấp xỉ
+ * {@code falsePositiveRate} khi mỗi lát không vượt quá {@code expectedPerSlice} khóa; không bao giờ báo sót.
+ */
+public final class RotatingBloomFilter {
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final long sliceMillis;
+    private final Slice[] slices;
+    private final int bitCount;
+    private final int hashCount;
+
+    public RotatingBloomFilter(long windowMillis, long sliceMillis, int expectedPerSlice, double falsePositiveRate) {
+        if (windowMillis <= 0 || sliceMillis <= 0 || expectedPerSlice <= 0) {
+            throw new IllegalArgumentException("Cửa sổ, lát và dung lượng phải dương");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Tỷ lệ dương tính giả phải trong (0, 1)");
+        }
+        this.sliceMillis = sliceMillis;
+        int sliceCount = (int) ((windowMillis + sliceMillis - 1) / sliceMillis) + 1;
+        long bits = (long) Math.ceil(-expectedPerSlice * Math.log(falsePositiveRate) / LN2_SQUARED);
+        // Làm tròn lên bội số 64 để khớp mảng long
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, (bits + 63) & ~63L);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedPerSlice * Math.log(2)));
+        this.slices = new Slice[sliceCount];
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new Slice(bitCount / 64);
+        }
+    }
+
+    /**
+     * Ghi nhận khóa tại thời điểm {@code nowMillis}; trả về true nếu khóa chưa xuất hiện trong cửa sổ.
+     * Hai luồng cùng lúc đưa vào một khóa mới có thể cùng nhận true.
+     */
+    public boolean add(String key, long nowMillis) {
+        long h1 = Hashing.hash64(key);
+        long h2 = Hashing.mix64(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        long bucket = Math.floorDiv(nowMillis, sliceMillis);
+        Slice current = slice(bucket);
+        for (Slice slice : slices) {
+            if (slice != current && slice.isLive(bucket, slices.length) && slice.mightContain(h1, h2)) {
+                return false;
+            }
+        }
+        return current.put(h1, h2);
+    }
+
+    /**
+     * Tỷ lệ bit đã bật trung bình trên các lát còn hiệu lực (0..1); trên khoảng 0.5 thì tỷ lệ
+     * dương tính giả đã vượt mức cấu hình, cần tăng dung lượng mỗi lát.
+     */
+    public double fillRatio(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, sliceMillis);
+        long setBits = 0;
+        int live = 0;
+        for (Slice slice : slices) {
+            if (slice.isLive(bucket, slices.length)) {
+                setBits += slice.setBits.get();
+                live++;
+            }
+        }
+        return live == 0 ? 0.0 : (double) setBits / ((long) bitCount * live);
+    }
+
+    public int sliceCount() {
+        return slices.length;
+    }
+
+    public long memoryBytes() {
+        return (long) slices.length * bitCount / 8;
+    }
+
+    private Slice slice(long bucket) {
+        Slice slice = slices[(int) Math.floorMod(bucket, (long) slices.length)];
+        if (slice.bucket != bucket) {
+            synchronized (slice) {
+                if (slice.bucket != bucket) {
+                    slice.reset(bucket);
+                }
+            }
+        }
+        return slice;
+    }
+
+    private int bitIndex(long h1, long h2, int i) {
+        return (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+    }
+
+    private final class Slice {
+
+        private final AtomicLongArray words;
+        private final AtomicLong setBits = new AtomicLong();
+        private volatile long bucket = Long.MIN_VALUE;
+
+        private Slice(int wordCount) {
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        boolean isLive(long currentBucket, int sliceCount) {
+            long age = currentBucket - bucket;
+            return age >= 0 && age < sliceCount;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = bitIndex(h1, h2, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Bật các bit của khóa; true nếu ít nhất một bit trước đó còn tắt (khóa mới trong lát này).
+         */
+        boolean put(long h1, long h2) {
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = bitIndex(h1, h2, i);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long previous = words.getAndUpdate(word, value -> value | mask);
+                if ((previous & mask) == 0) {
+                    setBits.incrementAndGet();
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        void reset(long newBucket) {
+            for (int i = 0; i < words.length(); i++) {
+                words.set(i, 0L);
+            }
+            setBits.set(0);
+            bucket = newBucket;
+        }
+    }
+}
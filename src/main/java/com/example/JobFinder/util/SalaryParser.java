@@ -0,0 +1,162 @@
+package com.example.JobFinder.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hóa mức lương nhập tự do ("10-15 triệu", "Thỏa thuận", "$1000", "Từ 20tr") thành
+ * khoảng lương tháng tính bằng VND, kèm đơn vị tiền gốc và cờ thỏa thuận.
+ *
+ * Quy ước: số không có đơn vị dưới 1000 với tiền VND được hiểu là triệu ("10 - 15");
+ * lương theo năm chia 12, theo giờ nhân {@value #WORKING_HOURS_PER_MONTH};
+ * ngoại tệ quy đổi theo tỷ giá cố định chỉ dùng để lọc/sắp xếp, không hiển thị.
+ */
+public final class SalaryParser {
+
+    public static final String VND = "VND";
+    public static final String USD = "USD";
+    public static final String EUR = "EUR";
+
+    static final long USD_TO_VND = 25_000L;
+    static final long EUR_TO_VND = 27_000L;
+    static final int WORKING_HOURS_PER_MONTH = 176;
+
+    private static final ParsedSalary UNKNOWN = new ParsedSalary(null, null, null, false);
+
+    // Số (có thể có dấu phân cách nghìn/thập phân) kèm đơn vị nhân ngay sau
+    private static final Pattern AMOUNT = Pattern.compile(
+        "(\\d+(?:[.,]\\d+)*)\\s*(ty|trieu|tr|m|k|nghin|ngan)?(?![a-z])");
+    // Từ khóa phải đứng riêng: "tuyển", "tùy năng lực", "minh bạch", "ideal" không phải mốc/thỏa thuận
+    private static final Pattern NEGOTIABLE = Pattern.compile("\\b(thoa thuan|negotiable|canh tranh|competitive|deal)\\b");
+    private static final Pattern LOWER_BOUND = Pattern.compile("^(tu|tren|hon|it nhat|toi thieu|from|above|over|min|>)(?![a-z])");
+    private static final Pattern UPPER_BOUND = Pattern.compile("^(len den|len toi|den|toi|duoi|toi da|up to|upto|below|under|max|<)(?![a-z])");
+    private static final Pattern PER_YEAR = Pattern.compile("/\\s*nam|mot nam|per year|/\\s*year|/\\s*yr|annual");
+    private static final Pattern PER_HOUR = Pattern.compile("/\\s*gio|/\\s*h\\b|per hour|/\\s*hour|hourly");
+
+    private SalaryParser() {
+    }
+
+    /**
+     * Phân tích một chuỗi lương; chuỗi rỗng hoặc không đọc được trả về kết quả không có khoảng lương.
+     */
+    public static ParsedSalary parse(String salary) {
+        if (salary == null || salary.isBlank()) {
+            return UNKNOWN;
+        }
+        String text = VietnameseTextAnalyzer.fold(salary).trim();
+        boolean negotiable = NEGOTIABLE.matcher(text).find();
+        String currency = detectCurrency(text);
+
+        List<Double> amounts = new ArrayList<>(2);
+        List<String> units = new ArrayList<>(2);
+        Matcher matcher = AMOUNT.matcher(text);
+        while (matcher.find() && amounts.size() < 2) {
+            Double value = parseNumber(matcher.group(1));
+            if (value != null) {
+                amounts.add(value);
+                units.add(matcher.group(2));
+            }
+        }
+        if (amounts.isEmpty()) {
+            return new ParsedSalary(null, null, negotiable ? currency : null, negotiable);
+        }
+
+        // "10-15 triệu": đơn vị ở số sau áp cho cả số trước
+        if (amounts.size() == 2 && units.get(0) == null) {
+            units.set(0, units.get(1));
+        }
+        double periodFactor = periodFactor(text);
+        long first = toMonthlyVnd(amounts.get(0), units.get(0), currency, periodFactor);
+        if (amounts.size() == 2) {
+            long second = toMonthlyVnd(amounts.get(1), units.get(1), currency, periodFactor);
+            return new ParsedSalary(Math.min(first, second), Math.max(first, second), currency, negotiable);
+        }
+        if (LOWER_BOUND.matcher(text).find()) {
+            return new ParsedSalary(first, null, currency, negotiable);
+        }
+        if (UPPER_BOUND.matcher(text).find()) {
+            return new ParsedSalary(null, first, currency, negotiable);
+        }
+        return new ParsedSalary(first, first, currency, negotiable);
+    }
+
+    private static String detectCurrency(String text) {
+        if (text.contains("$") || text.contains("usd")) {
+            return USD;
+        }
+        if (text.contains("€") || text.contains("eur")) {
+            return EUR;
+        }
+        return VND;
+    }
+
+    private static double periodFactor(String text) {
+        if (PER_YEAR.matcher(text).find()) {
+            return 1.0 / 12;
+        }
+        if (PER_HOUR.matcher(text).find()) {
+            return WORKING_HOURS_PER_MONTH;
+        }
+        return 1.0;
+    }
+
+    private static long toMonthlyVnd(double amount, String unit, String currency, double periodFactor) {
+        double value = amount * unitMultiplier(unit);
+        if (VND.equals(currency)) {
+            if (unit == null && value < 1000) {
+                value *= 1_000_000; // "10 - 15" trong ô lương hiểu là triệu
+            }
+        } else {
+            value *= USD.equals(currency) ? USD_TO_VND : EUR_TO_VND;
+        }
+        return Math.round(value * periodFactor);
+    }
+
+    private static double unitMultiplier(String unit) {
+        if (unit == null) {
+            return 1;
+        }
+        return switch (unit) {
+            case "ty" -> 1_000_000_000d;
+            case "trieu", "tr", "m" -> 1_000_000d;
+            case "k", "nghin", "ngan" -> 1_000d;
+            default -> 1;
+        };
+    }
+
+    /**
+     * "15.000.000" và "1,000" là phân cách nghìn; "1,5" và "2.5" là phần thập phân.
+     */
+    private static Double parseNumber(String raw) {
+        String[] groups = raw.split("[.,]");
+        boolean thousands = groups.length > 2;
+        if (groups.length == 2) {
+            thousands = groups[1].length() == 3;
+        }
+        try {
+            if (thousands) {
+                return Double.parseDouble(String.join("", groups));
+            }
+            return Double.parseDouble(raw.replace(',', '.'));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Kết quả phân tích; min/max null khi không xác định (ví dụ "Thỏa thuận" hoặc "Từ 10 triệu").
+     *
+     * @param minMonthlyVnd lương tháng tối thiểu quy ra VND
+     * @param maxMonthlyVnd lương tháng tối đa quy ra VND
+     * @param currency      đơn vị tiền trong tin gốc (VND, USD, EUR), null khi không có con số
+     * @param negotiable    tin ghi "thỏa thuận"/"cạnh tranh"
+     */
+    public record ParsedSalary(Long minMonthlyVnd, Long maxMonthlyVnd, String currency, boolean negotiable) {
+
+        public boolean hasRange() {
+            return minMonthlyVnd != null || maxMonthlyVnd != null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.JobFinder.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Từ điển kỹ năng chuẩn: gộp các cách viết khác nhau ("ReactJS", "react.js", "React JS") về một tên chuẩn ("react").
+ *
+ * Mỗi dòng có dạng {@code tên-chuẩn: bí danh, bí danh, ...}; dòng trống và dòng bắt đầu bằng {@code #} bị bỏ qua.
+ * Việc so khớp dùng khóa rút gọn: bỏ dấu, chữ thường, bỏ khoảng trắng và dấu câu trừ {@code +} và {@code #}
+ * (để "c++", "c#" không thành "c"). Kỹ năng không có trong từ điển được giữ nguyên khóa rút gọn làm tên chuẩn.
+ */
+public final class SkillDictionary {
+
+    private final Map<String, String> canonicalByKey;
+
+    private SkillDictionary(Map<String, String> canonicalByKey) {
+        this.canonicalByKey = canonicalByKey;
+    }
+
+    public static SkillDictionary empty() {
+        return new SkillDictionary(Map.of());
+    }
+
+    public static SkillDictionary parse(List<String> lines) {
+        Map<String, String> canonicalByKey = new HashMap<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            String canonical = key(separator < 0 ? trimmed : trimmed.substring(0, separator));
+            if (canonical.isEmpty()) {
+                continue;
+            }
+            canonicalByKey.put(canonical, canonical);
+            if (separator >= 0) {
+                for (String alias : trimmed.substring(separator + 1).split(",")) {
+                    String aliasKey = key(alias);
+                    if (!aliasKey.isEmpty()) {
+                        canonicalByKey.put(aliasKey, canonical);
+                    }
+                }
+            }
+        }
+        return new SkillDictionary(canonicalByKey);
+    }
+
+    public static SkillDictionary load(InputStream input) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return parse(reader.lines().toList());
+        }
+    }
+
+    /**
+     * Tên chuẩn của một kỹ năng; chuỗi rỗng nếu không còn ký tự có nghĩa.
+     */
+    public String canonicalize(String skill) {
+        String key = key(skill);
+        return key.isEmpty() ? key : canonicalByKey.getOrDefault(key, key);
+    }
+
+    public int size() {
+        return canonicalByKey.size();
+    }
+
+    static String key(String skill) {
+        String folded = VietnameseTextAnalyzer.fold(skill);
+        StringBuilder key = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+}
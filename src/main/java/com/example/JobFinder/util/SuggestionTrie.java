@@ -0,0 +1,256 @@
+package com.example.JobFinder.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trie tiền tố bất biến cho gợi ý tìm kiếm, lưu phẳng trong các mảng (kiểu FST đơn giản).
+ *
+ * Khóa là chuỗi đã bỏ dấu ({@link VietnameseTextAnalyzer#normalize}); mỗi cụm được chèn
+ * từ mọi đầu từ nên "java" gợi ý được "Lập trình viên Java". Mỗi nút lưu sẵn top-k mục
+ * theo trọng số, tra cứu chỉ đi theo các ký tự của tiền tố và không cần khóa.
+ */
+public final class SuggestionTrie {
+
+    public static final SuggestionTrie EMPTY = builder(1).build();
+
+    private static final int MAX_KEY_LENGTH = 80;
+
+    // Nút i: con nằm liên tiếp trong [firstChild[i], firstChild[i] + childCount[i]), sắp theo ký tự
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    // Top-k của nút i: topEntries[topStart[i] .. topStart[i + 1])
+    private final int[] topStart;
+    private final int[] topEntries;
+
+    private final String[] texts;
+    private final String[] kinds;
+    private final long[] weights;
+
+    private SuggestionTrie(char[] labels, int[] firstChild, int[] childCount, int[] topStart, int[] topEntries,
+                           String[] texts, String[] kinds, long[] weights) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topEntries = topEntries;
+        this.texts = texts;
+        this.kinds = kinds;
+        this.weights = weights;
+    }
+
+    public static Builder builder(int topK) {
+        return new Builder(topK);
+    }
+
+    /**
+     * Tối đa {@code limit} gợi ý có một từ bắt đầu bằng {@code prefix} (không phân biệt dấu/hoa thường),
+     * trọng số giảm dần. Tiền tố rỗng trả về các mục nặng nhất.
+     */
+    public List<Suggestion> lookup(String prefix, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        String key = VietnameseTextAnalyzer.normalize(prefix);
+        int node = 0;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        if (node < 0) {
+            return List.of();
+        }
+        int end = Math.min(topStart[node + 1], topStart[node] + limit);
+        List<Suggestion> suggestions = new ArrayList<>(end - topStart[node]);
+        for (int i = topStart[node]; i < end; i++) {
+            int entry = topEntries[i];
+            suggestions.add(new Suggestion(texts[entry], kinds[entry], weights[entry]));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    /**
+     * Gộp gợi ý trùng chữ hiển thị giữa các loại (giữ mục nặng nhất).
+     */
+    public static List<Suggestion> distinctByText(List<Suggestion> suggestions, int limit) {
+        Map<String, Suggestion> distinct = new LinkedHashMap<>();
+        for (Suggestion suggestion : suggestions) {
+            distinct.putIfAbsent(VietnameseTextAnalyzer.normalize(suggestion.text()), suggestion);
+            if (distinct.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public record Suggestion(String text, String kind, long weight) {
+    }
+
+    /**
+     * Gom các mục (cộng dồn trọng số khi trùng loại + khóa đã bỏ dấu) rồi đóng băng thành trie.
+     * Không thread-safe; mỗi lần dựng dùng một builder riêng.
+     */
+    public static final class Builder {
+
+        private final int topK;
+        private final Map<String, Integer> entryIndex = new HashMap<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> kinds = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+
+        private Builder(int topK) {
+            this.topK = Math.max(topK, 1);
+        }
+
+        public Builder add(String text, String kind, long weight) {
+            if (text == null || text.isBlank()) {
+                return this;
+            }
+            String key = VietnameseTextAnalyzer.normalize(text);
+            if (key.isEmpty()) {
+                return this;
+            }
+            if (key.length() > MAX_KEY_LENGTH) {
+                key = key.substring(0, MAX_KEY_LENGTH);
+            }
+            Integer existing = entryIndex.putIfAbsent(kind + '\u0000' + key, keys.size());
+            if (existing != null) {
+                weights.set(existing, weights.get(existing) + weight);
+                return this;
+            }
+            keys.add(key);
+            texts.add(text.trim());
+            kinds.add(kind);
+            weights.add(weight);
+            return this;
+        }
+
+        public SuggestionTrie build() {
+            int entryCount = keys.size();
+            long[] weightArray = new long[entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                weightArray[i] = weights.get(i);
+            }
+
+            // Duyệt mục theo trọng số giảm dần: mục nào đến nút trước thì nặng hơn, top-k chỉ cần nối thêm
+            Integer[] byWeight = new Integer[entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                byWeight[i] = i;
+            }
+            Arrays.sort(byWeight, Comparator.<Integer>comparingLong(i -> weightArray[i]).reversed()
+                .thenComparing(i -> texts.get(i)));
+
+            MutableNode root = new MutableNode();
+            for (int entry : byWeight) {
+                String key = keys.get(entry);
+                for (int start = 0; start < key.length(); start = key.indexOf(' ', start) + 1) {
+                    insert(root, key, start, entry);
+                    if (key.indexOf(' ', start) < 0) {
+                        break;
+                    }
+                }
+                root.offer(entry, topK);
+            }
+            return freeze(root, weightArray);
+        }
+
+        private void insert(MutableNode root, String key, int start, int entry) {
+            MutableNode node = root;
+            for (int i = start; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new MutableNode());
+                node.offer(entry, topK);
+            }
+        }
+
+        private SuggestionTrie freeze(MutableNode root, long[] weightArray) {
+            // Đánh số theo chiều rộng để con của mỗi nút nằm liền nhau
+            List<MutableNode> order = new ArrayList<>();
+            List<Character> labelList = new ArrayList<>();
+            order.add(root);
+            labelList.add('\0');
+            List<int[]> childRanges = new ArrayList<>();
+            for (int i = 0; i < order.size(); i++) {
+                MutableNode node = order.get(i);
+                childRanges.add(new int[] {order.size(), node.children.size()});
+                for (Map.Entry<Character, MutableNode> child : node.children.entrySet()) {
+                    order.add(child.getValue());
+                    labelList.add(child.getKey());
+                }
+            }
+
+            int nodeCount = order.size();
+            char[] labels = new char[nodeCount];
+            int[] firstChild = new int[nodeCount];
+            int[] childCount = new int[nodeCount];
+            int[] topStart = new int[nodeCount + 1];
+            int topTotal = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                labels[i] = labelList.get(i);
+                firstChild[i] = childRanges.get(i)[0];
+                childCount[i] = childRanges.get(i)[1];
+                topStart[i] = topTotal;
+                topTotal += order.get(i).top.size();
+            }
+            topStart[nodeCount] = topTotal;
+
+            int[] topEntries = new int[topTotal];
+            for (int i = 0; i < nodeCount; i++) {
+                List<Integer> top = order.get(i).top;
+                for (int j = 0; j < top.size(); j++) {
+                    topEntries[topStart[i] + j] = top.get(j);
+                }
+            }
+
+            return new SuggestionTrie(labels, firstChild, childCount, topStart, topEntries,
+                texts.toArray(String[]::new), kinds.toArray(String[]::new), weightArray);
+        }
+    }
+
+    private static final class MutableNode {
+
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private final List<Integer> top = new ArrayList<>(2);
+
+        /**
+         * Mục được đưa vào theo trọng số giảm dần nên chỉ cần nối thêm khi còn chỗ;
+         * một mục có thể đi qua cùng nút hai lần (hai từ cùng tiền tố) nên phải bỏ trùng.
+         */
+        void offer(int entry, int topK) {
+            if (top.size() < topK && (top.isEmpty() || top.get(top.size() - 1) != entry)) {
+                top.add(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.JobFinder.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hóa văn bản tiếng Việt cho tìm kiếm: bỏ dấu (NFD), đ → d, chữ thường,
+ * tách từ theo ký tự không phải chữ/số và loại stop-word.
+ *
+ * "Kế toán Hà Nội" → "ke toan ha noi", nên người dùng gõ không dấu vẫn khớp.
+ */
+public final class VietnameseTextAnalyzer {
+
+    /**
+     * Chỉ giữ các từ nối không gây nhập nhằng sau khi bỏ dấu
+     * (không loại "tai" vì trùng "tài chính", "the" vì trùng "thẻ"...).
+     */
+    private static final Set<String> STOP_WORDS = Set.of(
+        "va", "cua", "cac", "nhung", "voi", "hoac",
+        "and", "or", "of", "with"
+    );
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_ENTITY = Pattern.compile("&[#a-zA-Z0-9]+;");
+
+    /** Bảng tra sẵn cho Latin-1, Latin Extended và khối chữ tiếng Việt (U+1E00–U+1EFF). */
+    private static final int FOLD_TABLE_SIZE = 0x1F00;
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private VietnameseTextAnalyzer() {
+    }
+
+    /**
+     * Bỏ dấu và chuyển chữ thường, giữ nguyên dấu câu/khoảng trắng.
+     * Chuỗi ASCII đã là chữ thường được trả lại nguyên vẹn (không cấp phát).
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        int length = text.length();
+        boolean hasUpper = false;
+        int i = 0;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                hasUpper = true;
+            }
+        }
+        if (i == length) {
+            return hasUpper ? text.toLowerCase(Locale.ROOT) : text;
+        }
+
+        StringBuilder folded = new StringBuilder(length);
+        for (int j = 0; j < length; j++) {
+            appendFolded(folded, text.charAt(j));
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Dạng chuẩn dùng cho cột tìm kiếm và tham số truy vấn:
+     * các từ đã bỏ dấu, cách nhau đúng một khoảng trắng, không giữ dấu câu.
+     * Stop-word được giữ lại để so khớp cụm từ bằng LIKE vẫn đúng.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        if (isNormalizedAscii(text)) {
+            return text;
+        }
+
+        String folded = fold(text);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Normalize rồi trả về null khi không còn ký tự tìm kiếm nào (tiện cho tham số truy vấn tùy chọn).
+     */
+    public static String normalizeOrNull(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Mẫu LIKE tiền tố ("abc%") trên dạng chuẩn, null khi rỗng. Dạng chuẩn chỉ gồm chữ, số và khoảng trắng
+     * nên không cần escape % và _; so khớp tiền tố dùng được chỉ mục B-tree của cột *_normalized.
+     */
+    public static String prefixPattern(String text) {
+        String normalized = normalize(text);
+        return normalized.isEmpty() ? null : normalized + "%";
+    }
+
+    /**
+     * Tách thành các term đã bỏ dấu, loại stop-word; dùng cho chỉ mục đảo ngược.
+     */
+    public static List<String> terms(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        int start = 0;
+        while (start < normalized.length()) {
+            int end = normalized.indexOf(' ', start);
+            if (end < 0) {
+                end = normalized.length();
+            }
+            String term = normalized.substring(start, end);
+            if (!STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+            start = end + 1;
+        }
+        return terms;
+    }
+
+    /**
+     * Bỏ thẻ HTML và entity trong mô tả công việc trước khi phân tích.
+     */
+    public static String stripHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        if (html.indexOf('<') < 0 && html.indexOf('&') < 0) {
+            return html;
+        }
+        return HTML_ENTITY.matcher(HTML_TAG.matcher(html).replaceAll(" ")).replaceAll(" ");
+    }
+
+    /**
+     * Ghép nhiều trường rồi chuẩn hóa; trường null được bỏ qua.
+     */
+    public static String normalizeAll(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isEmpty()) {
+                joined.append(part).append(' ');
+            }
+        }
+        return normalize(joined.toString());
+    }
+
+    private static boolean isNormalizedAscii(String text) {
+        int length = text.length();
+        char previous = ' ';
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean word = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+            if (!word && (c != ' ' || previous == ' ')) {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != ' ';
+    }
+
+    private static void appendFolded(StringBuilder target, char c) {
+        if (c < FOLD_TABLE_SIZE) {
+            char mapped = FOLD_TABLE[c];
+            if (mapped != 0) {
+                target.append(mapped);
+                return;
+            }
+        }
+        // Ngoài bảng tra: tách dấu bằng NFD và bỏ các ký tự dấu
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        for (int i = 0; i < decomposed.length(); i++) {
+            char part = decomposed.charAt(i);
+            if (Character.getType(part) != Character.NON_SPACING_MARK) {
+                target.append(Character.toLowerCase(part));
+            }
+        }
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[FOLD_TABLE_SIZE];
+        for (int c = 0; c < FOLD_TABLE_SIZE; c++) {
+            if (c == 'đ' || c == 'Đ') {
+                table[c] = 'd';
+                continue;
+            }
+            String decomposed = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFD);
+            StringBuilder base = new StringBuilder(1);
+            for (int i = 0; i < decomposed.length(); i++) {
+                char part = decomposed.charAt(i);
+                if (Character.getType(part) != Character.NON_SPACING_MARK) {
+                    base.append(part);
+                }
+            }
+            if (base.length() == 1) {
+                table[c] = Character.toLowerCase(base.charAt(0));
+            }
+        }
+        return table;
+    }
+}
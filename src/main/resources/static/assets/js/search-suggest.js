@@ -0,0 +1,53 @@
+// Gợi ý từ khóa cho các ô tìm kiếm có thuộc tính data-suggest (dùng <datalist> của trình duyệt)
+(function () {
+    'use strict';
+
+    const DEBOUNCE_MS = 150;
+
+    const attach = (input) => {
+        const list = document.createElement('datalist');
+        list.id = `${input.id || 'keyword'}-suggestions`;
+        input.after(list);
+        input.setAttribute('list', list.id);
+        input.setAttribute('autocomplete', 'off');
+
+        let timer = null;
+        let controller = null;
+        let lastQuery = '';
+
+        const render = (suggestions) => {
+            list.replaceChildren(...suggestions.map((suggestion) => {
+                const option = document.createElement('option');
+                option.value = suggestion.text;
+                return option;
+            }));
+        };
+
+        const load = () => {
+            const query = input.value.trim();
+            if (query === lastQuery) {
+                return;
+            }
+            lastQuery = query;
+            if (query.length < 2) {
+                render([]);
+                return;
+            }
+            if (controller) {
+                controller.abort();
+            }
+            controller = new AbortController();
+            fetch(`/jobs/suggest?q=${encodeURIComponent(query)}&limit=8`, { signal: controller.signal })
+                .then((response) => (response.ok ? response.json() : { suggestions: [] }))
+                .then((data) => render(data.suggestions || []))
+                .catch(() => {});
+        };
+
+        input.addEventListener('input', () => {
+            clearTimeout(timer);
+            timer = setTimeout(load, DEBOUNCE_MS);
+        });
+    };
+
+    document.querySelectorAll('input[data-suggest]').forEach(attach);
+})();
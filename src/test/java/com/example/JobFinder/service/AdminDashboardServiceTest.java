@@ -0,0 +1,95 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.repository.ApplicationRepository;
+import com.example.JobFinder.repository.CandidateRepository;
+import com.example.JobFinder.repository.EmployerRepository;
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.service.AdminDashboardService.DashboardData;
+import com.example.JobFinder.service.AdminDashboardService.PipelineStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdminDashboardServiceTest {
+
+    private JobRepository jobRepository;
+    private ApplicationRepository applicationRepository;
+    private EmployerRepository employerRepository;
+    private CandidateRepository candidateRepository;
+    private AdminDashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(JobRepository.class);
+        applicationRepository = mock(ApplicationRepository.class);
+        employerRepository = mock(EmployerRepository.class);
+        candidateRepository = mock(CandidateRepository.class);
+        when(jobRepository.countGroupByStatus())
+            .thenReturn(List.of(new Object[] {"published", 4L}, new Object[] {"draft", 1L}));
+        when(applicationRepository.countGroupByStatusWithRecent(any()))
+            .thenReturn(List.of(new Object[] {"applied", 3L, 2L}, new Object[] {"shortlisted", 2L, 0L}));
+        service = new AdminDashboardService(jobRepository, applicationRepository, employerRepository, candidateRepository);
+    }
+
+    @Test
+    void servesRepeatedLoadsFromSnapshot() {
+        DashboardData first = service.buildDashboardData();
+        for (int i = 0; i < 5; i++) {
+            service.buildDashboardData();
+        }
+
+        verify(jobRepository, times(1)).countGroupByStatus();
+        verify(applicationRepository, times(1)).countGroupByStatusWithRecent(any());
+        assertEquals(5, first.totalJobs());
+        assertEquals(4, first.activeJobs());
+        assertEquals(5, first.totalApplications());
+        assertEquals(2, first.applicationsLast30());
+        assertEquals(40.0, first.interviewRate(), 0.001);
+    }
+
+    @Test
+    void appliesStatusEventsToSnapshot() {
+        service.buildDashboardData();
+        LocalDateTime now = LocalDateTime.now();
+
+        service.onApplicationStatusChanged(new ApplicationStatusChangedEvent(1, "applied", "shortlisted"));
+        service.onApplicationStatusChanged(new ApplicationStatusChangedEvent(9, null, "applied", now));
+        service.onApplicationStatusChanged(new ApplicationStatusChangedEvent(2, "applied", null, now.minusDays(3)));
+        DashboardData data = service.buildDashboardData();
+
+        verify(applicationRepository, times(1)).countGroupByStatusWithRecent(any());
+        assertEquals(5, data.totalApplications());
+        assertEquals(3, data.shortlistedCount());
+        assertEquals(2, data.applicationsLast30());
+        assertEquals(2, count(data, "applied"));
+        assertEquals(3, count(data, "shortlisted"));
+    }
+
+    @Test
+    void deletingOldApplicationKeepsRecentCount() {
+        service.buildDashboardData();
+
+        service.onApplicationStatusChanged(
+            new ApplicationStatusChangedEvent(4, "shortlisted", null, LocalDateTime.now().minusDays(45)));
+        DashboardData data = service.buildDashboardData();
+
+        assertEquals(4, data.totalApplications());
+        assertEquals(2, data.applicationsLast30());
+    }
+
+    private long count(DashboardData data, String status) {
+        return data.pipelineStatuses().stream()
+            .filter(pipeline -> pipeline.key().equals(status))
+            .mapToLong(PipelineStatus::count)
+            .findFirst()
+            .orElse(0L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.service.BulkNotificationService.BulkMessage;
+import com.example.JobFinder.service.BulkNotificationService.Recipient;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class BulkNotificationServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
+    private BulkNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        emailService = mock(EmailService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new BulkNotificationService(jdbcTemplate, emailService,
+            new NotificationService(null, eventPublisher), eventPublisher);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertsNotificationsAndEmailsOneBatchPerChunk() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            List<Object> ids = Arrays.asList(invocation.getArguments()).subList(2, invocation.getArguments().length);
+            return ids.stream()
+                .filter(id -> !id.equals(3))
+                .map(id -> new Recipient((Integer) id, "u" + id + "@example.com", "User " + id))
+                .toList();
+        });
+
+        int delivered = service.notifyUsers(List.of(4, 1, 2, 3, 1),
+            new BulkMessage("Tiêu đề", "Nội dung", "fa-bell", "[JobFinder] Tiêu đề", "Nội dung thư"));
+
+        // Lô [1, 2] và [3, 4]; id 3 không tồn tại
+        assertEquals(3, delivered);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(List.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(emailService).sendAll(argThat(emails -> emails.size() == 2));
+        verify(emailService).sendAll(argThat(emails -> emails.size() == 1
+            && emails.get(0).text().startsWith("Chào User 4,")));
+        verify(eventPublisher, times(3)).publishEvent(any(NotificationCreatedEvent.class));
+        verify(eventPublisher).publishEvent(eq(HeaderContextChangedEvent.forUser(2)));
+    }
+}
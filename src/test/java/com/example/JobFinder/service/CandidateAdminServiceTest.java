@@ -0,0 +1,81 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.repository.CandidateRepository;
+import com.example.JobFinder.repository.CandidateSkillRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class CandidateAdminServiceTest {
+
+    private final CandidateRepository candidateRepository = mock(CandidateRepository.class);
+    private final CandidateSkillSearchIndex skillSearchIndex = mock(CandidateSkillSearchIndex.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CandidateAdminService service = new CandidateAdminService(
+        candidateRepository, mock(CandidateSkillRepository.class), skillSearchIndex, jdbcTemplate);
+
+    @Test
+    void pagesAscendingIdsNewestFirst() {
+        int[] ids = new int[45];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+
+        assertEquals(45, CandidateAdminService.pageOfUserIds(ids, 1).get(0));
+        assertEquals(26, CandidateAdminService.pageOfUserIds(ids, 1).get(19));
+        assertEquals(List.of(5, 4, 3, 2, 1), CandidateAdminService.pageOfUserIds(ids, 3));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skillOnlyFilterPagesMatchesInMemory() {
+        when(skillSearchIndex.search("java, react | vue")).thenReturn(Optional.empty());
+        when(skillSearchIndex.searchStored("java, react | vue")).thenReturn(Optional.of(new int[] {3, 7, 9}));
+        when(candidateRepository.countAdminCandidateStats(anyString(), anyString(), anyString(), anyBoolean(),
+            anyString(), any(LocalDateTime.class))).thenReturn(List.<Object[]>of(new Object[] {3L, 2L, 1L}));
+
+        Map<String, Object> result = service.getCandidatesList("", "", "java, react | vue", "", 1);
+
+        verify(candidateRepository).findAdminCandidateRowsByUserIds(List.of(9, 7, 3));
+        verify(candidateRepository, never()).findAdminCandidateRows(
+            anyString(), anyString(), anyString(), anyBoolean(), anyString(), any(Pageable.class));
+        Map<String, Object> stats = (Map<String, Object>) result.get("stats");
+        assertEquals(3L, stats.get("totalCandidates"));
+        assertEquals(2L, stats.get("withCv"));
+
+        InOrder order = inOrder(jdbcTemplate, candidateRepository);
+        order.verify(jdbcTemplate).batchUpdate(eq("INSERT INTO candidate_skill_matches (user_id) VALUES (?)"),
+            any(BatchPreparedStatementSetter.class));
+        order.verify(candidateRepository).countAdminCandidateStats(anyString(), anyString(), anyString(), eq(true),
+            anyString(), any(LocalDateTime.class));
+        order.verify(jdbcTemplate).execute("DROP TEMPORARY TABLE IF EXISTS candidate_skill_matches");
+    }
+
+    @Test
+    void noSkillMatchesSkipsQueries() {
+        when(skillSearchIndex.search("cobol")).thenReturn(Optional.of(new int[0]));
+
+        Map<String, Object> result = service.getCandidatesList("", "", "cobol", "", 1);
+
+        assertEquals(List.of(), result.get("candidates"));
+        verify(candidateRepository, never()).countAdminCandidateStats(anyString(), anyString(), anyString(),
+            anyBoolean(), anyString(), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class CandidateSkillSearchIndexTest {
+
+    private static final String STORED_QUERY = "SELECT DISTINCT c.user_id FROM candidate_skills s "
+        + "JOIN candidates c ON c.id = s.candidate_id WHERE s.skill_canonical IN (%s) ORDER BY c.user_id";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CandidateSkillSearchIndex index = new CandidateSkillSearchIndex(jdbcTemplate);
+
+    @Test
+    void storedSearchFoldsAliasesAndMatchesCanonicalNames() {
+        when(jdbcTemplate.queryForList(eq(STORED_QUERY.formatted("?, ?")), eq(Integer.class), eq("react"), eq("csharp")))
+            .thenReturn(List.of(2, 5, 9));
+        when(jdbcTemplate.queryForList(eq(STORED_QUERY.formatted("?")), eq(Integer.class), eq("java")))
+            .thenReturn(List.of(5, 9, 12));
+
+        int[] matches = index.searchStored("ReactJS | C#, Java").orElseThrow();
+
+        // "java" so bằng tên chuẩn nên không còn khớp tiền tố của "javascript"
+        assertArrayEquals(new int[] {5, 9}, matches);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class CurrentUserServiceTest {
+
+    private CustomUserDetailsService userDetailsService;
+    private CurrentUserService service;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(CustomUserDetailsService.class);
+        service = new CurrentUserService(userDetailsService);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsIdsFromPrincipalWithoutLookup() {
+        Authentication auth = login(new AuthenticatedUser("e@example.com", "", List.of(), 7, "employer", 70, null));
+
+        assertEquals(7, service.userId(auth));
+        assertEquals(70, service.employerId(auth));
+        assertNull(service.candidateId(auth));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertEquals(3L, service.metrics().get("principalReads"));
+    }
+
+    @Test
+    void reloadsPrincipalOnceProfileIsCreated() {
+        Authentication auth = login(new AuthenticatedUser("c@example.com", "", List.of(), 9, "candidate", null, null));
+        AuthenticatedUser fresh = new AuthenticatedUser("c@example.com", "", List.of(), 9, "candidate", null, 90);
+        when(userDetailsService.loadUserByUsername("c@example.com")).thenReturn(fresh);
+
+        assertEquals(90, service.candidateId(auth));
+        Authentication replaced = SecurityContextHolder.getContext().getAuthentication();
+        assertSame(fresh, replaced.getPrincipal());
+        assertEquals(90, service.candidateId(replaced));
+        assertEquals(1L, service.metrics().get("reloads"));
+    }
+
+    private static Authentication login(AuthenticatedUser principal) {
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.example.JobFinder.service.EmailOutboxDispatcher.OutboxMessage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class EmailOutboxDispatcherTest {
+
+    private LocalSmtpServer smtp;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new LocalSmtpServer("bounce@");
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.port());
+        mailSender.setDefaultEncoding("UTF-8");
+        dispatcher = new EmailOutboxDispatcher(mock(JdbcTemplate.class), mock(TransactionTemplate.class), mailSender);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendsWholeBatchOverOneConnection() throws Exception {
+        Map<Long, String> failures = dispatcher.send(List.of(
+            new OutboxMessage(1, "a@example.com", "Ứng viên mới", "Nội dung 1", 1),
+            new OutboxMessage(2, "b@example.com", "Trạng thái hồ sơ", "Nội dung 2", 1),
+            new OutboxMessage(3, "c@example.com", "Trạng thái hồ sơ", "Nội dung 3", 1)));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(3, smtp.awaitMessages(3).size());
+        assertEquals(1, smtp.connections());
+    }
+
+    @Test
+    void rejectedRecipientFailsOnlyItsMessage() throws Exception {
+        Map<Long, String> failures = dispatcher.send(List.of(
+            new OutboxMessage(1, "a@example.com", "Tiêu đề", "Nội dung", 1),
+            new OutboxMessage(2, "bounce@example.com", "Tiêu đề", "Nội dung", 3),
+            new OutboxMessage(3, "c@example.com", "Tiêu đề", "Nội dung", 1)));
+
+        assertEquals(Map.of(2L, failures.get(2L)), failures);
+        assertEquals(2, smtp.awaitMessages(2).size());
+    }
+
+    @Test
+    void backoffDoublesUpToCap() {
+        assertEquals(30_000L, EmailOutboxDispatcher.backoffMillis(1, 30_000L, 3_600_000L));
+        assertEquals(120_000L, EmailOutboxDispatcher.backoffMillis(3, 30_000L, 3_600_000L));
+        assertEquals(3_600_000L, EmailOutboxDispatcher.backoffMillis(20, 30_000L, 3_600_000L));
+    }
+
+    /**
+     * Máy chủ SMTP tối giản chạy trong tiến trình test: nhận mọi thư, từ chối người nhận có tiền tố cho trước.
+     */
+    static final class LocalSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final String rejectPrefix;
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+
+        LocalSmtpServer(String rejectPrefix) throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.rejectPrefix = rejectPrefix;
+            Thread acceptor = new Thread(this::acceptLoop, "local-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        List<String> awaitMessages(int expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (messages.size() < expected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return List.copyOf(messages);
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    handle(socket);
+                } catch (IOException ex) {
+                    // Đóng server hoặc client ngắt kết nối
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 localhost ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO:") && line.toLowerCase(Locale.ROOT).contains("<" + rejectPrefix)) {
+                    reply(out, "550 No such user");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    messages.add(data.toString());
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // MAIL FROM, RCPT TO, RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(OutputStream out, String response) throws IOException {
+            out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.model.Employer;
+import com.example.JobFinder.repository.EmployerRepository;
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.repository.UserRepository;
+import com.example.JobFinder.service.UploadStorageService.UploadKind;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+class EmployerServiceTest {
+
+    private static final String OLD_LOGO = "/uploads/logos/old.png";
+
+    private final EmployerRepository employerRepository = mock(EmployerRepository.class);
+    private final UploadStorageService uploadStorageService = mock(UploadStorageService.class);
+    private final EmployerService employerService = new EmployerService(employerRepository, mock(JobRepository.class),
+        mock(JobViewCounter.class), mock(ViewerSketchService.class), mock(JdbcTemplate.class),
+        mock(UserRepository.class), uploadStorageService, mock(ApplicationEventPublisher.class));
+
+    private Employer employer;
+
+    @BeforeEach
+    void setUp() {
+        employer = new Employer();
+        employer.setId(7);
+        employer.setCompanyName("Acme");
+        employer.setLogoPath(OLD_LOGO);
+        when(employerRepository.findByIdWithUser(7)).thenReturn(Optional.of(employer));
+    }
+
+    @Test
+    void releasesOldLogoOnlyAfterNewOneIsStored() throws Exception {
+        MockMultipartFile logo = new MockMultipartFile("companyLogo", "new.png", "image/png", new byte[] {1});
+        when(uploadStorageService.store(logo, UploadKind.LOGO)).thenReturn("uploads/logos/new.png");
+
+        employerService.updateCompanyProfile(7, "Acme", null, null, null, logo, false, null, null);
+
+        assertEquals("/uploads/logos/new.png", employer.getLogoPath());
+        InOrder order = inOrder(uploadStorageService, employerRepository);
+        order.verify(uploadStorageService).store(logo, UploadKind.LOGO);
+        order.verify(employerRepository).save(employer);
+        order.verify(uploadStorageService).release(OLD_LOGO);
+    }
+
+    @Test
+    void rejectedUploadKeepsOldLogo() throws Exception {
+        MockMultipartFile logo = new MockMultipartFile("companyLogo", "x.png", "image/png", new byte[] {1});
+        when(uploadStorageService.store(logo, UploadKind.LOGO)).thenThrow(new IllegalArgumentException("sai định dạng"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> employerService.updateCompanyProfile(7, "Acme", null, null, null, logo, true, null, null));
+
+        assertEquals(OLD_LOGO, employer.getLogoPath());
+        verify(uploadStorageService, never()).release(any());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.service.HeaderContextService.HeaderUserContext;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HeaderContextCacheTest {
+
+    private HeaderContextService headerContextService;
+    private NotificationService notificationService;
+    private HeaderContextCache cache;
+
+    @BeforeEach
+    void setUp() {
+        headerContextService = mock(HeaderContextService.class);
+        notificationService = mock(NotificationService.class);
+        when(headerContextService.buildContext(any())).thenAnswer(invocation -> {
+            Authentication auth = invocation.getArgument(0);
+            int userId = Integer.parseInt(auth.getName().substring(1, auth.getName().indexOf('@')));
+            return Optional.of(new HeaderUserContext(userId, "U" + userId, auth.getName(), null,
+                "candidate", "/candidate/dashboard", 0, 0, userId + 100));
+        });
+        when(notificationService.getRecentNotifications(anyInt(), anyInt())).thenReturn(List.of());
+        cache = new HeaderContextCache(headerContextService, notificationService);
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    @Test
+    void invalidatesByUserAndByCandidate() {
+        Authentication alice = login("u1@example.com");
+        cache.get(alice);
+        cache.get(alice);
+        verify(headerContextService, times(1)).buildContext(alice);
+
+        cache.onHeaderContextChanged(HeaderContextChangedEvent.forCandidate(101));
+        cache.get(alice);
+        cache.onCandidateChanged(new CandidateChangedEvent(1));
+        cache.get(alice);
+        // Người khác đổi dữ liệu không ảnh hưởng mục của u1
+        cache.onHeaderContextChanged(HeaderContextChangedEvent.forUser(2));
+        cache.get(alice);
+        verify(headerContextService, times(3)).buildContext(alice);
+        assertEquals(2L, cache.metrics().get("invalidations"));
+        assertEquals(2L, cache.metrics().get("hits"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondLimit() {
+        Authentication first = login("u1@example.com");
+        Authentication second = login("u2@example.com");
+        Authentication third = login("u3@example.com");
+        cache.get(first);
+        cache.get(second);
+        cache.get(first);
+        cache.get(third);
+
+        cache.get(first);
+        cache.get(second);
+        verify(headerContextService, times(1)).buildContext(first);
+        verify(headerContextService, times(2)).buildContext(second);
+        assertEquals(2, cache.metrics().get("size"));
+        assertEquals(2L, cache.metrics().get("evictions"));
+    }
+
+    private static Authentication login(String email) {
+        return new UsernamePasswordAuthenticationToken(email, "x", List.of());
+    }
+}
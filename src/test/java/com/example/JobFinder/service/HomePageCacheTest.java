@@ -0,0 +1,65 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.JobFinder.service.HomePageCache.Lookup;
+import java.util.Locale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HomePageCacheTest {
+
+    private static final Locale VI = Locale.forLanguageTag("vi-VN");
+
+    private HomePageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HomePageCache();
+        ReflectionTestUtils.setField(cache, "freshMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxStaleMs", 600_000L);
+    }
+
+    @Test
+    void servesFreshPageUntilInvalidated() {
+        Lookup first = cache.lookup(VI);
+        assertTrue(first.render());
+        cache.store(first, "<html>v1</html>", "text/html;charset=UTF-8");
+
+        Lookup hit = cache.lookup(Locale.forLanguageTag("vi"));
+        assertFalse(hit.render());
+        assertEquals("<html>v1</html>", hit.page().html());
+
+        cache.onJobChanged(new JobChangedEvent(1));
+        // Một request render lại, request đồng thời nhận bản cũ
+        Lookup refresh = cache.lookup(VI);
+        assertTrue(refresh.render());
+        assertNull(refresh.page());
+        Lookup stale = cache.lookup(VI);
+        assertFalse(stale.render());
+        assertEquals("<html>v1</html>", stale.page().html());
+
+        cache.store(refresh, "<html>v2</html>", "text/html;charset=UTF-8");
+        Lookup fresh = cache.lookup(VI);
+        assertFalse(fresh.render());
+        assertEquals("<html>v2</html>", fresh.page().html());
+        assertEquals(2L, cache.metrics().get("hits"));
+        assertEquals(1L, cache.metrics().get("staleHits"));
+    }
+
+    @Test
+    void releasesClaimWhenRenderIsNotStored() {
+        cache.store(cache.lookup(VI), "<html>v1</html>", "text/html");
+        cache.invalidate();
+
+        Lookup failed = cache.lookup(VI);
+        assertTrue(failed.render());
+        cache.release(failed);
+
+        assertTrue(cache.lookup(VI).render());
+    }
+}
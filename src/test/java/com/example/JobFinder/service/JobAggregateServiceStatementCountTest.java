@@ -0,0 +1,120 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.JobFinder.model.Application;
+import com.example.JobFinder.model.Candidate;
+import com.example.JobFinder.model.Employer;
+import com.example.JobFinder.model.Job;
+import com.example.JobFinder.model.Role;
+import com.example.JobFinder.model.SavedJob;
+import com.example.JobFinder.model.User;
+import com.example.JobFinder.service.JobAggregateService.JobAggregates;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Đếm câu lệnh SQL thật (Hibernate Statistics trên H2) khi nạp số liệu cho một trang tin:
+ * trang 1 tin và trang 20 tin phải tốn cùng số câu lệnh.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.sql.init.mode=never"
+})
+@Import(JobAggregateService.class)
+class JobAggregateServiceStatementCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobAggregateService jobAggregateService;
+
+    @MockitoBean
+    private JobViewCounter jobViewCounter;
+
+    private final List<Integer> jobIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setName("employer");
+        entityManager.persist(role);
+
+        Employer employer = new Employer();
+        employer.setUser(user(role, "hr@acme.test"));
+        employer.setCompanyName("Acme");
+        entityManager.persist(employer);
+
+        Candidate candidate = new Candidate();
+        candidate.setUser(user(role, "candidate@acme.test"));
+        entityManager.persist(candidate);
+
+        for (int i = 0; i < 20; i++) {
+            Job job = new Job();
+            job.setEmployer(employer);
+            job.setTitle("Kế toán " + i);
+            job.setDescription("Mô tả");
+            job.setStatus("published");
+            job.setViewCount(i);
+            entityManager.persist(job);
+            jobIds.add(job.getId());
+
+            Application application = new Application();
+            application.setJob(job);
+            application.setCandidate(candidate);
+            entityManager.persist(application);
+
+            SavedJob savedJob = new SavedJob();
+            savedJob.setJob(job);
+            savedJob.setCandidate(candidate);
+            entityManager.persist(savedJob);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithPageSize() {
+        long singleJobPage = statementsFor(jobIds.subList(0, 1));
+        long twentyJobPage = statementsFor(jobIds);
+
+        assertEquals(3, singleJobPage);
+        assertEquals(singleJobPage, twentyJobPage);
+    }
+
+    private long statementsFor(List<Integer> page) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JobAggregates aggregates = jobAggregateService.load(page);
+
+        assertEquals(1, aggregates.applicationCount(page.get(page.size() - 1)));
+        assertEquals(1, aggregates.savedCount(page.get(0)));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User user(Role role, String email) {
+        User user = new User();
+        user.setRole(role);
+        user.setEmail(email);
+        user.setPasswordHash("x");
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.repository.ApplicationRepository;
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.repository.SavedJobRepository;
+import com.example.JobFinder.service.JobAggregateService.JobAggregates;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JobAggregateServiceTest {
+
+    private JobRepository jobRepository;
+    private ApplicationRepository applicationRepository;
+    private SavedJobRepository savedJobRepository;
+    private JobAggregateService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(JobRepository.class);
+        applicationRepository = mock(ApplicationRepository.class);
+        savedJobRepository = mock(SavedJobRepository.class);
+        JobViewCounter jobViewCounter = mock(JobViewCounter.class);
+        when(jobViewCounter.pendingViews(anyInt())).thenAnswer(call -> call.getArgument(0, Integer.class) == 2 ? 3L : 0L);
+        service = new JobAggregateService(jobRepository, applicationRepository, savedJobRepository, jobViewCounter);
+    }
+
+    @Test
+    void loadsWholePageWithDistinctNonNullIds() {
+        when(jobRepository.findViewCountsByIds(anyCollection())).thenReturn(List.of());
+        when(applicationRepository.countByJobIds(anyCollection())).thenReturn(List.of());
+        when(savedJobRepository.countByJobIds(anyCollection())).thenReturn(List.of());
+
+        service.load(Arrays.asList(3, 1, null, 3, 2));
+
+        Set<Integer> expected = Set.of(1, 2, 3);
+        verify(jobRepository).findViewCountsByIds(argThat(ids -> ids.size() == 3 && expected.containsAll(ids)));
+        verify(applicationRepository).countByJobIds(argThat(ids -> ids.size() == 3 && expected.containsAll(ids)));
+        verify(savedJobRepository).countByJobIds(argThat(ids -> ids.size() == 3 && expected.containsAll(ids)));
+    }
+
+    @Test
+    void emptyPageSkipsRepositories() {
+        assertEquals(JobAggregates.EMPTY, service.load(Arrays.asList((Integer) null)));
+        verifyNoInteractions(jobRepository, applicationRepository, savedJobRepository);
+    }
+
+    @Test
+    void mapsGroupedRowsAndDefaultsMissingJobsToZero() {
+        when(jobRepository.findViewCountsByIds(anyCollection()))
+            .thenReturn(List.of(new Object[] {1, 10}, new Object[] {2, 5}, new Object[] {3, null}));
+        when(applicationRepository.countByJobIds(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[] {2, 4L}));
+        when(savedJobRepository.countByJobIds(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[] {1, 7L}));
+
+        JobAggregates aggregates = service.load(List.of(1, 2, 3));
+
+        assertEquals(10, aggregates.viewCount(1));
+        assertEquals(8, aggregates.viewCount(2));
+        assertEquals(0, aggregates.viewCount(3));
+        assertEquals(0, aggregates.applicationCount(1));
+        assertEquals(4, aggregates.applicationCount(2));
+        assertEquals(7, aggregates.savedCount(1));
+        assertEquals(0, aggregates.savedCount(null));
+    }
+}
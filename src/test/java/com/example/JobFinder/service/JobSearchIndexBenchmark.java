@@ -0,0 +1,184 @@
+package com.example.JobFinder.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.model.Category;
+import com.example.JobFinder.model.Employer;
+import com.example.JobFinder.model.Job;
+import com.example.JobFinder.repository.JobRepository;
+import com.example.JobFinder.util.SalaryParser;
+import com.example.JobFinder.util.VietnameseTextAnalyzer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Đo p50/p99 của JobSearchIndex.search và facets() trên 500k tin tuyển dụng giả lập, so với đường cũ:
+ * quét toàn bộ và so chuỗi con như {@code LIKE '%kw%'} rồi sắp xếp, đếm (COUNT + trang như truy vấn JPQL cũ).
+ * Đường cũ được mô phỏng trong bộ nhớ trên các cột đã chuẩn hóa nên là cận dưới của truy vấn MySQL thật
+ * (không tính I/O, mạng, dựng entity).
+ * Chạy thủ công: mvn test -Dtest=JobSearchIndexBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class JobSearchIndexBenchmark {
+
+    private static final int JOB_COUNT = 500_000;
+    private static final int QUERY_COUNT = 2_000;
+
+    private static final String[] TITLES = {
+        "Lập trình viên Java", "Kế toán tổng hợp", "Nhân viên kinh doanh", "Chuyên viên marketing",
+        "Kỹ sư DevOps", "Frontend developer React", "Nhân viên chăm sóc khách hàng", "Data engineer",
+        "Thiết kế đồ họa", "Quản lý dự án"
+    };
+    private static final String[] LOCATIONS = {"Hà Nội", "Hồ Chí Minh", "Đà Nẵng", "Cần Thơ", "Hải Phòng"};
+    private static final String[] TYPES = {"Full-time", "Part-time", "Remote", "Internship"};
+    private static final String[] KEYWORDS = {"java", "kế toán", "react", "marketing", "devops", "data", "thiết", "quản lý dự"};
+
+    @Test
+    void searchLatencyAt500kJobs() {
+        List<Category> categories = IntStream.rangeClosed(1, 20).mapToObj(id -> {
+            Category category = new Category();
+            category.setId(id);
+            category.setName("Category " + id);
+            return category;
+        }).toList();
+
+        JobRepository jobRepository = mock(JobRepository.class);
+        when(jobRepository.findPublishedIdsAfter(anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            int end = Math.min(afterId + pageable.getPageSize(), JOB_COUNT);
+            return IntStream.rangeClosed(afterId + 1, end).boxed().toList();
+        });
+        when(jobRepository.findByIdInWithDetails(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> syntheticJob(id, categories)).toList();
+        });
+
+        JobSearchIndex index = new JobSearchIndex(jobRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+
+        long buildStarted = System.nanoTime();
+        index.rebuild();
+        long buildMillis = (System.nanoTime() - buildStarted) / 1_000_000;
+
+        List<ScanRow> scanRows = IntStream.rangeClosed(1, JOB_COUNT)
+            .mapToObj(id -> ScanRow.of(syntheticJob(id, categories)))
+            .toList();
+
+        Random random = new Random(42);
+        long[] searchSamples = new long[QUERY_COUNT];
+        long[] facetSamples = new long[QUERY_COUNT];
+        long[] scanSamples = new long[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT + 200; i++) {
+            String keyword = random.nextInt(4) == 0 ? null : KEYWORDS[random.nextInt(KEYWORDS.length)];
+            String location = random.nextBoolean() ? LOCATIONS[random.nextInt(LOCATIONS.length)] : null;
+            String type = random.nextInt(3) == 0 ? TYPES[random.nextInt(TYPES.length)] : null;
+            List<Integer> categoryIds = switch (random.nextInt(4)) {
+                case 0 -> List.of(random.nextInt(20) + 1);
+                case 1 -> List.of(random.nextInt(20) + 1, random.nextInt(20) + 1);
+                default -> null;
+            };
+            Long minSalary = random.nextInt(4) == 0 ? (random.nextInt(30) + 5) * 1_000_000L : null;
+            int page = random.nextInt(5) + 1;
+
+            long started = System.nanoTime();
+            index.search(keyword, location, type, categoryIds, minSalary, null, "newest", page, 12);
+            long searched = System.nanoTime();
+            index.facets(keyword, location, type, categoryIds, minSalary, null);
+            long faceted = System.nanoTime();
+            scan(scanRows, keyword, location, type, categoryIds, minSalary, page, 12);
+            long scanned = System.nanoTime();
+            if (i >= 200) {
+                // bỏ qua 200 lượt khởi động JIT
+                searchSamples[i - 200] = searched - started;
+                facetSamples[i - 200] = faceted - searched;
+                scanSamples[i - 200] = scanned - faceted;
+            }
+        }
+
+        System.out.printf("JobSearchIndex: %d jobs built in %d ms%n", index.size(), buildMillis);
+        report("search", searchSamples);
+        report("facets", facetSamples);
+        report("scan", scanSamples);
+    }
+
+    /**
+     * Một dòng của đường cũ: các cột đã chuẩn hóa mà WHERE ... LIKE '%kw%' so khớp.
+     */
+    private record ScanRow(int id, String text, String location, String type, Set<Integer> categoryIds,
+                           Long salaryMin, Long salaryMax, LocalDateTime createdAt) {
+
+        static ScanRow of(Job job) {
+            SalaryParser.ParsedSalary salary = SalaryParser.parse(job.getSalary());
+            Set<Integer> categoryIds = new HashSet<>();
+            job.getCategories().forEach(category -> categoryIds.add(category.getId()));
+            return new ScanRow(job.getId(),
+                VietnameseTextAnalyzer.normalize(job.getTitle() + " " + job.getEmployer().getCompanyName() + " "
+                    + job.getDescription() + " " + job.getJobRequirements()),
+                VietnameseTextAnalyzer.normalize(job.getLocation() + " " + job.getEmployer().getAddress()),
+                job.getEmploymentType(), categoryIds, salary.minMonthlyVnd(), salary.maxMonthlyVnd(), job.getCreatedAt());
+        }
+    }
+
+    private static int scan(List<ScanRow> rows, String keyword, String location, String type,
+                            List<Integer> categoryIds, Long minSalary, int page, int perPage) {
+        String kw = VietnameseTextAnalyzer.normalize(keyword);
+        String loc = VietnameseTextAnalyzer.normalize(location);
+        List<ScanRow> matches = new ArrayList<>();
+        for (ScanRow row : rows) {
+            if ((kw.isEmpty() || row.text().contains(kw))
+                    && (loc.isEmpty() || row.location().contains(loc))
+                    && (type == null || type.equals(row.type()))
+                    && (categoryIds == null || categoryIds.stream().anyMatch(row.categoryIds()::contains))
+                    && (minSalary == null || (row.salaryMax() != null ? row.salaryMax() : row.salaryMin() != null
+                        ? row.salaryMin() : Long.MIN_VALUE) >= minSalary)) {
+                matches.add(row);
+            }
+        }
+        matches.sort(Comparator.comparing(ScanRow::createdAt).reversed());
+        int from = Math.min((page - 1) * perPage, matches.size());
+        return matches.subList(from, Math.min(from + perPage, matches.size())).size() + matches.size();
+    }
+
+    private static void report(String label, long[] samples) {
+        Arrays.sort(samples);
+        System.out.printf("JobSearchIndex: %-6s p50=%.3f ms, p99=%.3f ms over %d queries%n", label,
+            samples[QUERY_COUNT / 2] / 1_000_000.0, samples[QUERY_COUNT * 99 / 100] / 1_000_000.0, QUERY_COUNT);
+    }
+
+    private static Job syntheticJob(int id, List<Category> categories) {
+        Employer employer = new Employer();
+        employer.setId(id % 5_000 + 1);
+        employer.setCompanyName("Công ty " + (id % 5_000));
+        employer.setAddress(LOCATIONS[id % LOCATIONS.length]);
+
+        Job job = new Job();
+        job.setId(id);
+        job.setEmployer(employer);
+        job.setTitle(TITLES[id % TITLES.length] + " " + (id % 97));
+        job.setDescription("<p>Mô tả công việc " + TITLES[(id / 7) % TITLES.length] + "</p>");
+        job.setJobRequirements("Kinh nghiệm " + (id % 5) + " năm");
+        job.setLocation(LOCATIONS[(id / 3) % LOCATIONS.length]);
+        job.setEmploymentType(TYPES[id % TYPES.length]);
+        job.setSalary(id % 5 == 0 ? "Thỏa thuận" : (id % 40 + 5) + " - " + (id % 40 + 10) + " triệu");
+        job.setStatus("published");
+        job.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id));
+        job.setCategories(new HashSet<>(Set.of(categories.get(id % categories.size()))));
+        return job;
+    }
+}
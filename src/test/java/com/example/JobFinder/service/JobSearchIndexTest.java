@@ -0,0 +1,70 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.model.Job;
+import com.example.JobFinder.repository.JobRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JobSearchIndexTest {
+
+    private final JobRepository jobRepository = mock(JobRepository.class);
+    private final JobSearchIndex index = new JobSearchIndex(jobRepository);
+
+    @BeforeEach
+    void setUp() {
+        List<Job> jobs = List.of(
+            job(1, "Kế toán tổng hợp", "5 - 7 triệu", 40, 1),
+            job(2, "Kế toán trưởng", "Từ 20 triệu", 10, 2),
+            job(3, "Nhân viên kế toán", "Thỏa thuận", 90, 3),
+            job(4, "Lập trình viên Java", "10 - 15 triệu", 5, 4));
+        when(jobRepository.findPublishedIdsAfter(eq(0), any(Pageable.class))).thenReturn(List.of(1, 2, 3, 4));
+        when(jobRepository.findByIdInWithDetails(anyList())).thenReturn(jobs);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.rebuild();
+    }
+
+    @Test
+    void salarySortRanksOpenEndedOffersByTheirFloor() {
+        JobSearchIndex.SearchResult result =
+            index.search("ke toan", null, null, null, null, null, "salary", 1, 10).orElseThrow();
+
+        assertEquals(List.of(2, 1, 3), result.jobIds());
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void viewsSortPagesByViewCount() {
+        assertEquals(List.of(3, 1), index.search(null, null, null, null, null, null, "views", 1, 2).orElseThrow().jobIds());
+        assertEquals(List.of(2, 4), index.search(null, null, null, null, null, null, "views", 2, 2).orElseThrow().jobIds());
+    }
+
+    @Test
+    void flushedViewsReorderWithoutRebuild() {
+        index.onViewsFlushed(new JobViewsFlushedEvent(Map.of(4, 100L)));
+
+        assertEquals(List.of(4, 3), index.search(null, null, null, null, null, null, "views", 1, 2).orElseThrow().jobIds());
+    }
+
+    private static Job job(int id, String title, String salary, int views, int day) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle(title);
+        job.setSalary(salary);
+        job.setViewCount(views);
+        job.setStatus("published");
+        job.setCreatedAt(LocalDateTime.of(2026, 10, day, 9, 0));
+        return job;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LayoutDataCacheTest {
+
+    private HomeService homeService;
+    private LayoutDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        homeService = mock(HomeService.class);
+        when(homeService.getStatistics()).thenReturn(Map.of("jobs", 3L));
+        when(homeService.getTopCategories(anyInt())).thenReturn(List.of());
+        cache = new LayoutDataCache(homeService);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    @Test
+    void servesFromMemoryUntilInvalidated() {
+        cache.get();
+        cache.get();
+        verify(homeService, times(1)).getStatistics();
+
+        cache.onApplicationStatusChanged(new ApplicationStatusChangedEvent(1, "applied", "viewed"));
+        cache.get();
+        verify(homeService, times(1)).getStatistics();
+
+        cache.onJobChanged(new JobChangedEvent(7));
+        assertEquals(3L, cache.get().statistics().get("jobs"));
+        verify(homeService, times(2)).getStatistics();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(homeService.getStatistics()).thenAnswer(call -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("jobs", 5L);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<LayoutDataCache.LayoutData>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(cache::get));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<LayoutDataCache.LayoutData> result : results) {
+                assertEquals(5L, result.get(5, TimeUnit.SECONDS).statistics().get("jobs"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(homeService, times(1)).getStatistics();
+    }
+}
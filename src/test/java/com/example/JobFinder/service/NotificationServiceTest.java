@@ -0,0 +1,55 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.model.Notification;
+import com.example.JobFinder.repository.NotificationRepository;
+import com.example.JobFinder.service.NotificationService.NotificationView;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+class NotificationServiceTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final NotificationService notificationService = new NotificationService(notificationRepository, eventPublisher);
+
+    @Test
+    void notificationsUpToWatermarkAreRead() {
+        when(notificationRepository.findByUserIdOrderByCreatedAtDesc(eq(5), any(Pageable.class))).thenReturn(List.of(
+            notification(12, false), notification(10, false), notification(9, true)));
+        when(notificationRepository.findLastReadId(5)).thenReturn(10);
+
+        List<Boolean> read = notificationService.getRecentNotifications(5, 5).stream()
+            .map(NotificationView::read)
+            .toList();
+
+        assertEquals(List.of(false, true, true), read);
+    }
+
+    @Test
+    void markAllAsReadAdvancesWatermarkOnly() {
+        notificationService.markAllAsRead(5);
+
+        verify(notificationRepository).advanceReadWatermark(5);
+        verify(eventPublisher).publishEvent(HeaderContextChangedEvent.forUser(5));
+    }
+
+    private static Notification notification(int id, boolean read) {
+        return Notification.builder()
+            .id(id)
+            .title("Thông báo " + id)
+            .message("Nội dung")
+            .read(read)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
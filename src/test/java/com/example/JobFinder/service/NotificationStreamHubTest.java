@@ -0,0 +1,66 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.service.NotificationService.NotificationView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NotificationStreamHubTest {
+
+    private NotificationService notificationService;
+    private NotificationStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = mock(NotificationService.class);
+        hub = new NotificationStreamHub(notificationService, new ObjectMapper());
+        ReflectionTestUtils.setField(hub, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(hub, "bufferSize", 4);
+        ReflectionTestUtils.setField(hub, "maxPerUser", 2);
+        ReflectionTestUtils.setField(hub, "retryMs", 5_000L);
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void keepsAtMostMaxConnectionsPerUser() {
+        hub.subscribe(1);
+        hub.subscribe(1);
+        hub.subscribe(1);
+        hub.subscribe(2);
+
+        assertEquals(3, hub.metrics().get("connections"));
+        assertEquals(2, hub.metrics().get("users"));
+        assertEquals(4L, hub.metrics().get("opened"));
+    }
+
+    @Test
+    void pushesOnlyToUsersWithOpenStreams() {
+        NotificationView view = new NotificationView("Hồ sơ đã được xem", "Nội dung", "Vừa xong", false, "fa-eye", "", 42);
+        hub.onNotificationCreated(new NotificationCreatedEvent(7, view));
+        verify(notificationService, never()).countUnread(any());
+        assertFalse(hub.hasSubscribers(7));
+
+        when(notificationService.countUnread(7)).thenReturn(3L);
+        hub.subscribe(7);
+        assertTrue(hub.hasSubscribers(7));
+        hub.push(new NotificationCreatedEvent(7, view));
+        verify(notificationService).countUnread(7);
+        assertEquals(1L, hub.metrics().get("pushed"));
+    }
+}
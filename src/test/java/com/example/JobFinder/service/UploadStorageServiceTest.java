@@ -0,0 +1,125 @@
+package com.example.JobFinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.JobFinder.service.UploadStorageService.FileType;
+import com.example.JobFinder.service.UploadStorageService.UploadKind;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class UploadStorageServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path baseDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private UploadStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        storage = new UploadStorageService(jdbcTemplate, mock(TransactionTemplate.class));
+        ReflectionTestUtils.setField(storage, "baseDir", baseDir);
+    }
+
+    @Test
+    void identicalUploadsShareOneFile() throws Exception {
+        String first = storage.store(new MockMultipartFile("logo", "a.png", "image/png", PNG), UploadKind.LOGO);
+        // Content-Type của trình duyệt không được dùng để nhận dạng
+        String second = storage.store(new MockMultipartFile("logo", "b.bin", "application/octet-stream", PNG), UploadKind.LOGO);
+
+        assertEquals(first, second);
+        assertTrue(first.matches("uploads/logos/[0-9a-f]{64}\\.png"));
+        try (Stream<Path> files = Files.list(baseDir.resolve("uploads/logos"))) {
+            assertEquals(List.of(baseDir.resolve(first)), files.toList());
+        }
+        assertEquals(1L, storage.metrics().get("stored"));
+        assertEquals(1L, storage.metrics().get("deduplicated"));
+    }
+
+    @Test
+    void rejectsBySignatureAndSizeWhileStreaming() throws Exception {
+        MockMultipartFile script = new MockMultipartFile("avatar", "x.png", "image/png",
+            "<script>alert(1)</script>".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> storage.store(script, UploadKind.AVATAR));
+
+        byte[] large = new byte[2 * 1024 * 1024 + 1];
+        System.arraycopy(PNG, 0, large, 0, PNG.length);
+        assertThrows(IllegalArgumentException.class,
+            () -> storage.store(new MockMultipartFile("avatar", "big.png", "image/png", large), UploadKind.AVATAR));
+
+        verifyNoInteractions(jdbcTemplate);
+        try (Stream<Path> files = Files.list(baseDir.resolve("uploads/avatars"))) {
+            assertEquals(0, files.count());
+        }
+        assertEquals(2L, storage.metrics().get("rejected"));
+    }
+
+    @Test
+    void officeContainersNeedMatchingExtension() {
+        byte[] zip = {'P', 'K', 0x03, 0x04, 0x14, 0, 0x06, 0, 0x08, 0, 0, 0};
+        assertEquals(FileType.DOCX, UploadStorageService.detect(zip, "cv.DOCX"));
+        assertNull(UploadStorageService.detect(zip, "sheet.xlsx"));
+        assertEquals(FileType.PDF, UploadStorageService.detect("%PDF-1.7\n%â".getBytes(), "cv"));
+    }
+
+    @Test
+    void releaseOfLegacyUploadDeletesFileDirectly() throws Exception {
+        Path legacy = Files.createDirectories(baseDir.resolve("uploads/cv")).resolve("cv_1700000000000_abcd1234.pdf");
+        Files.write(legacy, PNG);
+        when(jdbcTemplate.update(anyString(), anyString())).thenReturn(0);
+
+        storage.release("uploads/cv/cv_1700000000000_abcd1234.pdf");
+        storage.release("/etc/passwd");
+
+        assertTrue(Files.notExists(legacy));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollbackRemovesNewlyPlacedFile() throws Exception {
+        TransactionTemplate requiresNew = mock(TransactionTemplate.class);
+        doAnswer(call -> {
+            call.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(requiresNew).executeWithoutResult(any());
+        ReflectionTestUtils.setField(storage, "requiresNew", requiresNew);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            String path = storage.store(new MockMultipartFile("logo", "a.png", "image/png", PNG), UploadKind.LOGO);
+            assertTrue(Files.exists(baseDir.resolve(path)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            assertTrue(Files.notExists(baseDir.resolve(path)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.JobFinder.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    // Sai số chuẩn 1.04 / sqrt(4096) ≈ 1.6%; kiểm tra trong 3 lần sai số chuẩn
+    private static final double TOLERANCE = 3 * 1.04 / Math.sqrt(1 << HyperLogLog.DEFAULT_PRECISION);
+
+    @Test
+    void estimatesWithinDocumentedErrorBound() {
+        for (int n : new int[] {1_000, 20_000, 500_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < n; i++) {
+                sketch.offer("10.0." + (i >>> 8) + "." + (i & 0xFF) + "#" + i);
+            }
+            double error = Math.abs(sketch.estimate() - n) / (double) n;
+            assertTrue(error < TOLERANCE, "n=" + n + " error=" + error);
+        }
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExactAndDuplicatesIgnored() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int repeat = 0; repeat < 5; repeat++) {
+            for (int i = 0; i < 50; i++) {
+                sketch.offer("192.168.1." + i);
+            }
+        }
+        assertEquals(50, sketch.estimate(), 1);
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            monday.offer("ip-" + i);
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            tuesday.offer("ip-" + i);
+        }
+        HyperLogLog week = new HyperLogLog().merge(monday).merge(tuesday).merge(tuesday);
+        assertTrue(Math.abs(week.estimate() - 50_000) / 50_000.0 < TOLERANCE);
+    }
+
+    @Test
+    void roundTripsSparseAndDenseEncodings() {
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            small.offer("viewer-" + i);
+        }
+        byte[] sparse = small.toBytes();
+        assertTrue(sparse.length < 400);
+        assertEquals(small, HyperLogLog.fromBytes(sparse));
+
+        HyperLogLog large = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            large.offer("viewer-" + i);
+        }
+        byte[] dense = large.toBytes();
+        assertEquals(2 + (1 << HyperLogLog.DEFAULT_PRECISION), dense.length);
+        assertEquals(large, HyperLogLog.fromBytes(dense));
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(dense).estimate());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.JobFinder.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RotatingBloomFilterTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void rejectsRepeatWithinWindow() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(60 * MINUTE, 10 * MINUTE, 1_000, 0.001);
+        assertEquals(7, filter.sliceCount());
+        assertTrue(filter.add("42|10.0.0.1", 0));
+        assertFalse(filter.add("42|10.0.0.1", 5 * MINUTE));
+        assertFalse(filter.add("42|10.0.0.1", 59 * MINUTE));
+        assertTrue(filter.add("42|10.0.0.2", 59 * MINUTE));
+        assertTrue(filter.add("43|10.0.0.1", 59 * MINUTE));
+    }
+
+    @Test
+    void forgetsKeysAfterWindowExpires() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(60 * MINUTE, 10 * MINUTE, 1_000, 0.001);
+        assertTrue(filter.add("7|1.2.3.4", 0));
+        assertTrue(filter.add("7|1.2.3.4", 71 * MINUTE));
+        assertFalse(filter.add("7|1.2.3.4", 72 * MINUTE));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        int capacity = 20_000;
+        RotatingBloomFilter filter = new RotatingBloomFilter(60 * MINUTE, 10 * MINUTE, capacity, 0.01);
+        for (int i = 0; i < capacity; i++) {
+            filter.add("job" + i + "|seen", 0);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (!filter.add("job" + i + "|fresh", 11 * MINUTE)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < capacity * 0.02, "false positives: " + falsePositives);
+        assertTrue(filter.fillRatio(11 * MINUTE) > 0.3 && filter.fillRatio(11 * MINUTE) < 0.6);
+    }
+}
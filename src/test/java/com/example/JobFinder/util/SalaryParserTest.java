@@ -0,0 +1,70 @@
+package com.example.JobFinder.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.JobFinder.util.SalaryParser.ParsedSalary;
+import org.junit.jupiter.api.Test;
+
+class SalaryParserTest {
+
+    @Test
+    void parsesMillionRanges() {
+        assertRange(10_000_000L, 15_000_000L, SalaryParser.parse("10-15 triệu"));
+        assertRange(10_000_000L, 15_000_000L, SalaryParser.parse("10tr - 15tr"));
+        assertRange(10_000_000L, 15_000_000L, SalaryParser.parse("10 - 15"));
+        assertRange(12_500_000L, 12_500_000L, SalaryParser.parse("12,5 triệu/tháng"));
+        assertRange(15_000_000L, 20_000_000L, SalaryParser.parse("15.000.000 - 20.000.000 VNĐ"));
+    }
+
+    @Test
+    void parsesOpenEndedRanges() {
+        ParsedSalary from = SalaryParser.parse("Từ 20 triệu");
+        assertEquals(20_000_000L, from.minMonthlyVnd());
+        assertNull(from.maxMonthlyVnd());
+
+        ParsedSalary upTo = SalaryParser.parse("Lên đến 30 triệu");
+        assertNull(upTo.minMonthlyVnd());
+        assertEquals(30_000_000L, upTo.maxMonthlyVnd());
+    }
+
+    @Test
+    void boundKeywordsMustBeWholeWords() {
+        assertRange(15_000_000L, 15_000_000L, SalaryParser.parse("Tuyển gấp, 15 triệu"));
+        assertRange(12_000_000L, 12_000_000L, SalaryParser.parse("Tùy năng lực, khoảng 12 triệu"));
+        assertRange(20_000_000L, 20_000_000L, SalaryParser.parse("Minh bạch 20 triệu"));
+    }
+
+    @Test
+    void convertsForeignCurrencyAndPeriods() {
+        ParsedSalary usd = SalaryParser.parse("$1,000 - $1,500");
+        assertEquals(SalaryParser.USD, usd.currency());
+        assertRange(1_000 * SalaryParser.USD_TO_VND, 1_500 * SalaryParser.USD_TO_VND, usd);
+
+        assertRange(2_000 * SalaryParser.USD_TO_VND, 2_000 * SalaryParser.USD_TO_VND, SalaryParser.parse("2k USD"));
+        assertRange(20_000_000L, 20_000_000L, SalaryParser.parse("240 triệu/năm"));
+    }
+
+    @Test
+    void flagsNegotiable() {
+        ParsedSalary negotiable = SalaryParser.parse("Thỏa thuận");
+        assertTrue(negotiable.negotiable());
+        assertFalse(negotiable.hasRange());
+
+        ParsedSalary withRange = SalaryParser.parse("15 - 20 triệu (thoả thuận)");
+        assertTrue(withRange.negotiable());
+        assertRange(15_000_000L, 20_000_000L, withRange);
+
+        assertFalse(SalaryParser.parse("Ideal candidate: 1000$").negotiable());
+        assertTrue(SalaryParser.parse("Up to 2000$, deal").negotiable());
+
+        assertFalse(SalaryParser.parse(null).hasRange());
+    }
+
+    private static void assertRange(long min, long max, ParsedSalary salary) {
+        assertEquals(min, salary.minMonthlyVnd());
+        assertEquals(max, salary.maxMonthlyVnd());
+    }
+}
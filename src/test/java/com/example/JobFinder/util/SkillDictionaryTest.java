@@ -0,0 +1,45 @@
+package com.example.JobFinder.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SkillDictionaryTest {
+
+    @Test
+    void foldsAliasesToCanonicalName() {
+        SkillDictionary dictionary = SkillDictionary.parse(List.of(
+            "# comment",
+            "react: reactjs, react.js",
+            "cpp: c++",
+            "csharp: c#"));
+        assertEquals("react", dictionary.canonicalize("ReactJS"));
+        assertEquals("react", dictionary.canonicalize(" React.js "));
+        assertEquals("react", dictionary.canonicalize("React JS"));
+        assertEquals("react", dictionary.canonicalize("react"));
+        assertEquals("cpp", dictionary.canonicalize("C++"));
+        assertEquals("csharp", dictionary.canonicalize("C#"));
+        assertEquals("c", dictionary.canonicalize("C"));
+    }
+
+    @Test
+    void keepsUnknownSkillsAsFoldedKey() {
+        SkillDictionary dictionary = SkillDictionary.empty();
+        assertEquals("tiengnhat", dictionary.canonicalize("Tiếng Nhật"));
+        assertEquals("", dictionary.canonicalize(" - "));
+    }
+
+    @Test
+    void loadsBundledDictionary() throws Exception {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream("skills/dictionary.txt")) {
+            SkillDictionary dictionary = SkillDictionary.load(input);
+            assertTrue(dictionary.size() > 50);
+            assertEquals("nodejs", dictionary.canonicalize("Node.js"));
+            assertEquals("javascript", dictionary.canonicalize("JS"));
+            assertEquals("tienganh", dictionary.canonicalize("English"));
+        }
+    }
+}
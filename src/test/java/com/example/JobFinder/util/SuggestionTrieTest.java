@@ -0,0 +1,52 @@
+package com.example.JobFinder.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.JobFinder.util.SuggestionTrie.Suggestion;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = SuggestionTrie.builder(5)
+        .add("Lập trình viên Java", "title", 40)
+        .add("Java Developer", "title", 90)
+        .add("Kế toán tổng hợp", "title", 70)
+        .add("Kế toán trưởng", "title", 10)
+        .add("Công ty Kế Toán Việt", "company", 30)
+        .add("Kế toán / Kiểm toán", "category", 50)
+        .build();
+
+    @Test
+    void matchesPrefixOfAnyWordIgnoringDiacritics() {
+        assertEquals(List.of("Java Developer", "Lập trình viên Java"), texts(trie.lookup("jav", 10)));
+        assertEquals(List.of("Lập trình viên Java"), texts(trie.lookup("LẬP TRÌNH", 10)));
+    }
+
+    @Test
+    void returnsTopKByWeight() {
+        assertEquals(List.of("Kế toán tổng hợp", "Kế toán / Kiểm toán"), texts(trie.lookup("ke toan", 2)));
+        assertEquals(4, trie.lookup("ke", 10).size());
+    }
+
+    @Test
+    void mergesDuplicateKeysOfSameKind() {
+        SuggestionTrie merged = SuggestionTrie.builder(3)
+            .add("Kế toán", "title", 5)
+            .add("ke toan", "title", 7)
+            .build();
+        assertEquals(1, merged.size());
+        assertEquals(12, merged.lookup("ke", 3).get(0).weight());
+    }
+
+    @Test
+    void unknownPrefixReturnsEmpty() {
+        assertTrue(trie.lookup("python", 5).isEmpty());
+        assertTrue(SuggestionTrie.EMPTY.lookup("a", 5).isEmpty());
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
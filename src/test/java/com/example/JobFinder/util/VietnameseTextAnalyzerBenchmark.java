@@ -0,0 +1,54 @@
+package com.example.JobFinder.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * So sánh thời gian normalize() với cách làm ngây thơ (NFD + regex cho mỗi chuỗi).
+ * Chạy thủ công: mvn test -Dtest=VietnameseTextAnalyzerBenchmark -Dbench=true
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class VietnameseTextAnalyzerBenchmark {
+
+    private static final int ITERATIONS = 1_000_000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String[] ASCII_INPUTS = {
+        "ke toan", "ha noi", "java developer", "marketing online", "nhan vien kinh doanh"
+    };
+    private static final String[] VIETNAMESE_INPUTS = {
+        "Kế toán tổng hợp", "Hà Nội", "Lập trình viên Java", "Chuyên viên Marketing", "Nhân viên kinh doanh Đà Nẵng"
+    };
+
+    @Test
+    void normalizeThroughput() {
+        report("normalize ascii", ASCII_INPUTS, VietnameseTextAnalyzer::normalize);
+        report("naive ascii", ASCII_INPUTS, VietnameseTextAnalyzerBenchmark::naive);
+        report("normalize vietnamese", VIETNAMESE_INPUTS, VietnameseTextAnalyzer::normalize);
+        report("naive vietnamese", VIETNAMESE_INPUTS, VietnameseTextAnalyzerBenchmark::naive);
+    }
+
+    private static void report(String label, String[] inputs, java.util.function.UnaryOperator<String> analyzer) {
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            sink += analyzer.apply(inputs[i % inputs.length]).length();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += analyzer.apply(inputs[i % inputs.length]).length();
+        }
+        double nanosPerOp = (System.nanoTime() - started) / (double) ITERATIONS;
+        System.out.printf("VietnameseTextAnalyzer: %-22s %8.1f ns/op (sink=%d)%n", label, nanosPerOp, sink);
+    }
+
+    private static String naive(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .replace('đ', 'd').replace('Đ', 'D')
+            .toLowerCase(Locale.ROOT);
+        return NON_WORD.matcher(folded).replaceAll(" ").trim();
+    }
+}
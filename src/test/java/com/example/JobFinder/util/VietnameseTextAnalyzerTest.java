@@ -0,0 +1,51 @@
+package com.example.JobFinder.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VietnameseTextAnalyzerTest {
+
+    @Test
+    void foldsDiacriticsAndDStroke() {
+        assertEquals("ke toan tong hop", VietnameseTextAnalyzer.fold("Kế Toán Tổng Hợp"));
+        assertEquals("da nang", VietnameseTextAnalyzer.fold("Đà Nẵng"));
+        assertEquals("nguyen thi nguyet", VietnameseTextAnalyzer.fold("Nguyễn Thị Nguyệt"));
+    }
+
+    @Test
+    void foldsDecomposedInput() {
+        // "Hà Nội" dạng NFD (nguyên âm + dấu kết hợp)
+        assertEquals("ha noi", VietnameseTextAnalyzer.fold("Hà Nội"));
+    }
+
+    @Test
+    void asciiFastPathReturnsSameInstance() {
+        String folded = "ke toan ha noi";
+        assertSame(folded, VietnameseTextAnalyzer.fold(folded));
+        assertSame(folded, VietnameseTextAnalyzer.normalize(folded));
+    }
+
+    @Test
+    void normalizeCollapsesPunctuationAndWhitespace() {
+        assertEquals("lap trinh vien java spring", VietnameseTextAnalyzer.normalize("  Lập trình viên (Java/Spring)  "));
+        assertEquals("an nguyen example com", VietnameseTextAnalyzer.normalize("An.Nguyen@Example.com"));
+        assertNull(VietnameseTextAnalyzer.normalizeOrNull(" -- "));
+        assertEquals("ke toan%", VietnameseTextAnalyzer.prefixPattern("Kế toán_%"));
+        assertNull(VietnameseTextAnalyzer.prefixPattern(" -- "));
+    }
+
+    @Test
+    void termsDropStopWordsButKeepAmbiguousSyllables() {
+        assertEquals(List.of("ke", "toan", "kiem", "toan"), VietnameseTextAnalyzer.terms("Kế toán và kiểm toán"));
+        assertEquals(List.of("tai", "chinh", "ngan", "hang"), VietnameseTextAnalyzer.terms("Tài chính - Ngân hàng"));
+    }
+
+    @Test
+    void stripHtmlRemovesTagsAndEntities() {
+        assertEquals("ke toan", VietnameseTextAnalyzer.normalize(VietnameseTextAnalyzer.stripHtml("<p>Kế&nbsp;toán</p>")));
+    }
+}